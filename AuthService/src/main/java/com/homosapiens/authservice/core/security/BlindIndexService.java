@@ -0,0 +1,107 @@
+package com.homosapiens.authservice.core.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Blind indexes for encrypted columns. AES-GCM ciphertexts are randomized, so an encrypted column can
+ * never be matched in a WHERE clause; next to it we store a keyed HMAC-SHA256 of the normalized value,
+ * which is deterministic and can carry a unique index, but cannot be reversed or brute-forced without
+ * the key (unlike a plain SHA-256 of a phone number).
+ * <p>
+ * The field name is part of the MAC input, so the same value gives unrelated tokens in different
+ * columns. The key is {@code encryption.blind-index-key} (Base64). When it is not set, a key is derived
+ * from {@code encryption.secret-key}; set it explicitly in production, because the tokens must stay
+ * stable across encryption key rotations.
+ */
+@Service
+public class BlindIndexService {
+
+    public static final String EMAIL = "email";
+    public static final String PHONE = "phone";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] DERIVATION_LABEL = "diagnocare-blind-index-v1".getBytes(StandardCharsets.UTF_8);
+
+    private final SecretKeySpec key;
+    private final Mac prototype;
+
+    public BlindIndexService(@Value("${encryption.blind-index-key:}") String blindIndexKey,
+                             @Value("${encryption.secret-key:}") String secretKey) {
+        byte[] keyBytes;
+        if (blindIndexKey != null && !blindIndexKey.isBlank()) {
+            keyBytes = Base64.getDecoder().decode(blindIndexKey.trim());
+        } else if (secretKey != null && !secretKey.isBlank()) {
+            keyBytes = newMac(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), ALGORITHM)).doFinal(DERIVATION_LABEL);
+        } else {
+            throw new IllegalStateException("Blind index key must be configured. Set encryption.blind-index-key property.");
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.prototype = newMac(key);
+    }
+
+    /**
+     * Token for an email address: case and surrounding whitespace are ignored.
+     */
+    public String emailIndex(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return token(EMAIL, email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Token for a phone number: only the digits and a leading '+' are kept, so "04 20-37" and
+     * "042037" give the same token.
+     */
+    public String phoneIndex(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder normalized = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9' || c == '+' && normalized.isEmpty()) {
+                normalized.append(c);
+            }
+        }
+        return normalized.isEmpty() ? null : token(PHONE, normalized.toString());
+    }
+
+    /**
+     * 64 hex character HMAC of {@code field:value}; the value must already be normalized.
+     */
+    public String token(String field, String normalizedValue) {
+        Mac mac = cloneMac();
+        mac.update(field.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) ':');
+        return HexFormat.of().formatHex(mac.doFinal(normalizedValue.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac cloneMac() {
+        try {
+            // Cloning the initialised prototype skips the key schedule on every call
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newMac(key);
+        }
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -47,9 +47,9 @@ public class EncryptedStringConverter implements AttributeConverter<String, Stri
             return dbData;
         }
         try {
-            // Check if the data is already encrypted (starts with base64 pattern)
+            // Check if the data is already encrypted (key header, or base64 for values written before it)
             // If it looks like encrypted data, decrypt it; otherwise return as-is (for migration)
-            if (dbData.length() > 20 && dbData.matches("^[A-Za-z0-9+/=]+$")) {
+            if (DataEncryptionService.isEncrypted(dbData)) {
                 return getEncryptionService().decrypt(dbData);
             }
             return dbData;
@@ -0,0 +1,26 @@
+package com.homosapiens.authservice.core.security;
+
+import com.homosapiens.authservice.model.User;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the blind index columns of {@link User} in step with the encrypted values they index.
+ * Spring-managed (Hibernate resolves entity listeners through the Spring bean container), so the
+ * HMAC key is injected rather than looked up statically.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserBlindIndexListener {
+
+    private final BlindIndexService blindIndexService;
+
+    @PrePersist
+    @PreUpdate
+    public void updateBlindIndexes(User user) {
+        user.setEmailBlindIndex(blindIndexService.emailIndex(user.getEmail()));
+        user.setPhoneBlindIndex(blindIndexService.phoneIndex(user.getPhoneNumber()));
+    }
+}
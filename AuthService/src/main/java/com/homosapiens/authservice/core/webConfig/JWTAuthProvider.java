@@ -2,8 +2,6 @@ package com.homosapiens.authservice.core.webConfig;
 
 
 import com.homosapiens.authservice.core.exception.AppException;
-import com.homosapiens.authservice.core.webConfig.CustomUserDetail.CustomUserDetailsService;
-import com.homosapiens.authservice.model.Role;
 import com.homosapiens.authservice.model.dtos.CustomUserDetails;
 import jakarta.annotation.PostConstruct;
 import lombok.Getter;
@@ -13,18 +11,26 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 
+/**
+ * Issues and verifies access and refresh tokens. Algorithms and verifiers are immutable and
+ * thread-safe, so they are built once; verification takes the user's id, email and roles from the
+ * claims and only asks {@link UserStatusCache} whether the user still exists, instead of loading the
+ * user with its roles on every request.
+ */
 @Component
 @RequiredArgsConstructor
 public class JWTAuthProvider {
@@ -43,8 +49,20 @@ public class JWTAuthProvider {
     private long refreshTokenExpiration;
 
     @Autowired
-    private CustomUserDetailsService customUserDetails;
-
+    private UserStatusCache userStatusCache;
+
+    private Algorithm accessAlgorithm;
+    private Algorithm refreshAlgorithm;
+    private JWTVerifier accessVerifier;
+    private JWTVerifier refreshVerifier;
+
+    @PostConstruct
+    void initVerifiers() {
+        accessAlgorithm = Algorithm.HMAC256(secretKey);
+        refreshAlgorithm = Algorithm.HMAC256(refreshSecretKey);
+        accessVerifier = JWT.require(accessAlgorithm).build();
+        refreshVerifier = JWT.require(refreshAlgorithm).build();
+    }
 
     public Map<String, Object> createToken(CustomUserDetails user) {
         Date now = new Date();
@@ -68,7 +86,7 @@ public class JWTAuthProvider {
                 .withClaim("lang", lang)
                 .withIssuedAt(now)
                 .withExpiresAt(validity)
-                .sign(Algorithm.HMAC256(secretKey));
+                .sign(accessAlgorithm);
 
         Map<String, Object> response = new HashMap<>();
         response.put("token", token);
@@ -97,7 +115,7 @@ public class JWTAuthProvider {
                 .withExpiresAt(validity)
                 .withClaim("tokenType", "refresh")
                 .withClaim("lang", lang)
-                .sign(Algorithm.HMAC256(refreshSecretKey));
+                .sign(refreshAlgorithm);
 
         Map<String, Object> response = new HashMap<>();
         response.put("refreshToken", refreshToken);
@@ -110,72 +128,64 @@ public class JWTAuthProvider {
     public Authentication validateToken(String token) {
 
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secretKey);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decoded = verifier.verify(token);
-
+            DecodedJWT decoded = accessVerifier.verify(token);
 
-
-            // Check if token is expired
-            if (decoded.getExpiresAt().before(new Date())) {
-                throw new AppException(HttpStatus.UNAUTHORIZED,"Token has expired. Please login again.");
+            Long userId = decoded.getClaim("id").asLong();
+            if (!userStatusCache.isActive(userId)) {
+                throw new AppException(HttpStatus.UNAUTHORIZED, "User no longer exists. Please login again.");
             }
-            List<String> roles = decoded.getClaim("roles").asList(String.class);
-
-            if (roles == null) {
-                roles = new ArrayList<>();
-            }
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("id", decoded.getClaim("id").asLong());
-            userData.put("email", decoded.getIssuer());
-            userData.put("roles", roles);
-            String lang = decoded.getClaim("lang").asString();
-            userData.put("lang", lang != null ? lang : "fr");
-            UserDetails userDetails = customUserDetails.loadUserByUsername(decoded.getIssuer());
-
-            return new UsernamePasswordAuthenticationToken(userData, userDetails.getPassword(), userDetails.getAuthorities());
+            return toAuthentication(decoded);
+        } catch (TokenExpiredException e) {
+            throw new AppException(HttpStatus.UNAUTHORIZED,"Token has expired. Please login again.");
         } catch (JWTVerificationException e) {
             throw new AppException( HttpStatus.UNAUTHORIZED,e.getMessage());
         }
     }
 
     public Authentication validateRefreshToken(String refreshToken) {
-        System.out.println(refreshToken);
         try {
-            Algorithm algorithm = Algorithm.HMAC256(refreshSecretKey);
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decoded = verifier.verify(refreshToken);
-
-
-            // Check if token is expired
-            if (decoded.getExpiresAt().before(new Date())) {
-                throw new AppException(HttpStatus.UNAUTHORIZED,"Refresh token has expired. Please login again.");
-            }
+            DecodedJWT decoded = refreshVerifier.verify(refreshToken);
 
             // Verify it's a refresh token
             if (!"refresh".equals(decoded.getClaim("tokenType").asString())) {
                 throw new AppException(HttpStatus.UNAUTHORIZED,"Invalid token type. Please provide a refresh token.");
             }
 
-            List<String> roles = decoded.getClaim("roles").asList(String.class);
-            if (roles == null) {
-                roles = new ArrayList<>();
-            }
-
-            Map<String, Object> userData = new HashMap<>();
-            userData.put("id", decoded.getClaim("id").asLong());
-            userData.put("email", decoded.getIssuer());
-            userData.put("roles", roles);
-            String lang = decoded.getClaim("lang").asString();
-            userData.put("lang", lang != null ? lang : "fr");
-            UserDetails userDetails = customUserDetails.loadUserByUsername(decoded.getIssuer());
-
-            return new UsernamePasswordAuthenticationToken(userData, userDetails.getPassword(), userDetails.getAuthorities());
+            // No user check here: refreshing loads the user anyway (AuthService.refreshToken)
+            return toAuthentication(decoded);
+        } catch (TokenExpiredException e) {
+            throw new AppException(HttpStatus.UNAUTHORIZED,"Refresh token has expired. Please login again.");
         } catch (JWTVerificationException e) {
             throw new AppException(HttpStatus.UNAUTHORIZED,"Invalid refresh token. Please provide a valid refresh token.");
 
         }
     }
 
+    /**
+     * Forgets the cached status of a user, e.g. after deleting it, so its tokens stop working now.
+     */
+    public void invalidateUserStatus(Long userId) {
+        userStatusCache.invalidate(userId);
+    }
+
+    private Authentication toAuthentication(DecodedJWT decoded) {
+        List<String> roles = decoded.getClaim("roles").asList(String.class);
+        if (roles == null) {
+            roles = new ArrayList<>();
+        }
+        Map<String, Object> userData = new HashMap<>();
+        userData.put("id", decoded.getClaim("id").asLong());
+        userData.put("email", decoded.getIssuer());
+        userData.put("roles", roles);
+        String lang = decoded.getClaim("lang").asString();
+        userData.put("lang", lang != null ? lang : "fr");
+
+        // Role names are the authorities CustomUserDetailsService grants, no need to load the user
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .toList();
+        return new UsernamePasswordAuthenticationToken(userData, null, authorities);
+    }
+
 
 }
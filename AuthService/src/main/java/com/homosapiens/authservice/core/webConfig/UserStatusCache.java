@@ -0,0 +1,84 @@
+package com.homosapiens.authservice.core.webConfig;
+
+import com.homosapiens.authservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Revocation check for access tokens: whether the user a token was issued to still exists.
+ * Token validation is otherwise CPU-only, so the answer is cached per user id for
+ * {@code security.jwt.user-status.ttl-ms}; deleting a user invalidates its entry right away on this
+ * instance, other instances notice within the TTL. With {@code security.jwt.user-status.enabled=false}
+ * every signed, unexpired token is accepted.
+ */
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long ttlMs;
+    private final int maxSize;
+    private final LongSupplier clock;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${security.jwt.user-status.enabled:true}") boolean enabled,
+                           @Value("${security.jwt.user-status.ttl-ms:60000}") long ttlMs,
+                           @Value("${security.jwt.user-status.max-size:10000}") int maxSize) {
+        this(userRepository, enabled, ttlMs, maxSize, System::currentTimeMillis);
+    }
+
+    UserStatusCache(UserRepository userRepository, boolean enabled, long ttlMs, int maxSize, LongSupplier clock) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    public boolean isActive(Long userId) {
+        if (!enabled) {
+            return true;
+        }
+        if (userId == null) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.active;
+        }
+        boolean active = userRepository.existsById(userId);
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(userId, new Entry(active, now + ttlMs));
+        return active;
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            entries.remove(userId);
+        }
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        Iterator<Long> ids = entries.keySet().iterator();
+        while (entries.size() >= maxSize && ids.hasNext()) {
+            ids.next();
+            ids.remove();
+        }
+    }
+
+    private record Entry(boolean active, long expiresAt) {
+    }
+}
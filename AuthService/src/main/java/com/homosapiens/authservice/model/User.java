@@ -3,6 +3,7 @@ package com.homosapiens.authservice.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.homosapiens.authservice.core.security.EncryptedStringConverter;
+import com.homosapiens.authservice.core.security.UserBlindIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
@@ -16,8 +17,8 @@ import org.springframework.data.annotation.LastModifiedDate;
 
 @Data
 @Entity
-@Table(name = "users")
-
+@Table(name = "users", indexes = @Index(name = "idx_users_phone_bidx", columnList = "phone_bidx"))
+@EntityListeners(UserBlindIndexListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -44,6 +45,19 @@ public class User {
     @Convert(converter = EncryptedStringConverter.class)
     private String phoneNumber;
 
+    /** Keyed HMAC of the normalized email, maintained by UserBlindIndexListener. */
+    @JsonIgnore
+    @Column(name = "email_bidx", unique = true, length = 64)
+    private String emailBlindIndex;
+
+    /**
+     * Keyed HMAC of the normalized phone number, maintained by UserBlindIndexListener.
+     * Indexed but not unique: phone numbers were never unique across accounts.
+     */
+    @JsonIgnore
+    @Column(name = "phone_bidx", length = 64)
+    private String phoneBlindIndex;
+
     @Column(length = 5)
     private String lang = "fr";
 
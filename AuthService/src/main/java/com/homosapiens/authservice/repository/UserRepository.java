@@ -1,7 +1,12 @@
 package com.homosapiens.authservice.repository;
 
 import com.homosapiens.authservice.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,7 +16,8 @@ import java.util.Optional;
  * Since emails are encrypted in the database, always use UserLookupService.findUserByEmail()
  * which handles the hash calculation automatically.
  * 
- * This repository only exposes findByEmailHash() for internal use.
+ * The same goes for phone numbers: use UserLookupService.findUserByPhoneNumber(), which queries the
+ * blind index column.
  */
 public interface UserRepository extends JpaRepository<User, Long> {
     
@@ -25,4 +31,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Optional containing the user if found
      */
     Optional<User> findByEmailHash(String emailHash);
+
+    /**
+     * Finds a user by the blind index of their email (see BlindIndexService.emailIndex).
+     */
+    Optional<User> findByEmailBlindIndex(String emailBlindIndex);
+
+    /**
+     * Finds the oldest user with the blind index of this phone number (see BlindIndexService.phoneIndex);
+     * phone numbers are not unique.
+     */
+    Optional<User> findFirstByPhoneBlindIndexOrderByIdAsc(String phoneBlindIndex);
+
+    /**
+     * Users created before the blind index columns existed, in id order after {@code afterId}.
+     */
+    @Query("SELECT u FROM User u WHERE u.id > :afterId " +
+            "AND ((u.email IS NOT NULL AND u.emailBlindIndex IS NULL) " +
+            "OR (u.phoneNumber IS NOT NULL AND u.phoneBlindIndex IS NULL)) ORDER BY u.id")
+    List<User> findMissingBlindIndexes(@Param("afterId") Long afterId, Pageable pageable);
 }
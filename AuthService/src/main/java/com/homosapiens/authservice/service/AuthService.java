@@ -159,6 +159,7 @@ public class AuthService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "User not found"));
         userRepository.delete(user);
+        jwtAuthProvider.invalidateUserStatus(user.getId());
         sendUserEvent(KafkaEvent.USER_DELETED, user, false);
     }
 
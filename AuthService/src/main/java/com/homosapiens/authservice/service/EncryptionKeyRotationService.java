@@ -0,0 +1,102 @@
+package com.homosapiens.authservice.service;
+
+import com.homosapiens.authservice.core.security.DataEncryptionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background re-encryption of the encrypted user columns to the active key, so that an old key can
+ * be removed from {@code encryption.keys} once it is done.
+ * <p>
+ * One batch of rows per tick keeps the load on the database low while the service keeps serving.
+ * The cursor is kept in memory: after a restart the job scans from the first row again, skipping
+ * values already on the active key. Rows are read and written through JDBC, because JPA would see
+ * no change in the decrypted values; each update only applies if the column still holds the value
+ * that was read, so a concurrent write always wins.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EncryptionKeyRotationService {
+
+    /** Columns mapped with EncryptedStringConverter. */
+    private static final List<String> ENCRYPTED_COLUMNS = List.of("email", "phone_number");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataEncryptionService dataEncryptionService;
+
+    @Value("${encryption.rotation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${encryption.rotation.batch-size:200}")
+    private int batchSize;
+
+    private long lastId;
+    private volatile boolean completed;
+
+    @Scheduled(initialDelayString = "${encryption.rotation.delay-ms:2000}",
+            fixedDelayString = "${encryption.rotation.delay-ms:2000}")
+    public void scheduledRotation() {
+        if (!enabled || completed) {
+            return;
+        }
+        try {
+            rotateNextBatch();
+        } catch (Exception e) {
+            log.error("Encryption key rotation batch failed, retrying on the next tick", e);
+        }
+    }
+
+    /**
+     * Re-encrypts the next batch of users whose encrypted columns are not on the active key.
+     *
+     * @return false once every user is on the active key
+     */
+    public synchronized boolean rotateNextBatch() {
+        if (completed) {
+            return false;
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, " + String.join(", ", ENCRYPTED_COLUMNS) + " FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                lastId, batchSize);
+
+        Map<String, List<Object[]>> updates = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            Object id = row.get("id");
+            for (String column : ENCRYPTED_COLUMNS) {
+                Object value = row.get(column);
+                if (!(value instanceof String stored) || !dataEncryptionService.needsReencryption(stored)) {
+                    continue;
+                }
+                try {
+                    updates.computeIfAbsent(column, c -> new ArrayList<>())
+                            .add(new Object[]{dataEncryptionService.reencrypt(stored), id, stored});
+                } catch (RuntimeException e) {
+                    // Plain text that merely looks like Base64, or a key that is no longer configured
+                    log.warn("Cannot re-encrypt users.{} of row {}: {}", column, id, e.getMessage());
+                }
+            }
+        }
+        for (Map.Entry<String, List<Object[]>> column : updates.entrySet()) {
+            jdbcTemplate.batchUpdate("UPDATE users SET " + column.getKey() + " = ? WHERE id = ? AND "
+                    + column.getKey() + " = ?", column.getValue());
+        }
+
+        if (rows.size() < batchSize) {
+            completed = true;
+            log.info("Encrypted user columns are on key {}", dataEncryptionService.getActiveKeyId());
+            return false;
+        }
+        lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package com.homosapiens.authservice.core.webConfig;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.homosapiens.authservice.core.exception.AppException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JWTAuthProviderTest {
+
+    private static final String SECRET = "test-access-secret";
+
+    @Mock
+    private UserStatusCache userStatusCache;
+
+    @InjectMocks
+    private JWTAuthProvider jwtAuthProvider;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtAuthProvider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtAuthProvider, "refreshSecretKey", "test-refresh-secret");
+        jwtAuthProvider.initVerifiers();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void validateToken_ShouldTakeAuthoritiesFromRolesClaim() {
+        when(userStatusCache.isActive(7L)).thenReturn(true);
+
+        Authentication authentication = jwtAuthProvider.validateToken(
+                token(7L, List.of("ADMIN", "PATIENT"), new Date(System.currentTimeMillis() + 60_000)));
+
+        assertEquals(List.of("ADMIN", "PATIENT"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        Map<String, Object> userData = (Map<String, Object>) authentication.getPrincipal();
+        assertEquals(7L, userData.get("id"));
+        assertEquals("user@example.com", userData.get("email"));
+        assertEquals("en", userData.get("lang"));
+    }
+
+    @Test
+    void validateToken_ShouldReturn401_WhenUserWasDeleted() {
+        when(userStatusCache.isActive(7L)).thenReturn(false);
+
+        AppException exception = assertThrows(AppException.class, () -> jwtAuthProvider.validateToken(
+                token(7L, List.of("PATIENT"), new Date(System.currentTimeMillis() + 60_000))));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
+        assertEquals("User no longer exists. Please login again.", exception.getMessage());
+    }
+
+    @Test
+    void validateToken_ShouldReturn401WithExpiryMessage_WhenTokenExpired() {
+        AppException exception = assertThrows(AppException.class, () -> jwtAuthProvider.validateToken(
+                token(7L, List.of("PATIENT"), new Date(System.currentTimeMillis() - 60_000))));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exception.getStatus());
+        assertEquals("Token has expired. Please login again.", exception.getMessage());
+        verify(userStatusCache, never()).isActive(anyLong());
+    }
+
+    @Test
+    void invalidateUserStatus_ShouldForgetCachedStatus() {
+        jwtAuthProvider.invalidateUserStatus(7L);
+
+        verify(userStatusCache).invalidate(7L);
+    }
+
+    private static String token(Long id, List<String> roles, Date expiresAt) {
+        return JWT.create()
+                .withIssuer("user@example.com")
+                .withClaim("id", id)
+                .withClaim("roles", roles)
+                .withClaim("lang", "en")
+                .withIssuedAt(new Date(expiresAt.getTime() - 120_000))
+                .withExpiresAt(expiresAt)
+                .sign(Algorithm.HMAC256(SECRET));
+    }
+}
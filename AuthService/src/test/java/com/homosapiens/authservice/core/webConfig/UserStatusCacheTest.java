@@ -0,0 +1,67 @@
+package com.homosapiens.authservice.core.webConfig;
+
+import com.homosapiens.authservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatusCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private UserStatusCache cache(boolean enabled) {
+        return new UserStatusCache(userRepository, enabled, 60_000, 100, now::get);
+    }
+
+    @Test
+    void isActive_ShouldQueryOncePerTtl() {
+        UserStatusCache cache = cache(true);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(cache.isActive(1L));
+        now.addAndGet(59_999);
+        assertTrue(cache.isActive(1L));
+        verify(userRepository, times(1)).existsById(1L);
+
+        // Deleted on another instance: noticed once the entry expires
+        when(userRepository.existsById(1L)).thenReturn(false);
+        now.addAndGet(1);
+        assertFalse(cache.isActive(1L));
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void invalidate_ShouldDropTheEntryRightAway() {
+        UserStatusCache cache = cache(true);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        assertTrue(cache.isActive(1L));
+
+        when(userRepository.existsById(1L)).thenReturn(false);
+        cache.invalidate(1L);
+
+        assertFalse(cache.isActive(1L));
+    }
+
+    @Test
+    void isActive_ShouldRejectMissingId_AndSkipChecksWhenDisabled() {
+        assertFalse(cache(true).isActive(null));
+        assertTrue(cache(false).isActive(42L));
+
+        verify(userRepository, never()).existsById(any());
+    }
+}
@@ -333,6 +333,7 @@ public class AuthServiceTest {
 
         // Assert
         verify(userRepository).delete(user);
+        verify(jwtAuthProvider).invalidateUserStatus(userId);
     }
 
     @Test
@@ -0,0 +1,86 @@
+package com.homosapiens.diagnocareservice.core.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypt/decrypt throughput of {@link DataEncryptionService} for typical column sizes, with the GC
+ * profiler reporting bytes allocated per operation (gc.alloc.rate.norm). Run with:
+ * <pre>mvn -Pjmh test-compile exec:java</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataEncryptionServiceBenchmark {
+
+    /** Plaintext length in bytes: phone number, email, address, free-text note. */
+    @Param({"8", "32", "64", "256"})
+    private int size;
+
+    private DataEncryptionService service;
+    private String plainText;
+    private String cipherText;
+
+    @Setup
+    public void setUp() {
+        service = new DataEncryptionService(DataEncryptionService.generateKey());
+        StringBuilder value = new StringBuilder(size);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            value.append((char) ('a' + random.nextInt(26)));
+        }
+        plainText = value.toString();
+        cipherText = service.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return service.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return service.decrypt(cipherText);
+    }
+
+    /** Shared RNG and cipher pool under contention, as when several requests write profiles at once. */
+    @Benchmark
+    @Threads(8)
+    public String encryptContended() {
+        return service.encrypt(plainText);
+    }
+
+    /** Cipher pool under contention, as when several requests page through users at once. */
+    @Benchmark
+    @Threads(8)
+    public String decryptContended() {
+        return service.decrypt(cipherText);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataEncryptionServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -6,7 +6,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -16,19 +18,28 @@ public class UrgentDiseaseSeeder implements CommandLineRunner {
 
     @Override
     public void run(String... args) {
-        List<String> seedDiseases = List.of(
-                "Heart attack",
-                "Paralysis (brain hemorrhage)",
-                "Pneumonia",
-                "Tuberculosis"
-        );
+        // English name (as reported by the ML service) -> French name, aliases
+        Map<String, List<String>> seedDiseases = new LinkedHashMap<>();
+        seedDiseases.put("Heart attack", List.of("Crise cardiaque", "Myocardial infarction"));
+        seedDiseases.put("Paralysis (brain hemorrhage)", List.of("Paralysie (hémorragie cérébrale)"));
+        seedDiseases.put("Pneumonia", List.of("Pneumonie"));
+        seedDiseases.put("Tuberculosis", List.of("Tuberculose"));
 
-        for (String diseaseName : seedDiseases) {
-            if (!urgentDiseaseRepository.existsByDiseaseNameIgnoreCase(diseaseName)) {
-                UrgentDisease urgentDisease = new UrgentDisease();
-                urgentDisease.setDiseaseName(diseaseName);
-                urgentDiseaseRepository.save(urgentDisease);
+        seedDiseases.forEach((diseaseName, names) -> {
+            UrgentDisease urgentDisease = urgentDiseaseRepository.findByDiseaseNameIgnoreCase(diseaseName)
+                    .orElseGet(() -> {
+                        UrgentDisease created = new UrgentDisease();
+                        created.setDiseaseName(diseaseName);
+                        return created;
+                    });
+            if (urgentDisease.getId() != null && urgentDisease.getDiseaseNameFr() != null) {
+                return;
             }
-        }
+            urgentDisease.setDiseaseNameFr(names.get(0));
+            if (names.size() > 1 && urgentDisease.getAliases() == null) {
+                urgentDisease.setAliases(String.join(";", names.subList(1, names.size())));
+            }
+            urgentDiseaseRepository.save(urgentDisease);
+        });
     }
 }
@@ -0,0 +1,139 @@
+package com.homosapiens.diagnocareservice.controller;
+
+import com.homosapiens.diagnocareservice.core.ml.MLHttpTransport;
+import com.homosapiens.diagnocareservice.core.ml.MLInstanceLoadTracker;
+import com.homosapiens.diagnocareservice.core.ml.MLMetadataCache;
+import com.homosapiens.diagnocareservice.core.ml.MLPredictionCache;
+import com.homosapiens.diagnocareservice.core.ml.MLProfileFeatureCache;
+import com.homosapiens.diagnocareservice.service.MLPredictionClient;
+import com.homosapiens.diagnocareservice.service.PredictionWorkflowService;
+import com.homosapiens.diagnocareservice.service.TranslationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("ml-monitoring")
+@Tag(name = "ML Monitoring", description = "Runtime statistics of the ML service integration")
+@RequiredArgsConstructor
+public class MLMonitoringController {
+
+    private final MLHttpTransport mlHttpTransport;
+    private final MLInstanceLoadTracker mlInstanceLoadTracker;
+    private final MLPredictionCache mlPredictionCache;
+    private final MLProfileFeatureCache mlProfileFeatureCache;
+    private final MLPredictionClient mlPredictionClient;
+    private final MLMetadataCache mlMetadataCache;
+    private final TranslationService translationService;
+    private final PredictionWorkflowService predictionWorkflowService;
+
+    @GetMapping("/transport")
+    @Operation(summary = "Get ML HTTP transport stats", description = "Connection pool usage, saturation and per-endpoint timeout counters")
+    public ResponseEntity<Map<String, Object>> getTransportStats() {
+        return ResponseEntity.ok(mlHttpTransport.snapshot());
+    }
+
+    @GetMapping("/load-balancer")
+    @Operation(summary = "Get ML load balancer state", description = "Per-instance in-flight calls, latency EWMA, failures and ejections of the load-balanced ML client")
+    public ResponseEntity<Map<String, Object>> getLoadBalancerStats() {
+        return ResponseEntity.ok(mlInstanceLoadTracker.snapshot());
+    }
+
+    @GetMapping("/circuit-breakers")
+    @Operation(summary = "Get ML circuit breaker and bulkhead state", description = "Per-endpoint breaker state, failure rate, rejected calls and bulkhead usage")
+    public ResponseEntity<Map<String, Object>> getCircuitBreakers() {
+        return ResponseEntity.ok(mlHttpTransport.resilienceSnapshot());
+    }
+
+    @PostMapping("/circuit-breakers/reset")
+    @Operation(summary = "Reset ML circuit breakers", description = "Closes every ML circuit breaker and clears its failure window")
+    public ResponseEntity<Void> resetCircuitBreakers() {
+        mlHttpTransport.resetCircuitBreakers();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/prediction-cache")
+    @Operation(summary = "Get prediction cache stats", description = "Size, hit/miss counters and current model version of the ML prediction cache")
+    public ResponseEntity<Map<String, Object>> getPredictionCacheStats() {
+        return ResponseEntity.ok(mlPredictionCache.snapshot());
+    }
+
+    @DeleteMapping("/prediction-cache")
+    @Operation(summary = "Invalidate prediction cache", description = "Drops every cached ML prediction")
+    public ResponseEntity<Void> invalidatePredictionCache() {
+        mlPredictionCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/profile-cache")
+    @Operation(summary = "Get profile feature cache stats", description = "Size, hit/miss counters and invalidations of the per-user ML profile feature cache")
+    public ResponseEntity<Map<String, Object>> getProfileCacheStats() {
+        return ResponseEntity.ok(mlProfileFeatureCache.snapshot());
+    }
+
+    @DeleteMapping("/profile-cache")
+    @Operation(summary = "Invalidate profile feature cache", description = "Drops every cached ML profile feature block")
+    public ResponseEntity<Void> invalidateProfileCache() {
+        mlProfileFeatureCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/wire-format")
+    @Operation(summary = "Get ML wire format", description = "Configured and active encoding of ML request bodies (JSON or CBOR) and request counters")
+    public ResponseEntity<Map<String, Object>> getWireFormatStats() {
+        return ResponseEntity.ok(mlPredictionClient.getWireFormatStats());
+    }
+
+    @GetMapping("/batching")
+    @Operation(summary = "Get predict micro-batching stats", description = "Queue depth, batch counts and average batch size of the predict coalescer")
+    public ResponseEntity<Map<String, Object>> getBatchingStats() {
+        return ResponseEntity.ok(mlPredictionClient.getBatchingStats());
+    }
+
+    @GetMapping("/hedging")
+    @Operation(summary = "Get predict hedging stats", description = "Current hedge delay, hedges sent, hedges won and budget usage")
+    public ResponseEntity<Map<String, Object>> getHedgingStats() {
+        return ResponseEntity.ok(mlPredictionClient.getHedgingStats());
+    }
+
+    @GetMapping("/metadata")
+    @Operation(summary = "Get ML metadata snapshot state", description = "ETags, last fetch/check time, update, 304 and failure counters of the features and diseases metadata snapshots")
+    public ResponseEntity<Map<String, Object>> getMetadataStats() {
+        return ResponseEntity.ok(mlMetadataCache.snapshot());
+    }
+
+    @PostMapping("/metadata/refresh")
+    @Operation(summary = "Refresh ML metadata", description = "Revalidates the features and diseases metadata snapshots against the ML service now")
+    public ResponseEntity<Map<String, Object>> refreshMetadata() {
+        mlMetadataCache.refresh();
+        return ResponseEntity.ok(mlMetadataCache.snapshot());
+    }
+
+    @GetMapping("/translation-cache")
+    @Operation(summary = "Get translation cache stats", description = "Cached terms per language, term hit ratio and ML translate calls")
+    public ResponseEntity<Map<String, Object>> getTranslationCacheStats() {
+        return ResponseEntity.ok(translationService.getCacheStats());
+    }
+
+    @DeleteMapping("/translation-cache")
+    @Operation(summary = "Reload translation cache", description = "Drops every cached term translation and warms the cache again")
+    public ResponseEntity<Map<String, Object>> reloadTranslationCache() {
+        translationService.clearCache();
+        translationService.warmUp();
+        return ResponseEntity.ok(translationService.getCacheStats());
+    }
+
+    @GetMapping("/prediction-workflow")
+    @Operation(summary = "Get prediction workflow stage timings", description = "Average, max and last latency of each pre-ML read, the ML call and persistence, plus read executor usage")
+    public ResponseEntity<Map<String, Object>> getPredictionWorkflowTimings() {
+        return ResponseEntity.ok(predictionWorkflowService.getStageTimings());
+    }
+}
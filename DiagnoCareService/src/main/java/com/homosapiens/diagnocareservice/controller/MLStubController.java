@@ -0,0 +1,108 @@
+package com.homosapiens.diagnocareservice.controller;
+
+import com.homosapiens.diagnocareservice.dto.MLPredictionBatchRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionBatchResponseDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
+import io.swagger.v3.oas.annotations.Hidden;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Local stand-in for the ML prediction service, for development and load tests without the Python service.
+ * Enable with {@code ml.stub.enabled=true} and point {@code ml.service.url} at
+ * {@code http://localhost:8080/api/v1/diagnocare/ml-stub}. Predictions are deterministic for a given symptom set.
+ */
+@Hidden
+@RestController
+@RequestMapping("ml-stub")
+@ConditionalOnProperty(name = "ml.stub.enabled", havingValue = "true")
+public class MLStubController {
+
+    private static final String MODEL_VERSION = "stub";
+
+    private static final String[][] CATALOG = {
+            {"Common Cold", "Rhume", "General Practitioner", "Médecin généraliste"},
+            {"Migraine", "Migraine", "Neurologist", "Neurologue"},
+            {"Pneumonia", "Pneumonie", "Pulmonologist", "Pneumologue"},
+            {"Malaria", "Paludisme", "Infectious Disease Specialist", "Infectiologue"},
+            {"Gastroenteritis", "Gastro-entérite", "Gastroenterologist", "Gastro-entérologue"}
+    };
+
+    private static final double[] PROBABILITIES = {62.0, 23.0, 15.0};
+
+    @PostMapping("/predict")
+    public ResponseEntity<?> predict(@RequestBody MLPredictionRequestDTO request) {
+        if (hasNoSymptoms(request)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "No valid symptoms provided"));
+        }
+        return ResponseEntity.ok(score(request));
+    }
+
+    @PostMapping("/predict/batch")
+    public ResponseEntity<?> predictBatch(@RequestBody MLPredictionBatchRequestDTO batch) {
+        if (batch.getRequests() == null || batch.getRequests().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "'requests' must be a non-empty list"));
+        }
+        List<MLPredictionBatchResponseDTO.Item> results = new ArrayList<>(batch.getRequests().size());
+        for (MLPredictionRequestDTO request : batch.getRequests()) {
+            results.add(hasNoSymptoms(request)
+                    ? MLPredictionBatchResponseDTO.Item.builder().error("No valid symptoms provided").build()
+                    : MLPredictionBatchResponseDTO.Item.builder().response(score(request)).build());
+        }
+        return ResponseEntity.ok(MLPredictionBatchResponseDTO.builder().results(results).build());
+    }
+
+    @GetMapping("/health")
+    public ResponseEntity<Map<String, Object>> health() {
+        return ResponseEntity.ok(Map.of("status", "healthy", "service", "DiagnoCare ML stub", "model_version", MODEL_VERSION));
+    }
+
+    private boolean hasNoSymptoms(MLPredictionRequestDTO request) {
+        return request == null || request.getSymptoms() == null
+                || request.getSymptoms().stream().allMatch(s -> s == null || s.isBlank());
+    }
+
+    private MLPredictionResponseDTO score(MLPredictionRequestDTO request) {
+        TreeSet<String> symptoms = new TreeSet<>(request.getSymptoms());
+        String language = "en".equalsIgnoreCase(request.getLanguage()) ? "en" : "fr";
+        int offset = Math.floorMod(String.join(",", symptoms).hashCode(), CATALOG.length);
+
+        List<MLPredictionResponseDTO.PredictionResult> predictions = new ArrayList<>(PROBABILITIES.length);
+        for (int rank = 0; rank < PROBABILITIES.length; rank++) {
+            String[] entry = CATALOG[(offset + rank) % CATALOG.length];
+            boolean french = "fr".equals(language);
+            predictions.add(MLPredictionResponseDTO.PredictionResult.builder()
+                    .rank(rank + 1)
+                    .disease(french ? entry[1] : entry[0])
+                    .probability(PROBABILITIES[rank])
+                    .specialist(french ? entry[3] : entry[2])
+                    .specialist_probability(PROBABILITIES[rank])
+                    .description("Stub prediction")
+                    .disease_en(entry[0])
+                    .specialist_en(entry[2])
+                    .disease_fr(entry[1])
+                    .specialist_fr(entry[3])
+                    .build());
+        }
+        return MLPredictionResponseDTO.builder()
+                .predictions(predictions)
+                .language(language)
+                .metadata(MLPredictionResponseDTO.Metadata.builder()
+                        .symptoms_count(symptoms.size())
+                        .model_version(MODEL_VERSION)
+                        .build())
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.homosapiens.diagnocareservice.controller;
 
+import com.homosapiens.diagnocareservice.core.ml.MLMetadataCache;
+import com.homosapiens.diagnocareservice.dto.MLDiseasesMetadataDTO;
 import com.homosapiens.diagnocareservice.dto.PathologyDTO;
 import com.homosapiens.diagnocareservice.model.entity.Pathology;
 import com.homosapiens.diagnocareservice.service.PathologyService;
@@ -7,6 +9,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,7 +22,7 @@ import java.util.List;
 public class PathologyController {
 
     private final PathologyService pathologyService;
-    private final com.homosapiens.diagnocareservice.service.MLPredictionClient mlPredictionClient;
+    private final MLMetadataCache mlMetadataCache;
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a pathology", description = "Deletes a pathology by ID")
@@ -56,8 +59,12 @@ public class PathologyController {
 
     @GetMapping("/ml-metadata")
     @Operation(summary = "Get ML diseases metadata", description = "Retrieves all diseases/pathologies from ML service with translations in French and English")
-    public ResponseEntity<com.homosapiens.diagnocareservice.dto.MLDiseasesMetadataDTO> getMLDiseasesMetadata() {
-        com.homosapiens.diagnocareservice.dto.MLDiseasesMetadataDTO metadata = mlPredictionClient.getDiseasesMetadata();
-        return ResponseEntity.ok(metadata);
+    public ResponseEntity<MLDiseasesMetadataDTO> getMLDiseasesMetadata() {
+        // Spring answers 304 itself when If-None-Match matches the ETag
+        MLMetadataCache.Snapshot<MLDiseasesMetadataDTO> metadata = mlMetadataCache.getDiseasesMetadata();
+        return ResponseEntity.ok()
+                .eTag(metadata.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(metadata.body());
     }
 }
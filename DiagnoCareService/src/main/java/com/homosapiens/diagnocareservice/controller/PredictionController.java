@@ -11,14 +11,20 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
@@ -33,13 +39,14 @@ public class PredictionController {
     private final PredictionService predictionService;
     private final PredictionWorkflowService predictionWorkflowService;
     private final CheckInService checkInService;
+    private final PredictionJobService predictionJobService;
+    private final BulkPredictionService bulkPredictionService;
 
     @PostMapping
     @Operation(
             summary = "Create a new prediction",
             description = "Creates a new AI prediction from the given user ID and list of symptom labels. Only these two fields are required."
     )
-    @Transactional(rollbackFor = Exception.class)
     public ResponseEntity<PredictionWithResultsResponse> makePrediction(
             @Valid @RequestBody
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -55,9 +62,8 @@ public class PredictionController {
         SessionSymptomRequestDTO sessionSymptomRequestDTO = new SessionSymptomRequestDTO();
         sessionSymptomRequestDTO.setUserId(request.getUserId());
         sessionSymptomRequestDTO.setSymptomLabels(request.getSymptomLabels());
-        PredictionCreationResult result = predictionWorkflowService.createPrediction(sessionSymptomRequestDTO, null);
-
-        checkInService.scheduleCheckIn(result.getPrediction());
+        PredictionCreationResult result = predictionWorkflowService.createPrediction(
+                sessionSymptomRequestDTO, null, (prediction, mlResponse) -> checkInService.scheduleCheckIn(prediction));
 
         PredictionDTO predictionDTO = predictionService.convertToDTO(result.getPrediction());
         PredictionWithResultsResponse response = PredictionWithResultsResponse.builder()
@@ -67,6 +73,48 @@ public class PredictionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/async")
+    @Operation(
+            summary = "Submit a prediction job",
+            description = "Accepts the same body as POST /predictions and returns 202 with a job ID right away. "
+                    + "Poll GET /predictions/jobs/{jobId} until the status is COMPLETED or FAILED."
+    )
+    public ResponseEntity<PredictionJobResponseDTO> submitPredictionJob(@Valid @RequestBody CreatePredictionRequestDTO request) {
+        PredictionJobResponseDTO job = predictionJobService.submitJob(request);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/predictions/jobs/{jobId}")
+                .buildAndExpand(job.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get prediction job", description = "Returns the job status, and the prediction with its ML results once COMPLETED")
+    public ResponseEntity<PredictionJobResponseDTO> getPredictionJob(
+            @Parameter(description = "Prediction job ID") @PathVariable Long jobId) {
+        return predictionJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Score predictions in bulk",
+            description = "Reads one CreatePredictionRequestDTO per line (NDJSON) and streams back one result per line, "
+                    + "in input order, as each is scored. Failing lines get an error result and do not stop the stream. "
+                    + "With persist=true each line is stored like POST /predictions, without scheduling a check-in."
+    )
+    public ResponseEntity<StreamingResponseBody> scorePredictionsInBulk(
+            HttpServletRequest request,
+            @Parameter(description = "Store each scored request as a prediction") @RequestParam(defaultValue = "false") boolean persist)
+            throws IOException {
+        InputStream body = request.getInputStream();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> bulkPredictionService.score(body, output, persist));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update a prediction", description = "Updates an existing prediction by ID")
     public ResponseEntity<PredictionDTO> updatePrediction(
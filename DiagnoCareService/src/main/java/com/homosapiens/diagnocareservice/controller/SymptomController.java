@@ -1,14 +1,15 @@
 package com.homosapiens.diagnocareservice.controller;
 
+import com.homosapiens.diagnocareservice.core.ml.MLMetadataCache;
 import com.homosapiens.diagnocareservice.dto.SymptomDTO;
 import com.homosapiens.diagnocareservice.dto.MLFeaturesMetadataDTO;
 import com.homosapiens.diagnocareservice.model.entity.Symptom;
 import com.homosapiens.diagnocareservice.service.SymptomService;
-import com.homosapiens.diagnocareservice.service.MLPredictionClient;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,7 +22,7 @@ import java.util.List;
 public class SymptomController {
 
     private final SymptomService symptomService;
-    private final MLPredictionClient mlPredictionClient;
+    private final MLMetadataCache mlMetadataCache;
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a symptom", description = "Deletes a symptom by ID")
@@ -58,7 +59,11 @@ public class SymptomController {
     @GetMapping("/ml-metadata")
     @Operation(summary = "Get ML symptoms metadata", description = "Retrieves all symptoms from ML service with translations in French and English")
     public ResponseEntity<MLFeaturesMetadataDTO> getMLSymptomsMetadata() {
-        MLFeaturesMetadataDTO metadata = mlPredictionClient.getFeaturesMetadata();
-        return ResponseEntity.ok(metadata);
+        // Spring answers 304 itself when If-None-Match matches the ETag
+        MLMetadataCache.Snapshot<MLFeaturesMetadataDTO> metadata = mlMetadataCache.getFeaturesMetadata();
+        return ResponseEntity.ok()
+                .eTag(metadata.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(metadata.body());
     }
 }
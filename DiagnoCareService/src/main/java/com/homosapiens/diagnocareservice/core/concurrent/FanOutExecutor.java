@@ -0,0 +1,101 @@
+package com.homosapiens.diagnocareservice.core.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for fanning out short blocking calls (typically independent reads) and joining
+ * them. At most {@code maxThreads} tasks run at once and {@code queueCapacity} wait; beyond that
+ * the task runs on the caller's thread, so saturation degrades to sequential execution instead of
+ * failing. Threads are virtual when the runtime supports them (looked up reflectively, the build
+ * targets Java 17) and platform daemon threads otherwise; either way the pool bounds concurrency.
+ */
+@Slf4j
+public class FanOutExecutor implements AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+    private final boolean virtualThreads;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder ranInline = new LongAdder();
+
+    public FanOutExecutor(String name, int maxThreads, int queueCapacity, boolean preferVirtualThreads) {
+        ThreadFactory virtualFactory = preferVirtualThreads ? virtualThreadFactory(name + "-") : null;
+        this.virtualThreads = virtualFactory != null;
+        ThreadFactory factory = virtualFactory != null ? virtualFactory : platformThreadFactory(name + "-");
+        int threads = Math.max(1, maxThreads);
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), factory);
+        this.executor.allowCoreThreadTimeOut(true);
+        log.info("Fan-out executor '{}' started: {} {} threads, queue {}", name, threads,
+                virtualThreads ? "virtual" : "platform", queueCapacity);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        submitted.increment();
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            ranInline.increment();
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException failure) {
+                return CompletableFuture.failedFuture(failure);
+            }
+        }
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("threads", virtualThreads ? "virtual" : "platform");
+        snapshot.put("maxThreads", executor.getMaximumPoolSize());
+        snapshot.put("activeThreads", executor.getActiveCount());
+        snapshot.put("queued", executor.getQueue().size());
+        snapshot.put("submitted", submitted.sum());
+        snapshot.put("ranOnCaller", ranInline.sum());
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * {@code Thread.ofVirtual().name(prefix, 0).factory()}, or null before Java 21.
+     */
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
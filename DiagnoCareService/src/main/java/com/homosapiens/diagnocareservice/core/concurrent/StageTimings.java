@@ -0,0 +1,60 @@
+package com.homosapiens.diagnocareservice.core.concurrent;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cumulative latency per named stage of a multi-step operation (count, average, max and last).
+ */
+public class StageTimings {
+
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+
+    public <T> T time(String stage, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void record(String stage, long elapsedNanos) {
+        stages.computeIfAbsent(stage, key -> new Stage()).record(elapsedNanos);
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new TreeMap<>();
+        stages.forEach((name, stage) -> snapshot.put(name, stage.snapshot()));
+        return snapshot;
+    }
+
+    private static final class Stage {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        private void record(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            lastNanos = elapsedNanos;
+        }
+
+        private Map<String, Object> snapshot() {
+            long calls = count.sum();
+            Map<String, Object> snapshot = new TreeMap<>();
+            snapshot.put("count", calls);
+            snapshot.put("avgMs", calls == 0 ? 0.0 : totalNanos.sum() / (double) calls / TimeUnit.MILLISECONDS.toNanos(1));
+            snapshot.put("maxMs", TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+            snapshot.put("lastMs", TimeUnit.NANOSECONDS.toMillis(lastNanos));
+            return snapshot;
+        }
+    }
+}
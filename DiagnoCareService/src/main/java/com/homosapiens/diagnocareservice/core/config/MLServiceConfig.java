@@ -1,26 +1,30 @@
 package com.homosapiens.diagnocareservice.core.config;
 
+import com.homosapiens.diagnocareservice.core.ml.MLHttpTransport;
+import com.homosapiens.diagnocareservice.core.ml.MLLoadBalancerConfiguration;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@LoadBalancerClient(name = "ml-prediction-service", configuration = MLLoadBalancerConfiguration.class)
 public class MLServiceConfig {
 
     @Value("${ml.service.url:http://ml-prediction-service}")
     private String mlServiceUrl;
 
     @Bean
-    public RestTemplate directRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate directRestTemplate(MLHttpTransport mlHttpTransport) {
+        return new RestTemplate(mlHttpTransport.getRequestFactory());
     }
 
     @Bean
     @LoadBalanced
-    public RestTemplate loadBalancedRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate loadBalancedRestTemplate(MLHttpTransport mlHttpTransport) {
+        return new RestTemplate(mlHttpTransport.getRequestFactory());
     }
 
     public String getMlServiceUrl() {
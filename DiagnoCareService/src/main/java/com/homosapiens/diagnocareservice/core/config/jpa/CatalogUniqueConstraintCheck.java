@@ -0,0 +1,76 @@
+package com.homosapiens.diagnocareservice.core.config.jpa;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Catalog and symptom inserts rely on {@code INSERT ... ON CONFLICT DO NOTHING}, which only
+ * deduplicates when the column has a unique index. Hibernate's {@code ddl-auto=update} adds the
+ * constraints declared on the entities, but silently gives up when the table already holds duplicates;
+ * the inserts would then keep adding more. Startup therefore fails until the duplicates are merged and the constraint exists.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class CatalogUniqueConstraintCheck {
+
+    /** Table -> column that must be unique (the {@code @UniqueConstraint} of the entity). */
+    private static final Map<String, String> UNIQUE_COLUMNS = Map.of(
+            "pathologies", "pathology_name",
+            "medecins", "specialist_label",
+            "symptomes", "label");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void verify() {
+        List<String> missing = new ArrayList<>();
+        UNIQUE_COLUMNS.forEach((table, column) -> {
+            if (!hasUniqueIndex(table, column)) {
+                Integer duplicated = jdbcTemplate.queryForObject(
+                        "select count(*) from (select " + column + " from " + table + " where " + column
+                                + " is not null group by " + column + " having count(*) > 1) d", Integer.class);
+                missing.add("%s.%s (%d duplicated values)".formatted(table, column, duplicated));
+            }
+        });
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing unique constraint on " + String.join(", ", missing)
+                    + ": merge the duplicate rows and restart so the constraint can be created");
+        }
+        log.debug("Catalog unique constraints present on {}", UNIQUE_COLUMNS.keySet());
+    }
+
+    private boolean hasUniqueIndex(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            Map<String, List<String>> columnsByIndex = new HashMap<>();
+            try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                    tableName, true, false)) {
+                while (indexes.next()) {
+                    String index = indexes.getString("INDEX_NAME");
+                    String indexColumn = indexes.getString("COLUMN_NAME");
+                    if (index != null && indexColumn != null) {
+                        columnsByIndex.computeIfAbsent(index, name -> new ArrayList<>()).add(indexColumn);
+                    }
+                }
+            }
+            return columnsByIndex.values().stream()
+                    .anyMatch(columns -> columns.size() == 1 && columns.get(0).equalsIgnoreCase(column));
+        }));
+    }
+}
@@ -0,0 +1,21 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import java.io.IOException;
+
+/**
+ * Thrown by the ML transport when a call is refused locally, either because the endpoint's
+ * circuit breaker is open or because its bulkhead is full. Being an IOException, it surfaces
+ * through RestTemplate like any other I/O failure, without a socket ever being opened.
+ */
+public class MLCallRejectedException extends IOException {
+
+    public MLCallRejectedException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        // Rejections are expected under load or outage and must stay cheap
+        return this;
+    }
+}
@@ -0,0 +1,173 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for one ML endpoint.
+ * <p>
+ * CLOSED records the outcome of the last {@code windowSize} calls; once at least {@code minimumCalls}
+ * are recorded and the failure rate reaches {@code failureRateThreshold} percent, the breaker OPENs
+ * and every call is refused without touching the network. After {@code openDurationMs} it goes
+ * HALF_OPEN and lets {@code halfOpenCalls} probe calls through: if they all succeed it CLOSEs again,
+ * a single failure re-OPENs it.
+ */
+@Slf4j
+public class MLCircuitBreaker {
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationMs;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    // Ring buffer of the last outcomes, true = failure
+    private final boolean[] window;
+    private int windowIndex;
+    private int recordedCalls;
+    private int recordedFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermitsIssued;
+    private int halfOpenSuccesses;
+
+    private final LongAdder notPermitted = new LongAdder();
+    private final LongAdder timesOpened = new LongAdder();
+
+    public MLCircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+                            long openDurationMs, int halfOpenCalls, LongSupplier clock) {
+        this.name = name;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = Math.max(1, Math.min(100, failureRateThreshold));
+        this.openDurationMs = Math.max(0, openDurationMs);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+        this.window = new boolean[this.windowSize];
+    }
+
+    /**
+     * @return true if the call may go to the ML service; the caller must then report
+     * {@link #onSuccess()} or {@link #onFailure()} exactly once
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openDurationMs) {
+                notPermitted.increment();
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitsIssued >= halfOpenCalls) {
+                notPermitted.increment();
+                return false;
+            }
+            halfOpenPermitsIssued++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+        }
+    }
+
+    /**
+     * Gives back a permission that was acquired but never used (e.g. the bulkhead refused the call).
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermitsIssued > 0) {
+            halfOpenPermitsIssued--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized void reset() {
+        transitionTo(State.CLOSED);
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", state.name());
+        snapshot.put("failureRate", recordedCalls == 0 ? 0.0 : recordedFailures * 100.0 / recordedCalls);
+        snapshot.put("bufferedCalls", recordedCalls);
+        snapshot.put("failedCalls", recordedFailures);
+        snapshot.put("notPermittedCalls", notPermitted.sum());
+        snapshot.put("timesOpened", timesOpened.sum());
+        snapshot.put("failureRateThreshold", failureRateThreshold);
+        snapshot.put("minimumCalls", minimumCalls);
+        snapshot.put("windowSize", windowSize);
+        snapshot.put("openDurationMs", openDurationMs);
+        if (state == State.OPEN) {
+            snapshot.put("retryInMs", Math.max(0, openDurationMs - (clock.getAsLong() - openedAt)));
+        }
+        return snapshot;
+    }
+
+    private void record(boolean failure) {
+        if (recordedCalls == windowSize) {
+            if (window[windowIndex]) {
+                recordedFailures--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            recordedFailures++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+        // Evaluated on every outcome: the call that reaches minimumCalls may be a success
+        if (recordedCalls >= minimumCalls && recordedFailures * 100 >= failureRateThreshold * recordedCalls) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        if (state != next) {
+            log.warn("ML circuit breaker '{}' {} -> {}", name, state, next);
+        }
+        state = next;
+        halfOpenPermitsIssued = 0;
+        halfOpenSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAt = clock.getAsLong();
+            timesOpened.increment();
+        }
+        if (next == State.CLOSED) {
+            windowIndex = 0;
+            recordedCalls = 0;
+            recordedFailures = 0;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+/**
+ * Endpoints exposed by the ML prediction service.
+ * The key is used to look up per-endpoint settings (ml.http.endpoints.&lt;key&gt;.*).
+ */
+public enum MLEndpoint {
+    PREDICT("predict", "/predict"),
+    PREDICT_BATCH("predict-batch", "/predict/batch"),
+    TRANSLATE("translate", "/translate"),
+    FEATURES_METADATA("features-metadata", "/features-metadata"),
+    DISEASES_METADATA("diseases-metadata", "/diseases-metadata"),
+    HEALTH("health", "/health"),
+    OTHER("default", null);
+
+    private final String key;
+    private final String path;
+
+    MLEndpoint(String key, String path) {
+        this.key = key;
+        this.path = path;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public static MLEndpoint fromPath(String requestPath) {
+        if (requestPath == null) {
+            return OTHER;
+        }
+        for (MLEndpoint endpoint : values()) {
+            if (endpoint.path != null && requestPath.endsWith(endpoint.path)) {
+                return endpoint;
+            }
+        }
+        return OTHER;
+    }
+}
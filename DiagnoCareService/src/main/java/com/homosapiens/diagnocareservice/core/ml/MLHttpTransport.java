@@ -0,0 +1,467 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pooled, keep-alive HTTP transport used by both ML RestTemplates.
+ * <p>
+ * Each call is mapped to an {@link MLEndpoint} from its URI path and gets that endpoint's
+ * connect / read / total timeouts. The total timeout is a hard deadline from pool lease to
+ * response headers: when it expires the underlying connection is discarded, which unblocks
+ * the calling thread. The read timeout still bounds every socket read of the response body.
+ * <p>
+ * Every endpoint also has a circuit breaker and a bulkhead (ml.resilience.*). I/O errors and 5xx
+ * responses count as failures; while a breaker is open, or when an endpoint already has its maximum
+ * number of calls in flight, the call fails with {@link MLCallRejectedException} before a connection
+ * is leased, so an ML outage costs callers microseconds instead of a full timeout. A call holds its
+ * bulkhead permit until its response body has been read and closed, not only until the headers.
+ */
+@Component
+@Slf4j
+public class MLHttpTransport {
+
+    static final String ENDPOINT_ATTRIBUTE = MLHttpTransport.class.getName() + ".endpoint";
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final Map<MLEndpoint, EndpointSettings> settings = new EnumMap<>(MLEndpoint.class);
+    private final Map<MLEndpoint, EndpointCounters> counters = new EnumMap<>(MLEndpoint.class);
+    private final Map<MLEndpoint, MLCircuitBreaker> circuitBreakers = new EnumMap<>(MLEndpoint.class);
+    private final Map<MLEndpoint, Bulkhead> bulkheads = new EnumMap<>(MLEndpoint.class);
+    private final boolean resilienceEnabled;
+    private final ScheduledExecutorService deadlineScheduler;
+    private final LongAdder poolLeaseTimeouts = new LongAdder();
+    private final AtomicInteger peakPending = new AtomicInteger();
+    private final AtomicInteger peakLeased = new AtomicInteger();
+
+    public MLHttpTransport(Environment environment) {
+        int maxTotal = environment.getProperty("ml.http.max-connections", Integer.class, 50);
+        int maxPerRoute = environment.getProperty("ml.http.max-connections-per-route", Integer.class, 20);
+        long keepAliveMs = environment.getProperty("ml.http.keep-alive-ms", Long.class, 30_000L);
+        long idleEvictMs = environment.getProperty("ml.http.idle-eviction-ms", Long.class, 60_000L);
+        long validateAfterInactivityMs = environment.getProperty("ml.http.validate-after-inactivity-ms", Long.class, 2_000L);
+        long leaseTimeoutMs = environment.getProperty("ml.http.connection-request-timeout-ms", Long.class, 1_000L);
+
+        this.resilienceEnabled = environment.getProperty("ml.resilience.enabled", Boolean.class, true);
+
+        for (MLEndpoint endpoint : MLEndpoint.values()) {
+            settings.put(endpoint, EndpointSettings.from(environment, endpoint, leaseTimeoutMs));
+            counters.put(endpoint, new EndpointCounters());
+            circuitBreakers.put(endpoint, createCircuitBreaker(environment, endpoint));
+            bulkheads.put(endpoint, Bulkhead.from(environment, endpoint));
+        }
+
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(settings.get(MLEndpoint.OTHER).connectTimeout)
+                        .setSocketTimeout(settings.get(MLEndpoint.OTHER).readTimeout)
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                        .build())
+                .build();
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .addExecInterceptorFirst("ml-deadline", new DeadlineHandler())
+                .addExecInterceptorFirst("ml-resilience", new ResilienceHandler())
+                .build();
+
+        this.deadlineScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ml-http-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        this.requestFactory.setHttpContextFactory((method, uri) -> {
+            MLEndpoint endpoint = MLEndpoint.fromPath(uri.getPath());
+            HttpClientContext context = HttpClientContext.create();
+            context.setAttribute(ENDPOINT_ATTRIBUTE, endpoint);
+            context.setRequestConfig(settings.get(endpoint).requestConfig);
+            return context;
+        });
+
+        log.info("ML HTTP transport initialised: maxConnections={}, maxPerRoute={}, keepAlive={}ms, resilience={}",
+                maxTotal, maxPerRoute, keepAliveMs, resilienceEnabled ? "enabled" : "disabled");
+    }
+
+    public HttpComponentsClientHttpRequestFactory getRequestFactory() {
+        return requestFactory;
+    }
+
+    /**
+     * Point-in-time view of the connection pool and per-endpoint call counters.
+     */
+    public Map<String, Object> snapshot() {
+        PoolStats stats = connectionManager.getTotalStats();
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("max", stats.getMax());
+        pool.put("leased", stats.getLeased());
+        pool.put("available", stats.getAvailable());
+        pool.put("pending", stats.getPending());
+        pool.put("peakLeased", peakLeased.get());
+        pool.put("peakPending", peakPending.get());
+        pool.put("leaseTimeouts", poolLeaseTimeouts.sum());
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        counters.forEach((endpoint, counter) -> {
+            EndpointSettings endpointSettings = settings.get(endpoint);
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("connectTimeoutMs", endpointSettings.connectTimeout.toMilliseconds());
+            view.put("readTimeoutMs", endpointSettings.readTimeout.toMilliseconds());
+            view.put("totalTimeoutMs", endpointSettings.totalTimeout.toMilliseconds());
+            view.put("calls", counter.calls.sum());
+            view.put("failures", counter.failures.sum());
+            view.put("totalTimeouts", counter.totalTimeouts.sum());
+            endpoints.put(endpoint.getKey(), view);
+        });
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("pool", pool);
+        snapshot.put("endpoints", endpoints);
+        return snapshot;
+    }
+
+    /**
+     * Circuit breaker state and bulkhead usage per endpoint.
+     */
+    public Map<String, Object> resilienceSnapshot() {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        circuitBreakers.forEach((endpoint, breaker) -> {
+            Bulkhead bulkhead = bulkheads.get(endpoint);
+            Map<String, Object> view = new LinkedHashMap<>();
+            view.put("circuitBreaker", breaker.snapshot());
+            Map<String, Object> bulkheadView = new LinkedHashMap<>();
+            bulkheadView.put("maxConcurrentCalls", bulkhead.maxConcurrentCalls);
+            bulkheadView.put("maxWaitMs", bulkhead.maxWaitMs);
+            bulkheadView.put("inFlight", bulkhead.maxConcurrentCalls - bulkhead.permits.availablePermits());
+            bulkheadView.put("rejectedCalls", bulkhead.rejected.sum());
+            view.put("bulkhead", bulkheadView);
+            endpoints.put(endpoint.getKey(), view);
+        });
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", resilienceEnabled);
+        snapshot.put("endpoints", endpoints);
+        return snapshot;
+    }
+
+    public MLCircuitBreaker.State getCircuitState(MLEndpoint endpoint) {
+        return circuitBreakers.get(endpoint).getState();
+    }
+
+    /**
+     * Closes every circuit breaker, e.g. after the ML service was redeployed.
+     */
+    public void resetCircuitBreakers() {
+        circuitBreakers.values().forEach(MLCircuitBreaker::reset);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        deadlineScheduler.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Failed to close ML HTTP client cleanly: {}", e.getMessage());
+        }
+    }
+
+    private void recordPoolUsage() {
+        PoolStats stats = connectionManager.getTotalStats();
+        peakLeased.accumulateAndGet(stats.getLeased(), Math::max);
+        peakPending.accumulateAndGet(stats.getPending(), Math::max);
+        if (stats.getPending() > 0) {
+            log.debug("ML connection pool saturated: leased={}, pending={}, max={}",
+                    stats.getLeased(), stats.getPending(), stats.getMax());
+        }
+    }
+
+    private static MLCircuitBreaker createCircuitBreaker(Environment environment, MLEndpoint endpoint) {
+        String prefix = "ml.resilience.endpoints." + endpoint.getKey() + ".";
+        return new MLCircuitBreaker(endpoint.getKey(),
+                resilienceProperty(environment, prefix, "sliding-window-size", 20),
+                resilienceProperty(environment, prefix, "minimum-calls", 10),
+                resilienceProperty(environment, prefix, "failure-rate-threshold", 50),
+                resilienceProperty(environment, prefix, "open-duration-ms", 10_000),
+                resilienceProperty(environment, prefix, "half-open-calls", 3),
+                System::currentTimeMillis);
+    }
+
+    private static int resilienceProperty(Environment environment, String prefix, String name, int defaultValue) {
+        int fallback = environment.getProperty("ml.resilience." + name, Integer.class, defaultValue);
+        return environment.getProperty(prefix + name, Integer.class, fallback);
+    }
+
+    /**
+     * Outermost handler of the exec chain: refuses the call when the endpoint's breaker is open or
+     * its bulkhead is full, and reports the outcome of permitted calls to the breaker. The breaker
+     * outcome is known from the status line; the bulkhead permit moves to the response entity.
+     */
+    private class ResilienceHandler implements ExecChainHandler {
+
+        @Override
+        public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+                throws IOException, HttpException {
+            if (!resilienceEnabled) {
+                return chain.proceed(request, scope);
+            }
+            Object attribute = scope.clientContext.getAttribute(ENDPOINT_ATTRIBUTE);
+            MLEndpoint endpoint = attribute instanceof MLEndpoint mlEndpoint ? mlEndpoint : MLEndpoint.OTHER;
+            MLCircuitBreaker breaker = circuitBreakers.get(endpoint);
+            Bulkhead bulkhead = bulkheads.get(endpoint);
+
+            if (!breaker.tryAcquirePermission()) {
+                throw new MLCallRejectedException("Circuit breaker for ML " + endpoint.getKey() + " is open");
+            }
+            if (!bulkhead.tryAcquire()) {
+                breaker.releasePermission();
+                throw new MLCallRejectedException("Too many concurrent ML " + endpoint.getKey() + " calls ("
+                        + bulkhead.maxConcurrentCalls + " in flight)");
+            }
+            boolean permitHandedOver = false;
+            try {
+                ClassicHttpResponse response = chain.proceed(request, scope);
+                if (response.getCode() >= 500) {
+                    breaker.onFailure();
+                } else {
+                    breaker.onSuccess();
+                }
+                HttpEntity entity = response.getEntity();
+                if (entity != null) {
+                    response.setEntity(new PermitReleasingEntity(entity, bulkhead.permits));
+                    permitHandedOver = true;
+                }
+                return response;
+            } catch (IOException | HttpException | RuntimeException e) {
+                breaker.onFailure();
+                throw e;
+            } finally {
+                if (!permitHandedOver) {
+                    bulkhead.permits.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * First handler of the exec chain: arms the total-timeout deadline and keeps the counters.
+     */
+    private class DeadlineHandler implements ExecChainHandler {
+
+        @Override
+        public ClassicHttpResponse execute(ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+                throws IOException, HttpException {
+            Object attribute = scope.clientContext.getAttribute(ENDPOINT_ATTRIBUTE);
+            MLEndpoint endpoint = attribute instanceof MLEndpoint mlEndpoint ? mlEndpoint : MLEndpoint.OTHER;
+            EndpointSettings endpointSettings = settings.get(endpoint);
+            EndpointCounters counter = counters.get(endpoint);
+            counter.calls.increment();
+            recordPoolUsage();
+
+            AtomicBoolean expired = new AtomicBoolean(false);
+            ScheduledFuture<?> deadline = deadlineScheduler.schedule(() -> {
+                expired.set(true);
+                scope.execRuntime.discardEndpoint();
+            }, endpointSettings.totalTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+
+            try {
+                return chain.proceed(request, scope);
+            } catch (ConnectionRequestTimeoutException e) {
+                counter.failures.increment();
+                poolLeaseTimeouts.increment();
+                throw e;
+            } catch (IOException e) {
+                counter.failures.increment();
+                if (expired.get()) {
+                    counter.totalTimeouts.increment();
+                    InterruptedIOException timeout = new InterruptedIOException("ML " + endpoint.getKey()
+                            + " call exceeded total timeout of " + endpointSettings.totalTimeout.toMilliseconds() + " ms");
+                    timeout.initCause(e);
+                    throw timeout;
+                }
+                throw e;
+            } finally {
+                deadline.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Response entity that gives the bulkhead permit back once, when its content stream or the
+     * entity itself is closed (RestTemplate closes the response after reading the body) or after
+     * {@link #writeTo}.
+     */
+    private static final class PermitReleasingEntity extends HttpEntityWrapper {
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private PermitReleasingEntity(HttpEntity entity, Semaphore permits) {
+            super(entity);
+            this.permits = permits;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            InputStream content = super.getContent();
+            return content == null ? null : new FilterInputStream(content) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        release();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            try {
+                super.writeTo(outStream);
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private static final class Bulkhead {
+        private final int maxConcurrentCalls;
+        private final long maxWaitMs;
+        private final Semaphore permits;
+        private final LongAdder rejected = new LongAdder();
+
+        private Bulkhead(int maxConcurrentCalls, long maxWaitMs) {
+            this.maxConcurrentCalls = Math.max(1, maxConcurrentCalls);
+            this.maxWaitMs = Math.max(0, maxWaitMs);
+            this.permits = new Semaphore(this.maxConcurrentCalls);
+        }
+
+        private boolean tryAcquire() throws InterruptedIOException {
+            try {
+                boolean acquired = maxWaitMs == 0
+                        ? permits.tryAcquire()
+                        : permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+                if (!acquired) {
+                    rejected.increment();
+                }
+                return acquired;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for an ML bulkhead permit");
+            }
+        }
+
+        private static Bulkhead from(Environment environment, MLEndpoint endpoint) {
+            String prefix = "ml.resilience.endpoints." + endpoint.getKey() + ".";
+            return new Bulkhead(
+                    resilienceProperty(environment, prefix, "max-concurrent-calls", 20),
+                    resilienceProperty(environment, prefix, "max-wait-ms", 0));
+        }
+    }
+
+    private static final class EndpointCounters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalTimeouts = new LongAdder();
+    }
+
+    private static final class EndpointSettings {
+        private final Timeout connectTimeout;
+        private final Timeout readTimeout;
+        private final Timeout totalTimeout;
+        private final RequestConfig requestConfig;
+
+        private EndpointSettings(Timeout connectTimeout, Timeout readTimeout, Timeout totalTimeout, Timeout leaseTimeout) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.totalTimeout = totalTimeout;
+            this.requestConfig = buildRequestConfig(connectTimeout, readTimeout, leaseTimeout);
+        }
+
+        @SuppressWarnings("deprecation")
+        private static RequestConfig buildRequestConfig(Timeout connectTimeout, Timeout readTimeout, Timeout leaseTimeout) {
+            // Request-level connect timeout is deprecated in favour of ConnectionConfig, but it is the
+            // only way to vary it per endpoint on a shared route; HttpClient 5.3 still honours it.
+            return RequestConfig.custom()
+                    .setConnectionRequestTimeout(leaseTimeout)
+                    .setConnectTimeout(connectTimeout)
+                    .setResponseTimeout(readTimeout)
+                    .build();
+        }
+
+        private static EndpointSettings from(Environment environment, MLEndpoint endpoint, long leaseTimeoutMs) {
+            long defaultConnect = environment.getProperty("ml.http.connect-timeout-ms", Long.class, 2_000L);
+            long defaultRead = environment.getProperty("ml.http.read-timeout-ms", Long.class, 10_000L);
+            long defaultTotal = environment.getProperty("ml.http.total-timeout-ms", Long.class, 15_000L);
+            String prefix = "ml.http.endpoints." + endpoint.getKey() + ".";
+            long connect = environment.getProperty(prefix + "connect-timeout-ms", Long.class, defaultConnect);
+            long read = environment.getProperty(prefix + "read-timeout-ms", Long.class, defaultRead);
+            long total = environment.getProperty(prefix + "total-timeout-ms", Long.class, Math.max(defaultTotal, read));
+            return new EndpointSettings(
+                    Timeout.ofMilliseconds(connect),
+                    Timeout.ofMilliseconds(read),
+                    Timeout.ofMilliseconds(total),
+                    Timeout.ofMilliseconds(leaseTimeoutMs));
+        }
+    }
+}
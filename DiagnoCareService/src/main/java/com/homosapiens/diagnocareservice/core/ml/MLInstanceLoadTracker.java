@@ -0,0 +1,351 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-instance load of the ML service behind the load-balanced client: calls in flight, an EWMA of
+ * response times and consecutive failures, fed by {@link MLLoadBalancerLifecycle}.
+ * <p>
+ * {@link #choose} picks two healthy instances at random and keeps the one with the lowest
+ * {@code ewma * (inFlight + 1)} (power of two choices, so stale stats never send every caller to the
+ * same replica). Instances are ejected for a while after {@code failure-threshold} consecutive
+ * failures, or when their EWMA exceeds {@code latency-outlier-factor} times the fleet median; each
+ * new ejection of the same instance doubles the duration up to {@code max-ejection-ms} (the streak
+ * ends after {@code min-samples} successful calls checked within the latency bound), and at most
+ * {@code max-ejection-percent} of the fleet is ever ejected. An instance coming back starts with
+ * fresh stats so it is probed again.
+ */
+@Component
+@Slf4j
+public class MLInstanceLoadTracker {
+
+    /** Instances not returned by discovery for this long are forgotten. */
+    private static final long FORGET_AFTER_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long FORGET_CHECK_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final boolean enabled;
+    private final double alpha;
+    private final int failureThreshold;
+    private final double outlierFactor;
+    private final int minSamples;
+    private final long baseEjectionMillis;
+    private final long maxEjectionMillis;
+    private final int maxEjectionPercent;
+    private final LongSupplier clock;
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final LongAdder failureEjections = new LongAdder();
+    private final LongAdder latencyEjections = new LongAdder();
+    private final LongAdder ejectionsSkipped = new LongAdder();
+    private volatile long lastForgetCheck;
+
+    @Autowired
+    public MLInstanceLoadTracker(
+            @Value("${ml.load-balancer.latency-aware:true}") boolean enabled,
+            @Value("${ml.load-balancer.ewma-alpha:0.3}") double alpha,
+            @Value("${ml.load-balancer.failure-threshold:3}") int failureThreshold,
+            @Value("${ml.load-balancer.latency-outlier-factor:3.0}") double outlierFactor,
+            @Value("${ml.load-balancer.min-samples:10}") int minSamples,
+            @Value("${ml.load-balancer.base-ejection-ms:30000}") long baseEjectionMillis,
+            @Value("${ml.load-balancer.max-ejection-ms:300000}") long maxEjectionMillis,
+            @Value("${ml.load-balancer.max-ejection-percent:50}") int maxEjectionPercent) {
+        this(enabled, alpha, failureThreshold, outlierFactor, minSamples, baseEjectionMillis, maxEjectionMillis,
+                maxEjectionPercent, System::currentTimeMillis);
+    }
+
+    MLInstanceLoadTracker(boolean enabled, double alpha, int failureThreshold, double outlierFactor, int minSamples,
+                          long baseEjectionMillis, long maxEjectionMillis, int maxEjectionPercent, LongSupplier clock) {
+        this.enabled = enabled;
+        this.alpha = Math.min(1.0, Math.max(0.01, alpha));
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.outlierFactor = outlierFactor;
+        this.minSamples = Math.max(1, minSamples);
+        this.baseEjectionMillis = baseEjectionMillis;
+        this.maxEjectionMillis = Math.max(baseEjectionMillis, maxEjectionMillis);
+        this.maxEjectionPercent = maxEjectionPercent;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the instance to call, or null if there is none.
+     */
+    public ServiceInstance choose(List<ServiceInstance> instances) {
+        if (instances == null || instances.isEmpty()) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        forgetStale(now);
+        List<ServiceInstance> healthy = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            InstanceStats instanceStats = statsFor(instance);
+            instanceStats.lastSeen = now;
+            if (!instanceStats.isEjected(now)) {
+                healthy.add(instance);
+            }
+        }
+        // Everything ejected: still better to try one than to fail the call outright
+        List<ServiceInstance> candidates = healthy.isEmpty() ? instances : healthy;
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        double unknownLatency = medianLatency(candidates, null);
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return score(a, unknownLatency) <= score(b, unknownLatency) ? a : b;
+    }
+
+    public void onStart(ServiceInstance instance) {
+        statsFor(instance).inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records the end of a call that {@link #onStart} counted.
+     *
+     * @param success         false for I/O errors, timeouts and 5xx responses; their latency is not
+     *                        recorded, since a fast connection refusal must not make an instance look attractive
+     * @param rejectedLocally the call never left this process (open circuit breaker, full bulkhead)
+     */
+    public void onComplete(ServiceInstance instance, long elapsedNanos, boolean success, boolean rejectedLocally) {
+        InstanceStats instanceStats = statsFor(instance);
+        instanceStats.inFlight.decrementAndGet();
+        if (rejectedLocally) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (success) {
+            instanceStats.recordSuccess(elapsedNanos / 1_000_000.0, alpha);
+            if (outlierFactor <= 0) {
+                instanceStats.recordCleanSample(minSamples);
+            } else if (instanceStats.samples() >= minSamples) {
+                double median = medianLatency(null, instanceStats);
+                if (median > 0 && instanceStats.ewmaMillis() > outlierFactor * median) {
+                    instanceStats.recordSlowSample();
+                    eject(key(instance), instanceStats, now, "latency EWMA %.0fms vs fleet median %.0fms"
+                            .formatted(instanceStats.ewmaMillis(), median), latencyEjections);
+                } else {
+                    instanceStats.recordCleanSample(minSamples);
+                }
+            }
+        } else if (instanceStats.recordFailure() >= failureThreshold) {
+            eject(key(instance), instanceStats, now, failureThreshold + " consecutive failures", failureEjections);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        long now = clock.getAsLong();
+        Map<String, Object> instances = new TreeMap<>();
+        stats.forEach((key, instanceStats) -> {
+            if (now - instanceStats.lastSeen <= FORGET_AFTER_MILLIS) {
+                instances.put(key, instanceStats.snapshot(now));
+            }
+        });
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("strategy", enabled ? "latency-aware" : "round-robin");
+        snapshot.put("failureEjections", failureEjections.sum());
+        snapshot.put("latencyEjections", latencyEjections.sum());
+        snapshot.put("ejectionsSkippedByMaxPercent", ejectionsSkipped.sum());
+        snapshot.put("instances", instances);
+        return snapshot;
+    }
+
+    private void eject(String key, InstanceStats instanceStats, long now, String reason, LongAdder counter) {
+        synchronized (stats) {
+            if (instanceStats.isEjected(now)) {
+                return;
+            }
+            int known = 0;
+            int ejected = 0;
+            for (InstanceStats other : stats.values()) {
+                if (now - other.lastSeen <= FORGET_AFTER_MILLIS) {
+                    known++;
+                    if (other.isEjected(now)) {
+                        ejected++;
+                    }
+                }
+            }
+            if ((ejected + 1) * 100 > maxEjectionPercent * known) {
+                ejectionsSkipped.increment();
+                return;
+            }
+            long duration = instanceStats.eject(now, baseEjectionMillis, maxEjectionMillis);
+            counter.increment();
+            log.warn("Ejecting ML instance {} for {}ms: {}", key, duration, reason);
+        }
+    }
+
+    /**
+     * Drops instances discovery has not returned for {@link #FORGET_AFTER_MILLIS}, at most once per
+     * {@link #FORGET_CHECK_INTERVAL_MILLIS}, so replaced instances do not pile up.
+     */
+    private void forgetStale(long now) {
+        if (now - lastForgetCheck < FORGET_CHECK_INTERVAL_MILLIS) {
+            return;
+        }
+        lastForgetCheck = now;
+        stats.values().removeIf(instanceStats ->
+                now - instanceStats.lastSeen > FORGET_AFTER_MILLIS && instanceStats.inFlight.get() <= 0);
+    }
+
+    int trackedInstances() {
+        return stats.size();
+    }
+
+    private double score(ServiceInstance instance, double unknownLatency) {
+        InstanceStats instanceStats = statsFor(instance);
+        double latency = instanceStats.samples() > 0 ? instanceStats.ewmaMillis() : unknownLatency;
+        return latency * (Math.max(0, instanceStats.inFlight.get()) + 1);
+    }
+
+    /**
+     * Median EWMA over {@code instances} (or every recently seen instance but {@code excluded}) that
+     * have samples; 1 when none has, so that only in-flight counts matter.
+     */
+    private double medianLatency(List<ServiceInstance> instances, InstanceStats excluded) {
+        List<Double> latencies = new ArrayList<>();
+        if (instances != null) {
+            for (ServiceInstance instance : instances) {
+                InstanceStats instanceStats = statsFor(instance);
+                if (instanceStats.samples() > 0) {
+                    latencies.add(instanceStats.ewmaMillis());
+                }
+            }
+        } else {
+            long now = clock.getAsLong();
+            for (InstanceStats instanceStats : stats.values()) {
+                if (instanceStats != excluded && instanceStats.samples() >= minSamples
+                        && now - instanceStats.lastSeen <= FORGET_AFTER_MILLIS && !instanceStats.isEjected(now)) {
+                    latencies.add(instanceStats.ewmaMillis());
+                }
+            }
+        }
+        if (latencies.isEmpty()) {
+            return instances != null ? 1.0 : 0.0;
+        }
+        Collections.sort(latencies);
+        return latencies.get(latencies.size() / 2);
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> new InstanceStats(clock.getAsLong()));
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static final class InstanceStats {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile long lastSeen;
+        private double ewmaMillis;
+        private long samples;
+        private int consecutiveFailures;
+        private int ejectionStreak;
+        private int cleanSamples;
+        private long ejectedUntil;
+        private long ejections;
+
+        private InstanceStats(long now) {
+            this.lastSeen = now;
+        }
+
+        private synchronized void recordSuccess(double elapsedMillis, double alpha) {
+            ewmaMillis = samples == 0 ? elapsedMillis : alpha * elapsedMillis + (1 - alpha) * ewmaMillis;
+            samples++;
+            consecutiveFailures = 0;
+        }
+
+        /**
+         * A success checked against the latency bound; enough of them in a row end the ejection streak.
+         */
+        private synchronized void recordCleanSample(int cleanPeriod) {
+            if (++cleanSamples >= cleanPeriod) {
+                ejectionStreak = 0;
+            }
+        }
+
+        private synchronized void recordSlowSample() {
+            cleanSamples = 0;
+        }
+
+        private synchronized int recordFailure() {
+            cleanSamples = 0;
+            return ++consecutiveFailures;
+        }
+
+        private synchronized double ewmaMillis() {
+            return ewmaMillis;
+        }
+
+        private synchronized long samples() {
+            return samples;
+        }
+
+        /**
+         * True while ejected; the first check after the ejection ends resets the stats.
+         */
+        private synchronized boolean isEjected(long now) {
+            if (ejectedUntil == 0) {
+                return false;
+            }
+            if (now < ejectedUntil) {
+                return true;
+            }
+            ejectedUntil = 0;
+            ewmaMillis = 0;
+            samples = 0;
+            consecutiveFailures = 0;
+            return false;
+        }
+
+        private synchronized long eject(long now, long baseMillis, long maxMillis) {
+            long duration = Math.min(maxMillis, baseMillis << Math.min(ejectionStreak, 20));
+            ejectionStreak++;
+            cleanSamples = 0;
+            ejections++;
+            ejectedUntil = now + duration;
+            return duration;
+        }
+
+        private synchronized Map<String, Object> snapshot(long now) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("inFlight", inFlight.get());
+            snapshot.put("ewmaMs", Math.round(ewmaMillis * 10) / 10.0);
+            snapshot.put("samples", samples);
+            snapshot.put("consecutiveFailures", consecutiveFailures);
+            snapshot.put("ejected", ejectedUntil > now);
+            snapshot.put("ejectedForMs", Math.max(0, ejectedUntil - now));
+            snapshot.put("ejections", ejections);
+            snapshot.put("ejectionStreak", ejectionStreak);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load-balancer client configuration of the ML service, registered through
+ * {@code @LoadBalancerClient} on {@code MLServiceConfig}. Deliberately not a {@code @Configuration}:
+ * it must only be loaded into the ML service's load-balancer context, never component-scanned.
+ */
+public class MLLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> mlLoadBalancer(Environment environment,
+                                                               LoadBalancerClientFactory loadBalancerClientFactory,
+                                                               MLInstanceLoadTracker tracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        ObjectProvider<ServiceInstanceListSupplier> suppliers =
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        return tracker.isEnabled()
+                ? new MLLatencyAwareLoadBalancer(suppliers, tracker)
+                : new RoundRobinLoadBalancer(suppliers, serviceId);
+    }
+
+    @Bean
+    public MLLoadBalancerLifecycle mlLoadBalancerLifecycle(MLInstanceLoadTracker tracker) {
+        return new MLLoadBalancerLifecycle(tracker);
+    }
+}
@@ -0,0 +1,75 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+/**
+ * Feeds {@link MLInstanceLoadTracker} with the start and outcome of every load-balanced ML call.
+ * Calls refused locally by the ML transport ({@link MLCallRejectedException}) never reached the
+ * instance and are not held against it.
+ */
+public class MLLoadBalancerLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final MLInstanceLoadTracker tracker;
+
+    public MLLoadBalancerLifecycle(MLInstanceLoadTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        tracker.onStart(lbResponse.getServer());
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long start = completionContext.getLoadBalancerRequest() != null
+                && completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+                ? timed.getRequestStartTime() : 0;
+        long elapsed = start > 0 ? System.nanoTime() - start : 0;
+        tracker.onComplete(lbResponse.getServer(), elapsed, isSuccess(completionContext), isRejectedLocally(completionContext));
+    }
+
+    private static boolean isSuccess(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() != CompletionContext.Status.SUCCESS) {
+            return false;
+        }
+        return !(completionContext.getClientResponse() instanceof ResponseData responseData)
+                || responseData.getHttpStatus() == null
+                || !responseData.getHttpStatus().is5xxServerError();
+    }
+
+    private static boolean isRejectedLocally(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        for (Throwable cause = completionContext.getThrowable(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof MLCallRejectedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
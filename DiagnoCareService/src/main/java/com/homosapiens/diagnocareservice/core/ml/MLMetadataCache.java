@@ -0,0 +1,182 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.dto.MLDiseasesMetadataDTO;
+import com.homosapiens.diagnocareservice.dto.MLFeaturesMetadataDTO;
+import com.homosapiens.diagnocareservice.service.MLPredictionClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Local snapshot of the ML features and diseases metadata.
+ * <p>
+ * Both payloads only change when the model is retrained, so clients are served from memory with a
+ * strong ETag computed over the payload. A background job revalidates each snapshot against the ML
+ * service with If-None-Match (a 304 costs no payload transfer); on failure the last good snapshot
+ * keeps being served. Only a request arriving before the very first successful load calls the ML
+ * service synchronously.
+ */
+@Component
+@Slf4j
+public class MLMetadataCache {
+
+    private final ObjectMapper objectMapper;
+
+    private final Entry<MLFeaturesMetadataDTO> features;
+    private final Entry<MLDiseasesMetadataDTO> diseases;
+
+    public MLMetadataCache(MLPredictionClient mlPredictionClient, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.features = new Entry<>("features", mlPredictionClient::fetchFeaturesMetadata);
+        this.diseases = new Entry<>("diseases", mlPredictionClient::fetchDiseasesMetadata);
+    }
+
+    public Snapshot<MLFeaturesMetadataDTO> getFeaturesMetadata() {
+        return features.get();
+    }
+
+    public Snapshot<MLDiseasesMetadataDTO> getDiseasesMetadata() {
+        return diseases.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        // Off the startup thread: an unreachable ML service must not delay readiness
+        CompletableFuture.runAsync(this::refresh);
+    }
+
+    @Scheduled(initialDelayString = "${ml.metadata.refresh-ms:60000}", fixedDelayString = "${ml.metadata.refresh-ms:60000}")
+    public void refresh() {
+        features.refreshQuietly();
+        diseases.refreshQuietly();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("features", features.stats());
+        snapshot.put("diseases", diseases.stats());
+        return snapshot;
+    }
+
+    /**
+     * One cached payload with the strong ETag served to clients and the ETag the ML service gave us.
+     */
+    public record Snapshot<T>(T body, String etag, String upstreamEtag, Instant fetchedAt) {
+    }
+
+    private final class Entry<T> {
+        private final String name;
+        private final Function<String, ResponseEntity<T>> fetcher;
+        private final AtomicReference<Snapshot<T>> current = new AtomicReference<>();
+        private final Object loadLock = new Object();
+        private final LongAdder refreshes = new LongAdder();
+        private final LongAdder notModified = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile Instant lastCheckedAt;
+        private volatile String lastError;
+
+        private Entry(String name, Function<String, ResponseEntity<T>> fetcher) {
+            this.name = name;
+            this.fetcher = fetcher;
+        }
+
+        private Snapshot<T> get() {
+            Snapshot<T> snapshot = current.get();
+            if (snapshot != null) {
+                return snapshot;
+            }
+            // Cold start: one caller loads, concurrent callers wait for its result
+            synchronized (loadLock) {
+                snapshot = current.get();
+                return snapshot != null ? snapshot : refresh();
+            }
+        }
+
+        private void refreshQuietly() {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.warn("ML {} metadata refresh failed, keeping the previous snapshot: {}", name, e.getMessage());
+            }
+        }
+
+        private Snapshot<T> refresh() {
+            Snapshot<T> previous = current.get();
+            lastCheckedAt = Instant.now();
+            ResponseEntity<T> response;
+            try {
+                response = fetcher.apply(previous != null ? previous.upstreamEtag() : null);
+            } catch (RuntimeException e) {
+                failures.increment();
+                lastError = e.getMessage();
+                throw e;
+            }
+            lastError = null;
+            if (response != null && response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && previous != null) {
+                notModified.increment();
+                return previous;
+            }
+            if (response == null || response.getBody() == null) {
+                failures.increment();
+                throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service returned no " + name + " metadata");
+            }
+            String etag = strongEtag(response.getBody());
+            if (previous != null && previous.etag().equals(etag)) {
+                // Same content (e.g. ML service without ETag support): keep the original fetch time
+                Snapshot<T> unchanged = new Snapshot<>(previous.body(), etag, response.getHeaders().getETag(), previous.fetchedAt());
+                current.set(unchanged);
+                notModified.increment();
+                return unchanged;
+            }
+            Snapshot<T> snapshot = new Snapshot<>(response.getBody(), etag, response.getHeaders().getETag(), Instant.now());
+            current.set(snapshot);
+            refreshes.increment();
+            log.info("ML {} metadata snapshot updated (etag {})", name, etag);
+            return snapshot;
+        }
+
+        private Map<String, Object> stats() {
+            Snapshot<T> snapshot = current.get();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("loaded", snapshot != null);
+            stats.put("etag", snapshot != null ? snapshot.etag() : null);
+            stats.put("upstreamEtag", snapshot != null ? snapshot.upstreamEtag() : null);
+            stats.put("fetchedAt", snapshot != null ? snapshot.fetchedAt().toString() : null);
+            stats.put("lastCheckedAt", lastCheckedAt != null ? lastCheckedAt.toString() : null);
+            stats.put("updates", refreshes.sum());
+            stats.put("notModified", notModified.sum());
+            stats.put("failures", failures.sum());
+            stats.put("lastError", lastError);
+            return stats;
+        }
+    }
+
+    private String strongEtag(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not fingerprint ML metadata");
+        }
+    }
+}
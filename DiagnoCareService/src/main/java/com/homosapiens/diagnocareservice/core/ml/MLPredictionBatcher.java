@@ -0,0 +1,217 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.dto.MLPredictionBatchResponseDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent predict calls into batch calls.
+ * <p>
+ * A dispatcher thread waits for the first queued request, then keeps collecting until either
+ * {@code maxBatchSize} requests are queued or {@code maxWaitMs} has elapsed, and hands the batch
+ * to the sender. Each caller gets its own response (or error) back through a future.
+ * At most {@code maxConcurrentBatches} batches are in flight; beyond that requests queue up,
+ * and once the queue is full {@link #submit} returns null so the caller can call the ML service directly.
+ */
+@Slf4j
+public class MLPredictionBatcher implements AutoCloseable {
+
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Function<List<MLPredictionRequestDTO>, List<MLPredictionBatchResponseDTO.Item>> batchSender;
+    private final BlockingQueue<Pending> queue;
+    private final Semaphore batchSlots;
+    private final ExecutorService senders;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final AtomicInteger largestBatch = new AtomicInteger();
+
+    public MLPredictionBatcher(int maxBatchSize, long maxWaitMs, int queueCapacity, int maxConcurrentBatches,
+                               Function<List<MLPredictionRequestDTO>, List<MLPredictionBatchResponseDTO.Item>> batchSender) {
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+        this.batchSender = batchSender;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSlots = new Semaphore(Math.max(1, maxConcurrentBatches));
+        AtomicInteger senderIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, maxConcurrentBatches), runnable -> {
+            Thread thread = new Thread(runnable, "ml-batch-sender-" + senderIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "ml-batch-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queues a request for the next batch.
+     *
+     * @return the future response, or null when the queue is full or the batcher is closed
+     */
+    public CompletableFuture<MLPredictionResponseDTO> submit(MLPredictionRequestDTO request) {
+        if (!running) {
+            return null;
+        }
+        Pending pending = new Pending(request, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            return null;
+        }
+        if (!running && queue.remove(pending)) {
+            // Closed meanwhile, and nobody will drain the queue any more
+            return null;
+        }
+        submitted.increment();
+        return pending.future;
+    }
+
+    public Map<String, Object> snapshot() {
+        long batchCount = batches.sum();
+        long itemCount = submitted.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("maxBatchSize", maxBatchSize);
+        snapshot.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+        snapshot.put("queued", queue.size());
+        snapshot.put("submitted", itemCount);
+        snapshot.put("rejectedQueueFull", rejected.sum());
+        snapshot.put("batches", batchCount);
+        snapshot.put("failedBatches", failedBatches.sum());
+        snapshot.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) itemCount / batchCount);
+        snapshot.put("largestBatch", largestBatch.get());
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        senders.shutdown();
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        failClosed(remaining);
+    }
+
+    private void dispatchLoop() {
+        List<Pending> batch = List.of();
+        try {
+            while (running) {
+                Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                collectBatch(batch);
+                batchSlots.acquire();
+                List<Pending> dispatched = batch;
+                batch = List.of();
+                try {
+                    senders.execute(() -> {
+                        try {
+                            send(dispatched);
+                        } finally {
+                            batchSlots.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    batchSlots.release();
+                    fail(dispatched, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The batch being collected, and requests queued after close() drained the queue
+        List<Pending> remaining = new ArrayList<>(batch);
+        queue.drainTo(remaining);
+        failClosed(remaining);
+    }
+
+    private void collectBatch(List<Pending> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        batches.increment();
+        largestBatch.accumulateAndGet(batch.size(), Math::max);
+        List<MLPredictionRequestDTO> requests = new ArrayList<>(batch.size());
+        batch.forEach(pending -> requests.add(pending.request));
+        try {
+            List<MLPredictionBatchResponseDTO.Item> results = batchSender.apply(requests);
+            if (results == null || results.size() != batch.size()) {
+                throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR,
+                        "ML batch returned " + (results == null ? 0 : results.size())
+                                + " results for " + batch.size() + " requests");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), results.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("ML prediction batch of {} failed: {}", batch.size(), e.getMessage());
+            fail(batch, e);
+        }
+    }
+
+    private void complete(Pending pending, MLPredictionBatchResponseDTO.Item item) {
+        if (item != null && item.getResponse() != null) {
+            pending.future.complete(item.getResponse());
+            return;
+        }
+        String error = item != null && item.getError() != null ? item.getError() : "empty batch result";
+        pending.future.completeExceptionally(
+                new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service rejected the prediction: " + error));
+    }
+
+    private void fail(List<Pending> batch, RuntimeException e) {
+        failedBatches.increment();
+        batch.forEach(pending -> pending.future.completeExceptionally(e));
+    }
+
+    private static void failClosed(List<Pending> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        AppException closed = new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML prediction batcher is shutting down");
+        pending.forEach(p -> p.future.completeExceptionally(closed));
+    }
+
+    private record Pending(MLPredictionRequestDTO request, CompletableFuture<MLPredictionResponseDTO> future) {
+    }
+}
@@ -0,0 +1,247 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of ML predictions, keyed by the canonical form of the request
+ * (sorted, normalized symptoms plus every binned profile field and the language).
+ * <p>
+ * Entries expire after a TTL and the whole cache is dropped when the ML service reports a model
+ * version not seen before, either on a prediction response or on a health probe. The version is a
+ * hash of the model files, so replicas serving the same model agree; versions already seen (the
+ * other half of a fleet during a rolling deploy) do not flush the cache again.
+ */
+@Component
+@Slf4j
+public class MLPredictionCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<String, Entry> entries;
+    /** Bounds {@link #seenVersions}; a fleet only runs one or two models at a time. */
+    private static final int MAX_SEEN_VERSIONS = 8;
+
+    private volatile String modelVersion;
+    private final Set<String> seenVersions = new LinkedHashSet<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public MLPredictionCache(
+            @Value("${ml.prediction-cache.enabled:true}") boolean enabled,
+            @Value("${ml.prediction-cache.max-entries:1000}") int maxEntries,
+            @Value("${ml.prediction-cache.ttl-seconds:300}") long ttlSeconds) {
+        this(enabled, maxEntries, ttlSeconds * 1000, System::currentTimeMillis);
+    }
+
+    MLPredictionCache(boolean enabled, int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.enabled = enabled && maxEntries > 0 && ttlMillis > 0;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > MLPredictionCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a copy of the cached response for this request, or null on miss.
+     */
+    public MLPredictionResponseDTO get(MLPredictionRequestDTO request) {
+        if (!enabled) {
+            return null;
+        }
+        String key = canonicalKey(request);
+        long now = clock.getAsLong();
+        MLPredictionResponseDTO cached = null;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    cached = entry.response;
+                } else {
+                    entries.remove(key);
+                    expirations.increment();
+                }
+            }
+        }
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copy(cached);
+    }
+
+    public void put(MLPredictionRequestDTO request, MLPredictionResponseDTO response) {
+        if (response == null) {
+            return;
+        }
+        onModelVersion(response.getMetadata() != null ? response.getMetadata().getModel_version() : null);
+        if (!enabled) {
+            return;
+        }
+        String key = canonicalKey(request);
+        Entry entry = new Entry(copy(response), clock.getAsLong() + ttlMillis);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Records the model version reported by the ML service and drops every cached prediction
+     * the first time a new version shows up, i.e. when a new model has been deployed.
+     */
+    public void onModelVersion(String reportedVersion) {
+        if (reportedVersion == null || reportedVersion.isBlank() || reportedVersion.equals(modelVersion)) {
+            return;
+        }
+        synchronized (entries) {
+            if (!seenVersions.add(reportedVersion)) {
+                // A replica still (or already) on a model we know: nothing new to invalidate for
+                return;
+            }
+            if (seenVersions.size() > MAX_SEEN_VERSIONS) {
+                Iterator<String> oldest = seenVersions.iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            String previous = modelVersion;
+            modelVersion = reportedVersion;
+            if (previous != null) {
+                log.info("ML model version changed from {} to {}, invalidating {} cached predictions",
+                        previous, reportedVersion, entries.size());
+                entries.clear();
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        synchronized (entries) {
+            snapshot.put("size", entries.size());
+        }
+        snapshot.put("maxEntries", maxEntries);
+        snapshot.put("ttlSeconds", ttlMillis / 1000);
+        snapshot.put("modelVersion", modelVersion);
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", missCount);
+        snapshot.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        snapshot.put("evictions", evictions.sum());
+        snapshot.put("expirations", expirations.sum());
+        snapshot.put("invalidations", invalidations.sum());
+        return snapshot;
+    }
+
+    /**
+     * Canonical representation of a request: symptom order, case and duplicates do not matter,
+     * every other field (already binned by the workflow) is part of the key.
+     */
+    static String canonicalKey(MLPredictionRequestDTO request) {
+        TreeSet<String> symptoms = new TreeSet<>();
+        if (request.getSymptoms() != null) {
+            for (String symptom : request.getSymptoms()) {
+                if (symptom != null && !symptom.isBlank()) {
+                    symptoms.add(symptom.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        StringBuilder key = new StringBuilder(128);
+        key.append(String.join(",", symptoms)).append('|');
+        appendField(key, request.getAge());
+        appendField(key, request.getWeight());
+        appendField(key, request.getBmi());
+        appendField(key, request.getTension_moyenne());
+        appendField(key, request.getCholesterole_moyen());
+        appendField(key, request.getGender());
+        appendField(key, request.getBlood_pressure());
+        appendField(key, request.getCholesterol_level());
+        appendField(key, request.getOutcome_variable());
+        appendField(key, request.getSmoking());
+        appendField(key, request.getAlcohol());
+        appendField(key, request.getSedentarite());
+        appendField(key, request.getFamily_history());
+        appendField(key, request.getLanguage());
+        return key.toString();
+    }
+
+    private static void appendField(StringBuilder key, Object value) {
+        if (value instanceof String text) {
+            key.append(text.trim().toLowerCase(Locale.ROOT));
+        } else {
+            key.append(Objects.toString(value, ""));
+        }
+        key.append('|');
+    }
+
+    private static MLPredictionResponseDTO copy(MLPredictionResponseDTO source) {
+        List<MLPredictionResponseDTO.PredictionResult> predictions = null;
+        if (source.getPredictions() != null) {
+            predictions = new ArrayList<>(source.getPredictions().size());
+            for (MLPredictionResponseDTO.PredictionResult result : source.getPredictions()) {
+                predictions.add(result == null ? null : result.toBuilder().build());
+            }
+        }
+        MLPredictionResponseDTO.Metadata metadata = source.getMetadata() == null ? null
+                : source.getMetadata().toBuilder()
+                        .profile_used(source.getMetadata().getProfile_used() == null ? null
+                                : new LinkedHashMap<>(source.getMetadata().getProfile_used()))
+                        .build();
+        return MLPredictionResponseDTO.builder()
+                .predictions(predictions)
+                .language(source.getLanguage())
+                .metadata(metadata)
+                .build();
+    }
+
+    private record Entry(MLPredictionResponseDTO response, long expiresAt) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of the {@link MLProfileFeatures} of each user, so a prediction does not load
+ * and decrypt the medical profile column by column every time.
+ * <p>
+ * Profile writes call {@link #invalidate(Long)} once committed, which also bumps a version:
+ * a reader captures {@link #version()} before loading and {@link #put} drops its result if a write
+ * happened meanwhile, so a load racing with an update can never re-insert the old features.
+ * <p>
+ * When {@code encrypt-in-memory} is on, entries are kept AES-GCM sealed under a random key that
+ * only lives in this process, so cached health data never sits in the heap as plain objects.
+ */
+@Component
+@Slf4j
+public class MLProfileFeatureCache {
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_LENGTH = 16;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final boolean encrypted;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<Long, Entry> entries;
+    private final SecretKey sessionKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private long version;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder stalePuts = new LongAdder();
+
+    @Autowired
+    public MLProfileFeatureCache(
+            @Value("${ml.profile-cache.enabled:true}") boolean enabled,
+            @Value("${ml.profile-cache.max-entries:10000}") int maxEntries,
+            @Value("${ml.profile-cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${ml.profile-cache.encrypt-in-memory:true}") boolean encrypted) {
+        this(enabled, maxEntries, ttlSeconds * 1000, encrypted, System::currentTimeMillis);
+    }
+
+    MLProfileFeatureCache(boolean enabled, int maxEntries, long ttlMillis, boolean encrypted, LongSupplier clock) {
+        this.enabled = enabled && maxEntries > 0 && ttlMillis > 0;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.encrypted = encrypted;
+        this.clock = clock;
+        this.sessionKey = this.enabled && encrypted ? generateSessionKey() : null;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > MLProfileFeatureCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached features of this user, or null on miss.
+     */
+    public MLProfileFeatures get(Long userId) {
+        if (!enabled || userId == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        Entry cached = null;
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    cached = entry;
+                } else {
+                    entries.remove(userId);
+                    expirations.increment();
+                }
+            }
+        }
+        MLProfileFeatures features = cached == null ? null : unseal(cached);
+        if (features == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return features;
+    }
+
+    /**
+     * Version to capture before loading features that will be passed to {@link #put}.
+     */
+    public long version() {
+        synchronized (entries) {
+            return version;
+        }
+    }
+
+    /**
+     * Caches features loaded while the cache was at {@code loadedAtVersion}; ignored if a profile
+     * was written since.
+     */
+    public void put(Long userId, MLProfileFeatures features, long loadedAtVersion) {
+        if (!enabled || userId == null || features == null) {
+            return;
+        }
+        Entry entry = seal(features, clock.getAsLong() + ttlMillis);
+        if (entry == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (version != loadedAtVersion) {
+                stalePuts.increment();
+                return;
+            }
+            entries.put(userId, entry);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        synchronized (entries) {
+            version++;
+            if (userId != null) {
+                entries.remove(userId);
+            }
+        }
+        invalidations.increment();
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            version++;
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", enabled);
+        snapshot.put("encryptedInMemory", sessionKey != null);
+        synchronized (entries) {
+            snapshot.put("size", entries.size());
+            snapshot.put("version", version);
+        }
+        snapshot.put("maxEntries", maxEntries);
+        snapshot.put("ttlSeconds", ttlMillis / 1000);
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", missCount);
+        snapshot.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        snapshot.put("evictions", evictions.sum());
+        snapshot.put("expirations", expirations.sum());
+        snapshot.put("invalidations", invalidations.sum());
+        snapshot.put("stalePutsDropped", stalePuts.sum());
+        return snapshot;
+    }
+
+    private Entry seal(MLProfileFeatures features, long expiresAt) {
+        if (sessionKey == null) {
+            return new Entry(features, null, expiresAt);
+        }
+        try {
+            byte[] iv = new byte[GCM_IV_LENGTH];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, sessionKey, new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv));
+            byte[] cipherText = cipher.doFinal(MAPPER.writeValueAsBytes(features));
+            byte[] sealed = new byte[GCM_IV_LENGTH + cipherText.length];
+            System.arraycopy(iv, 0, sealed, 0, GCM_IV_LENGTH);
+            System.arraycopy(cipherText, 0, sealed, GCM_IV_LENGTH, cipherText.length);
+            return new Entry(null, sealed, expiresAt);
+        } catch (Exception e) {
+            log.warn("Could not seal profile features, not caching them: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private MLProfileFeatures unseal(Entry entry) {
+        if (entry.features != null) {
+            return entry.features;
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, sessionKey,
+                    new GCMParameterSpec(GCM_TAG_LENGTH * 8, entry.sealed, 0, GCM_IV_LENGTH));
+            byte[] plain = cipher.doFinal(entry.sealed, GCM_IV_LENGTH, entry.sealed.length - GCM_IV_LENGTH);
+            return MAPPER.readValue(plain, MLProfileFeatures.class);
+        } catch (Exception e) {
+            log.warn("Could not unseal cached profile features, treating as a miss: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static SecretKey generateSessionKey() {
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(256);
+            return keyGenerator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate the profile cache session key", e);
+        }
+    }
+
+    private record Entry(MLProfileFeatures features, byte[] sealed, long expiresAt) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.model.entity.PatientMedicalProfile;
+
+import java.util.Optional;
+
+/**
+ * Profile-derived part of an ML prediction request, already mapped to the values the model was
+ * trained on. Immutable, so it can be cached and shared across requests.
+ */
+public record MLProfileFeatures(
+        Integer age,
+        Float weight,
+        Float bmi,
+        Float tensionMoyenne,
+        Float cholesterolMoyen,
+        String gender,
+        String bloodPressure,
+        String cholesterolLevel,
+        String smoking,
+        String alcohol,
+        String sedentarite,
+        String familyHistory) {
+
+    /**
+     * Features used when the patient has no medical profile.
+     */
+    public static final MLProfileFeatures DEFAULTS = new MLProfileFeatures(
+            35, 75f, 24.2f, 120f, 190f, "Male", "Normal", "Normal", "No", "None", "Moderate", "No");
+
+    public static MLProfileFeatures of(Optional<PatientMedicalProfile> profile) {
+        return profile.map(MLProfileFeatures::of).orElse(DEFAULTS);
+    }
+
+    public static MLProfileFeatures of(PatientMedicalProfile profile) {
+        return new MLProfileFeatures(
+                profile.getAge(),
+                profile.getWeight(),
+                profile.getBmi() != null ? (float) profile.getBmi() : 24.2f,
+                profile.getMeanBloodPressure(),
+                profile.getMeanCholesterol(),
+                profile.getGender() != null
+                        ? profile.getGender().name().substring(0, 1) + profile.getGender().name().substring(1).toLowerCase()
+                        : "Male",
+                bloodPressureLevel(profile.getMeanBloodPressure()),
+                cholesterolLevel(profile.getMeanCholesterol()),
+                profile.getIsSmoking() != null && profile.getIsSmoking() ? "Yes" : "No",
+                profile.getAlcohol() != null && profile.getAlcohol() ? "Moderate" : "None",
+                profile.getSedentary() != null && profile.getSedentary() ? "High" : "Moderate",
+                profile.getFamilyAntecedents() != null && !profile.getFamilyAntecedents().isEmpty() ? "Yes" : "No");
+    }
+
+    public MLPredictionRequestDTO.MLPredictionRequestDTOBuilder applyTo(MLPredictionRequestDTO.MLPredictionRequestDTOBuilder builder) {
+        return builder.age(age)
+                .weight(weight)
+                .bmi(bmi)
+                .tension_moyenne(tensionMoyenne)
+                .cholesterole_moyen(cholesterolMoyen)
+                .gender(gender)
+                .blood_pressure(bloodPressure)
+                .cholesterol_level(cholesterolLevel)
+                .smoking(smoking)
+                .alcohol(alcohol)
+                .sedentarite(sedentarite)
+                .family_history(familyHistory);
+    }
+
+    private static String bloodPressureLevel(Float meanBloodPressure) {
+        if (meanBloodPressure == null) {
+            return "Normal";
+        }
+        if (meanBloodPressure > 140) {
+            return "High";
+        }
+        return meanBloodPressure < 90 ? "Low" : "Normal";
+    }
+
+    private static String cholesterolLevel(Float meanCholesterol) {
+        if (meanCholesterol == null) {
+            return "Normal";
+        }
+        // Seuils alignés avec les distributions d'entraînement du modèle ML :
+        //   "High"   ~ N(235, 25)  → frontière à 220
+        //   "Normal" ~ N(190, 20)  → frontière à 170
+        //   "Low"    ~ N(155, 20)
+        if (meanCholesterol > 220) {
+            return "High";
+        }
+        return meanCholesterol < 170 ? "Low" : "Normal";
+    }
+}
@@ -0,0 +1,238 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedges idempotent ML calls: if the first attempt has not answered after the hedge delay,
+ * a second identical attempt is started and whichever succeeds first wins.
+ * <p>
+ * The delay is the configured percentile of recently observed attempt latencies, clamped to
+ * [minDelayMs, maxDelayMs], so only the slowest few percent of calls are hedged. A token budget
+ * caps hedges at {@code budgetPercent} of calls (at most 100%, so hedging can never more than
+ * double the load on the ML service). This is not a retry: an attempt that fails before the delay
+ * is reported as is; once hedged, the call only fails if both attempts fail.
+ */
+public class MLRequestHedger implements AutoCloseable {
+
+    private static final int DELAY_REFRESH_EVERY = 16;
+
+    private final int percentile;
+    private final long minDelayMs;
+    private final long maxDelayMs;
+    private final long initialDelayMs;
+    private final int minSamples;
+    private final double budgetRatio;
+    private final double maxTokens;
+    private final ThreadPoolExecutor executor;
+
+    // Ring buffer of recent attempt latencies (ms)
+    private final long[] samples;
+    private int sampleIndex;
+    private int sampleCount;
+    private int samplesSinceRefresh;
+    private boolean delayMeasured;
+    private volatile long hedgeDelayMs;
+
+    private double tokens;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+    private final LongAdder hedgesSkippedBudget = new LongAdder();
+    private final LongAdder rejectedNoThread = new LongAdder();
+
+    public MLRequestHedger(int percentile, long minDelayMs, long maxDelayMs, long initialDelayMs,
+                           int minSamples, int sampleWindow, int budgetPercent, int maxConcurrentAttempts) {
+        this.percentile = Math.max(1, Math.min(99, percentile));
+        this.minDelayMs = Math.max(0, minDelayMs);
+        this.maxDelayMs = Math.max(this.minDelayMs, maxDelayMs);
+        this.initialDelayMs = clamp(initialDelayMs);
+        this.minSamples = Math.max(1, minSamples);
+        this.samples = new long[Math.max(this.minSamples, sampleWindow)];
+        this.budgetRatio = Math.max(0, Math.min(100, budgetPercent)) / 100.0;
+        // A small burst allowance so an idle service can still hedge its first slow calls
+        this.maxTokens = Math.max(1.0, budgetRatio * 10);
+        this.tokens = maxTokens;
+        this.hedgeDelayMs = this.initialDelayMs;
+        AtomicInteger index = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, Math.max(2, maxConcurrentAttempts), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "ml-hedge-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs {@code attempt}, hedging it once if it is slower than the current hedge delay.
+     * The attempt must be idempotent. Runtime exceptions of the winning (or last failing)
+     * attempt are rethrown unchanged.
+     */
+    public <T> T execute(Supplier<T> attempt) {
+        calls.increment();
+        earnToken();
+
+        CompletableFuture<T> primary = startAttempt(attempt);
+        if (primary == null) {
+            // No spare thread: behave exactly like an unhedged call
+            rejectedNoThread.increment();
+            return attempt.get();
+        }
+
+        try {
+            return primary.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return hedge(attempt, primary);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the ML service");
+        }
+    }
+
+    public long getHedgeDelayMs() {
+        return hedgeDelayMs;
+    }
+
+    public Map<String, Object> snapshot() {
+        long callCount = calls.sum();
+        long sent = hedgesSent.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("percentile", percentile);
+        snapshot.put("hedgeDelayMs", hedgeDelayMs);
+        snapshot.put("budgetPercent", budgetRatio * 100);
+        snapshot.put("calls", callCount);
+        snapshot.put("hedgesSent", sent);
+        snapshot.put("hedgesWon", hedgesWon.sum());
+        snapshot.put("hedgeRate", callCount == 0 ? 0.0 : (double) sent / callCount);
+        snapshot.put("hedgeWinRate", sent == 0 ? 0.0 : (double) hedgesWon.sum() / sent);
+        snapshot.put("hedgesSkippedBudget", hedgesSkippedBudget.sum());
+        snapshot.put("unhedgedNoThread", rejectedNoThread.sum());
+        synchronized (this) {
+            snapshot.put("latencySamples", sampleCount);
+            snapshot.put("availableTokens", tokens);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T hedge(Supplier<T> attempt, CompletableFuture<T> primary) {
+        if (!tryTakeToken()) {
+            hedgesSkippedBudget.increment();
+            return await(primary);
+        }
+        CompletableFuture<T> secondary = startAttempt(attempt);
+        if (secondary == null) {
+            rejectedNoThread.increment();
+            return await(primary);
+        }
+        hedgesSent.increment();
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        CompletableFuture<?>[] attempts = {primary, secondary};
+        for (CompletableFuture<?> future : attempts) {
+            future.whenComplete((result, error) -> {
+                if (error == null) {
+                    if (winner.complete(cast(result)) && future == secondary) {
+                        hedgesWon.increment();
+                    }
+                    return;
+                }
+                firstFailure.compareAndSet(null, error);
+                if (failed.incrementAndGet() == attempts.length) {
+                    winner.completeExceptionally(firstFailure.get());
+                }
+            });
+        }
+        // The losing attempt is left to finish in the background (bounded by the transport's total timeout)
+        return await(winner);
+    }
+
+    private <T> CompletableFuture<T> startAttempt(Supplier<T> attempt) {
+        long start = System.nanoTime();
+        try {
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(attempt, executor);
+            future.thenRun(() -> recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            return future;
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private synchronized void earnToken() {
+        tokens = Math.min(maxTokens, tokens + budgetRatio);
+    }
+
+    private synchronized boolean tryTakeToken() {
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+
+    private synchronized void recordLatency(long latencyMs) {
+        samples[sampleIndex] = latencyMs;
+        sampleIndex = (sampleIndex + 1) % samples.length;
+        if (sampleCount < samples.length) {
+            sampleCount++;
+        }
+        samplesSinceRefresh++;
+        if (sampleCount >= minSamples && (!delayMeasured || samplesSinceRefresh >= DELAY_REFRESH_EVERY)) {
+            delayMeasured = true;
+            samplesSinceRefresh = 0;
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            hedgeDelayMs = clamp(sorted[Math.max(0, rank)]);
+        }
+    }
+
+    private long clamp(long delayMs) {
+        return Math.max(minDelayMs, Math.min(maxDelayMs, delayMs));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: " + cause.getMessage());
+    }
+}
@@ -0,0 +1,102 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Encoding of the bodies POSTed to the ML service (predict, batch predict, translate).
+ * <p>
+ * JSON unless {@code ml.wire-format=cbor}; RestTemplate then picks its CBOR converter from the
+ * Content-Type (the codec is a regular dependency, the classpath check only guards repackaged
+ * deployments that drop it). Responses are negotiated through Accept with JSON as the
+ * lower-quality alternative, and an ML deployment that rejects CBOR bodies with 415 switches this
+ * instance back to JSON for good.
+ * Compression is negotiated separately: the HTTP client always offers gzip and inflates responses.
+ */
+@Component
+@Slf4j
+public class MLWireFormat {
+
+    public static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
+    private static final MediaType JSON_FALLBACK = MediaType.valueOf("application/json;q=0.5");
+
+    private static final String CBOR_FACTORY = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+
+    private final String configured;
+    private final boolean cborAvailable;
+    private volatile boolean cbor;
+
+    private final LongAdder cborRequests = new LongAdder();
+    private final LongAdder jsonRequests = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    @Autowired
+    public MLWireFormat(@Value("${ml.wire-format:json}") String configured) {
+        this(configured, ClassUtils.isPresent(CBOR_FACTORY, MLWireFormat.class.getClassLoader()));
+    }
+
+    MLWireFormat(String configured, boolean cborAvailable) {
+        this.configured = configured == null ? "json" : configured.trim().toLowerCase(Locale.ROOT);
+        this.cborAvailable = cborAvailable;
+        boolean cborRequested = "cbor".equals(this.configured);
+        if (cborRequested && !cborAvailable) {
+            log.warn("ml.wire-format=cbor but jackson-dataformat-cbor is not on the classpath; using JSON");
+        }
+        this.cbor = cborRequested && cborAvailable;
+    }
+
+    public boolean isCbor() {
+        return cbor;
+    }
+
+    /**
+     * Content-Type and Accept for the next ML request body.
+     */
+    public HttpHeaders requestHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (cbor) {
+            cborRequests.increment();
+            headers.setContentType(APPLICATION_CBOR);
+            headers.setAccept(List.of(APPLICATION_CBOR, JSON_FALLBACK));
+        } else {
+            jsonRequests.increment();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        }
+        return headers;
+    }
+
+    /**
+     * The ML service answered 415 to a CBOR body: it cannot decode CBOR, use JSON from now on.
+     */
+    public void fallBackToJson() {
+        if (cbor) {
+            cbor = false;
+            fallbacks.increment();
+            log.warn("ML service does not accept application/cbor, falling back to JSON");
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("configured", configured);
+        snapshot.put("cborCodecAvailable", cborAvailable);
+        snapshot.put("active", cbor ? "cbor" : "json");
+        snapshot.put("cborRequests", cborRequests.sum());
+        snapshot.put("jsonRequests", jsonRequests.sum());
+        snapshot.put("fallbacks", fallbacks.sum());
+        return snapshot;
+    }
+}
@@ -1,5 +1,6 @@
 package com.homosapiens.diagnocareservice.core.security;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -8,92 +9,272 @@ import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+/**
+ * AES-256-GCM field encryption. Runs for every encrypted column of every row read or written, so the
+ * per-call setup is kept out of the hot path: one shared {@link SecureRandom} (thread-safe, seeded
+ * once) for the IVs, and a bounded pool of {@link Cipher} instances that are re-initialised with the
+ * key and a fresh IV on each call. A pool rather than a ThreadLocal, because callers also run on
+ * short-lived virtual threads that would never reuse their own instance.
+ * <p>
+ * Values are written as Base64 of {@code magic | version | key id | IV | ciphertext+tag}; the three
+ * header bytes are authenticated as AAD. Several keys can be live at once ({@code encryption.keys}),
+ * new values use {@code encryption.active-key-id}, and values are decrypted with the key named in
+ * their header. Values written before the header existed (Base64 of {@code IV | ciphertext+tag})
+ * are still read, with {@code encryption.secret-key} (key id 0).
+ */
 @Service
 public class DataEncryptionService {
 
+    /** Key id of {@code encryption.secret-key}, also used for values without a header. */
+    public static final int LEGACY_KEY_ID = 0;
+
     private static final String ALGORITHM = "AES";
     private static final String TRANSFORMATION = "AES/GCM/NoPadding";
     private static final int GCM_IV_LENGTH = 12;
     private static final int GCM_TAG_LENGTH = 16;
     private static final int KEY_LENGTH = 256;
+    private static final int CIPHER_POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final byte FORMAT_MAGIC = (byte) 0xDC;
+    private static final byte FORMAT_AES_256_GCM = 1;
+    private static final int HEADER_LENGTH = 3;
+    private static final int MAX_KEY_ID = 255;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SecretKey[] keys = new SecretKey[MAX_KEY_ID + 1];
+    private final int activeKeyId;
+    private final byte[] activeHeader;
+    private final BlockingQueue<Cipher> cipherPool = new ArrayBlockingQueue<>(CIPHER_POOL_SIZE);
 
-    private final SecretKey secretKey;
+    public DataEncryptionService(String secretKeyString) {
+        this(secretKeyString, "", "");
+    }
 
-    public DataEncryptionService(@Value("${encryption.secret-key:}") String secretKeyString) {
-        if (secretKeyString == null || secretKeyString.isEmpty()) {
+    /**
+     * @param secretKeyString Base64 key with id 0; optional when {@code encryption.keys} is set
+     * @param additionalKeys  comma-separated {@code id:base64Key} pairs, ids 1-255
+     * @param activeKeyId     key id for new values; the highest configured id when blank
+     */
+    @Autowired
+    public DataEncryptionService(@Value("${encryption.secret-key:}") String secretKeyString,
+                                 @Value("${encryption.keys:}") String additionalKeys,
+                                 @Value("${encryption.active-key-id:}") String activeKeyId) {
+        if (secretKeyString != null && !secretKeyString.isEmpty()) {
+            keys[LEGACY_KEY_ID] = new SecretKeySpec(Base64.getDecoder().decode(secretKeyString), ALGORITHM);
+        }
+        int highestKeyId = keys[LEGACY_KEY_ID] != null ? LEGACY_KEY_ID : -1;
+        if (additionalKeys != null && !additionalKeys.isBlank()) {
+            for (String entry : additionalKeys.split(",")) {
+                int separator = entry.indexOf(':');
+                if (separator < 0) {
+                    throw new IllegalStateException("encryption.keys entries must be id:base64Key");
+                }
+                int keyId = Integer.parseInt(entry.substring(0, separator).trim());
+                if (keyId < 1 || keyId > MAX_KEY_ID || keys[keyId] != null) {
+                    throw new IllegalStateException("Invalid or duplicate encryption key id " + keyId);
+                }
+                keys[keyId] = new SecretKeySpec(Base64.getDecoder().decode(entry.substring(separator + 1).trim()), ALGORITHM);
+                highestKeyId = Math.max(highestKeyId, keyId);
+            }
+        }
+        if (highestKeyId < 0) {
             throw new IllegalStateException("Encryption secret key must be configured. Set encryption.secret-key property.");
         }
-        this.secretKey = new SecretKeySpec(Base64.getDecoder().decode(secretKeyString), ALGORITHM);
+        this.activeKeyId = activeKeyId == null || activeKeyId.isBlank() ? highestKeyId : Integer.parseInt(activeKeyId.trim());
+        if (this.activeKeyId < 0 || this.activeKeyId > MAX_KEY_ID || keys[this.activeKeyId] == null) {
+            throw new IllegalStateException("encryption.active-key-id " + activeKeyId + " is not a configured key");
+        }
+        this.activeHeader = new byte[]{FORMAT_MAGIC, FORMAT_AES_256_GCM, (byte) this.activeKeyId};
+    }
+
+    public int getActiveKeyId() {
+        return activeKeyId;
     }
 
     /**
-     * Encrypts a plain text string using AES-256-GCM.
+     * Encrypts a plain text string using AES-256-GCM with the active key.
      *
      * @param plainText The text to encrypt
-     * @return Base64 encoded encrypted string (IV + ciphertext)
+     * @return Base64 encoded encrypted string (header + IV + ciphertext)
      */
     public String encrypt(String plainText) {
         if (plainText == null || plainText.isEmpty()) {
             return plainText;
         }
+        return encryptBytes(plainText.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encrypts binary data using AES-256-GCM with the active key, in the same format as {@link #encrypt}.
+     */
+    public String encryptBytes(byte[] input) {
+        if (input == null) {
+            return null;
+        }
 
+        Cipher cipher = borrowCipher();
         try {
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
             byte[] iv = new byte[GCM_IV_LENGTH];
-            new SecureRandom().nextBytes(iv);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
+            RANDOM.nextBytes(iv);
+            cipher.init(Cipher.ENCRYPT_MODE, keys[activeKeyId], new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv));
+            cipher.updateAAD(activeHeader);
 
-            byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+            // Header, IV and ciphertext are written straight into the output array, no intermediate copies
+            byte[] output = new byte[HEADER_LENGTH + GCM_IV_LENGTH + input.length + GCM_TAG_LENGTH];
+            System.arraycopy(activeHeader, 0, output, 0, HEADER_LENGTH);
+            System.arraycopy(iv, 0, output, HEADER_LENGTH, GCM_IV_LENGTH);
+            cipher.doFinal(input, 0, input.length, output, HEADER_LENGTH + GCM_IV_LENGTH);
 
-            // Combine IV and ciphertext
-            ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + cipherText.length);
-            byteBuffer.put(iv);
-            byteBuffer.put(cipherText);
-
-            return Base64.getEncoder().encodeToString(byteBuffer.array());
+            return Base64.getEncoder().encodeToString(output);
         } catch (Exception e) {
             throw new RuntimeException("Failed to encrypt data", e);
+        } finally {
+            releaseCipher(cipher);
         }
     }
 
     /**
-     * Decrypts an encrypted string using AES-256-GCM.
+     * Decrypts an encrypted string using AES-256-GCM, with the key named in its header.
      *
-     * @param encryptedText Base64 encoded encrypted string (IV + ciphertext)
+     * @param encryptedText Base64 encoded encrypted string (header + IV + ciphertext, or legacy IV + ciphertext)
      * @return Decrypted plain text
      */
     public String decrypt(String encryptedText) {
         if (encryptedText == null || encryptedText.isEmpty()) {
             return encryptedText;
         }
+        return new String(decryptBytes(encryptedText), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decrypts a value written by {@link #encryptBytes} (or {@link #encrypt}) to its raw bytes.
+     */
+    public byte[] decryptBytes(String encryptedText) {
+        if (encryptedText == null) {
+            return null;
+        }
 
+        Cipher cipher = borrowCipher();
         try {
             byte[] encryptedData = Base64.getDecoder().decode(encryptedText);
-            ByteBuffer byteBuffer = ByteBuffer.wrap(encryptedData);
+            int keyId = headerKeyId(encryptedData);
+            if (keyId >= 0 && keys[keyId] != null) {
+                try {
+                    return open(cipher, keys[keyId], encryptedData, HEADER_LENGTH);
+                } catch (GeneralSecurityException e) {
+                    // 1 in 65536 legacy values has an IV that starts like a header
+                    if (keys[LEGACY_KEY_ID] == null) {
+                        throw e;
+                    }
+                }
+            }
+            if (keys[LEGACY_KEY_ID] == null) {
+                throw new IllegalStateException(keyId >= 0
+                        ? "Encryption key " + keyId + " is not configured"
+                        : "Value has no key header and no encryption.secret-key is configured");
+            }
+            return open(cipher, keys[LEGACY_KEY_ID], encryptedData, 0);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to decrypt data", e);
+        } finally {
+            releaseCipher(cipher);
+        }
+    }
 
-            // Extract IV
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            byteBuffer.get(iv);
+    /**
+     * True when the value is not yet encrypted with the active key (older key or legacy format).
+     */
+    public boolean needsReencryption(String value) {
+        return isEncrypted(value) && keyIdOf(value) != activeKeyId;
+    }
 
-            // Extract ciphertext
-            byte[] cipherText = new byte[byteBuffer.remaining()];
-            byteBuffer.get(cipherText);
+    /**
+     * Decrypts the value and encrypts it again with the active key.
+     */
+    public String reencrypt(String value) {
+        return encryptBytes(decryptBytes(value));
+    }
 
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, parameterSpec);
+    /**
+     * Whether a column value is ciphertext rather than plain text left from before encryption.
+     * O(1) for values with a header; legacy values still need the Base64 character scan.
+     */
+    public static boolean isEncrypted(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        if (keyIdOf(value) >= 0) {
+            return true;
+        }
+        if (value.length() <= 20) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '+' || c == '/' || c == '=')) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-            byte[] plainText = cipher.doFinal(cipherText);
-            return new String(plainText, StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to decrypt data", e);
+    /**
+     * Key id from the header of a stored value, read from its first four Base64 characters; -1 when
+     * the value has no header.
+     */
+    public static int keyIdOf(String value) {
+        if (value == null || value.length() < 4) {
+            return -1;
         }
+        try {
+            return headerKeyId(Base64.getDecoder().decode(value.substring(0, 4)));
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static int headerKeyId(byte[] data) {
+        if (data.length < HEADER_LENGTH || data[0] != FORMAT_MAGIC || data[1] != FORMAT_AES_256_GCM) {
+            return -1;
+        }
+        return data[2] & 0xFF;
+    }
+
+    private static byte[] open(Cipher cipher, SecretKey key, byte[] data, int headerLength) throws GeneralSecurityException {
+        int ivOffset = headerLength;
+        int cipherTextOffset = ivOffset + GCM_IV_LENGTH;
+        // IV and ciphertext are read in place from the decoded array
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH * 8, data, ivOffset, GCM_IV_LENGTH));
+        if (headerLength > 0) {
+            cipher.updateAAD(data, 0, headerLength);
+        }
+        return cipher.doFinal(data, cipherTextOffset, data.length - cipherTextOffset);
+    }
+
+    private Cipher borrowCipher() {
+        Cipher cipher = cipherPool.poll();
+        if (cipher != null) {
+            return cipher;
+        }
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/GCM is not available", e);
+        }
+    }
+
+    private void releaseCipher(Cipher cipher) {
+        // Every use starts with init(), so a cipher left in any state by a failed call is still reusable;
+        // beyond the pool size the instance is simply dropped
+        cipherPool.offer(cipher);
     }
 
     /**
@@ -48,7 +48,7 @@ public class EncryptedBooleanConverter implements AttributeConverter<Boolean, St
         }
         try {
             // Verifier si c'est deja encrypté
-            if (dbData.length() > 20 && dbData.matches("^[A-Za-z0-9+/=]+$")) {
+            if (DataEncryptionService.isEncrypted(dbData)) {
                 String decrypted = getEncryptionService().decrypt(dbData);
                 return Boolean.parseBoolean(decrypted);
             }
@@ -0,0 +1,66 @@
+package com.homosapiens.diagnocareservice.core.security;
+
+import com.homosapiens.diagnocareservice.model.entity.ClinicalProfile;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.BeansException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA AttributeConverter that stores a whole {@link ClinicalProfile} as one encrypted envelope:
+ * a single AES-GCM operation per row instead of one per clinical column.
+ * <p>
+ * Also exposes {@code encryption.profile.envelope}, which tells PatientMedicalProfile in which
+ * layout to write.
+ */
+@Converter
+@Component
+public class EncryptedClinicalProfileConverter implements AttributeConverter<ClinicalProfile, String>, ApplicationContextAware {
+
+    private static ApplicationContext applicationContext;
+    private static volatile boolean envelopeMode;
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        EncryptedClinicalProfileConverter.applicationContext = applicationContext;
+        envelopeMode = applicationContext.getEnvironment()
+                .getProperty("encryption.profile.envelope", Boolean.class, false);
+    }
+
+    /**
+     * Whether profiles are written as one envelope (true) or in the per-column layout (false).
+     */
+    public static boolean isEnvelopeMode() {
+        return envelopeMode;
+    }
+
+    private DataEncryptionService getEncryptionService() {
+        if (applicationContext == null) {
+            throw new IllegalStateException("ApplicationContext not initialized");
+        }
+        return applicationContext.getBean(DataEncryptionService.class);
+    }
+
+    @Override
+    public String convertToDatabaseColumn(ClinicalProfile attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        try {
+            return getEncryptionService().encryptBytes(attribute.toBytes());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encrypt clinical profile", e);
+        }
+    }
+
+    @Override
+    public ClinicalProfile convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isEmpty()) {
+            return null;
+        }
+        // Unlike single columns there is no plain text to fall back to: a failure here is a key problem
+        return ClinicalProfile.fromBytes(getEncryptionService().decryptBytes(dbData));
+    }
+}
@@ -56,7 +56,7 @@ public class EncryptedEnumConverter implements AttributeConverter<Enum<?>, Strin
         try {
             String decrypted;
             // Check if the data is already encrypted
-            if (dbData.length() > 20 && dbData.matches("^[A-Za-z0-9+/=]+$")) {
+            if (DataEncryptionService.isEncrypted(dbData)) {
                 // Decrypt the enum name
                 decrypted = getEncryptionService().decrypt(dbData);
             } else {
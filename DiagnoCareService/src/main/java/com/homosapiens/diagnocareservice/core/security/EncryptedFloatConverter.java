@@ -48,7 +48,7 @@ public class EncryptedFloatConverter implements AttributeConverter<Float, String
         }
         try {
             // Check if the data is already encrypted
-            if (dbData.length() > 20 && dbData.matches("^[A-Za-z0-9+/=]+$")) {
+            if (DataEncryptionService.isEncrypted(dbData)) {
                 String decrypted = getEncryptionService().decrypt(dbData);
                 return Float.parseFloat(decrypted);
             }
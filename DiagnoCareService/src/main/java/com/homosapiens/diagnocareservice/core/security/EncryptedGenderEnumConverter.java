@@ -53,7 +53,7 @@ public class EncryptedGenderEnumConverter implements AttributeConverter<GenderEn
         try {
             String decrypted;
             // Check if the data is already encrypted
-            if (dbData.length() > 20 && dbData.matches("^[A-Za-z0-9+/=]+$")) {
+            if (DataEncryptionService.isEncrypted(dbData)) {
                 // Decrypt the enum name
                 decrypted = getEncryptionService().decrypt(dbData);
             } else {
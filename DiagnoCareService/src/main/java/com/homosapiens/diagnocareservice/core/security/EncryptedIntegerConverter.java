@@ -49,7 +49,7 @@ public class EncryptedIntegerConverter implements AttributeConverter<Integer, St
         }
         try {
             // Check if the data is already encrypted
-            if (dbData.length() > 20 && dbData.matches("^[A-Za-z0-9+/=]+$")) {
+            if (DataEncryptionService.isEncrypted(dbData)) {
                 String decrypted = getEncryptionService().decrypt(dbData);
                 return Integer.parseInt(decrypted);
             }
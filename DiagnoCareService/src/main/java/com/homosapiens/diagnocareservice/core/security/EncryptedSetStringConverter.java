@@ -58,7 +58,7 @@ public class EncryptedSetStringConverter implements AttributeConverter<Set<Strin
         }
         try {
             //Verifier si les donnés sont chiffrés
-            if (dbData.length() > 20 && dbData.matches("^[A-Za-z0-9+/=]+$")) {
+            if (DataEncryptionService.isEncrypted(dbData)) {
                 // Déchiffrement
                 String decrypted = getEncryptionService().decrypt(dbData);
                 // Convertir en json
@@ -0,0 +1,24 @@
+package com.homosapiens.diagnocareservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One NDJSON line of a bulk scoring response, matching the input line with the same number.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkPredictionResultDTO {
+    private Long line;
+    private Integer status;
+    private Long userId;
+    private Long predictionId;
+    private MLPredictionResponseDTO mlResults;
+    private String error;
+}
@@ -0,0 +1,25 @@
+package com.homosapiens.diagnocareservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MLPredictionBatchResponseDTO {
+    private List<Item> results; // Same order as the batch requests
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private MLPredictionResponseDTO response; // Set when the item was scored
+        private String error; // Set when the item was rejected
+    }
+}
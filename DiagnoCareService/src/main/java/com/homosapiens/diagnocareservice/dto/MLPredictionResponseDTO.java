@@ -18,7 +18,7 @@ public class MLPredictionResponseDTO {
     private Metadata metadata;
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PredictionResult {
@@ -36,11 +36,12 @@ public class MLPredictionResponseDTO {
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Metadata {
         private Integer symptoms_count;
         private Map<String, String> profile_used;
+        private String model_version; // Hash of the loaded model files
     }
 }
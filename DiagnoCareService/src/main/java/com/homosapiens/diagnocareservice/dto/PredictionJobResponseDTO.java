@@ -0,0 +1,24 @@
+package com.homosapiens.diagnocareservice.dto;
+
+import com.homosapiens.diagnocareservice.model.entity.enums.PredictionJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PredictionJobResponseDTO {
+    private Long jobId;
+    private PredictionJobStatus status;
+    private LocalDateTime createdDate;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Integer errorStatus;
+    private String errorMessage;
+    private PredictionWithResultsResponse result; // Set once the job is COMPLETED
+}
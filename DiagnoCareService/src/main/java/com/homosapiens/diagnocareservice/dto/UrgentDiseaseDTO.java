@@ -2,8 +2,12 @@ package com.homosapiens.diagnocareservice.dto;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class UrgentDiseaseDTO {
     private Long id;
     private String diseaseName;
+    private String diseaseNameFr;
+    private List<String> aliases;
 }
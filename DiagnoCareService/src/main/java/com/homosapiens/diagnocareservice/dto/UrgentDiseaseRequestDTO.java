@@ -3,8 +3,12 @@ package com.homosapiens.diagnocareservice.dto;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class UrgentDiseaseRequestDTO {
     @NotBlank(message = "Disease name is required")
     private String diseaseName;
+    private String diseaseNameFr;
+    private List<String> aliases;
 }
@@ -0,0 +1,111 @@
+package com.homosapiens.diagnocareservice.model.entity;
+
+import com.homosapiens.diagnocareservice.model.entity.enums.GenderEnum;
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Clinical values of a {@link PatientMedicalProfile} stored as one encrypted envelope.
+ * <p>
+ * Serialized compactly rather than as JSON: a format version, a bit mask of the non-null fields,
+ * then the present values in declaration order (booleans as single bytes, numbers in binary form,
+ * strings as modified UTF-8). An unmodified profile is about 30 bytes.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ClinicalProfile {
+
+    public static final ClinicalProfile EMPTY = ClinicalProfile.builder().build();
+
+    private static final int FORMAT_VERSION = 1;
+
+    Boolean isSmoking;
+    Integer age;
+    GenderEnum gender;
+    Float weight;
+    Float meanBloodPressure;
+    Float meanCholesterol;
+    Boolean sedentary;
+    Integer bmi;
+    Boolean alcohol;
+    Set<String> familyAntecedents;
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int present = 0;
+            Object[] values = values();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    present |= 1 << i;
+                }
+            }
+            out.writeByte(FORMAT_VERSION);
+            out.writeShort(present);
+            if (isSmoking != null) out.writeBoolean(isSmoking);
+            if (age != null) out.writeInt(age);
+            if (gender != null) out.writeUTF(gender.name());
+            if (weight != null) out.writeFloat(weight);
+            if (meanBloodPressure != null) out.writeFloat(meanBloodPressure);
+            if (meanCholesterol != null) out.writeFloat(meanCholesterol);
+            if (sedentary != null) out.writeBoolean(sedentary);
+            if (bmi != null) out.writeInt(bmi);
+            if (alcohol != null) out.writeBoolean(alcohol);
+            if (familyAntecedents != null) {
+                out.writeShort(familyAntecedents.size());
+                for (String antecedent : familyAntecedents) {
+                    out.writeUTF(antecedent);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static ClinicalProfile fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported clinical profile format " + version);
+            }
+            int present = in.readUnsignedShort();
+            ClinicalProfileBuilder builder = builder();
+            if ((present & 1) != 0) builder.isSmoking(in.readBoolean());
+            if ((present & 1 << 1) != 0) builder.age(in.readInt());
+            if ((present & 1 << 2) != 0) builder.gender(GenderEnum.valueOf(in.readUTF()));
+            if ((present & 1 << 3) != 0) builder.weight(in.readFloat());
+            if ((present & 1 << 4) != 0) builder.meanBloodPressure(in.readFloat());
+            if ((present & 1 << 5) != 0) builder.meanCholesterol(in.readFloat());
+            if ((present & 1 << 6) != 0) builder.sedentary(in.readBoolean());
+            if ((present & 1 << 7) != 0) builder.bmi(in.readInt());
+            if ((present & 1 << 8) != 0) builder.alcohol(in.readBoolean());
+            if ((present & 1 << 9) != 0) {
+                int count = in.readUnsignedShort();
+                Set<String> antecedents = new LinkedHashSet<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    antecedents.add(in.readUTF());
+                }
+                builder.familyAntecedents(Collections.unmodifiableSet(antecedents));
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Object[] values() {
+        return new Object[]{isSmoking, age, gender, weight, meanBloodPressure, meanCholesterol,
+                sedentary, bmi, alcohol, familyAntecedents};
+    }
+}
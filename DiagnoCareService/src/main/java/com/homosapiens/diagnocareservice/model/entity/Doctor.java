@@ -9,7 +9,9 @@ import java.math.BigDecimal;
 @EqualsAndHashCode(callSuper = false)
 @Data
 @Entity
-@Table(name = "medecins")
+@Table(name = "medecins", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_medecins_specialist_label", columnNames = "specialist_label")
+})
 public class Doctor extends BaseEntity {
 
     @Column(name = "specialist_label", length = 255, nullable = false)
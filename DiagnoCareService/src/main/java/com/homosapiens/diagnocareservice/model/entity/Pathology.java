@@ -7,7 +7,9 @@ import lombok.EqualsAndHashCode;
 @EqualsAndHashCode(callSuper = false)
 @Data
 @Entity
-@Table(name = "pathologies")
+@Table(name = "pathologies", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_pathologies_name", columnNames = "pathology_name")
+})
 public class Pathology extends BaseEntity {
 
     @Column(name = "pathology_name", length = 255, nullable = false)
@@ -3,10 +3,24 @@ package com.homosapiens.diagnocareservice.model.entity;
 import com.homosapiens.diagnocareservice.core.security.*;
 import com.homosapiens.diagnocareservice.model.entity.enums.GenderEnum;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Mutability;
+import org.hibernate.type.descriptor.java.Immutability;
 
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
+/**
+ * Medical profile of a patient. The clinical values are stored either one encrypted column each,
+ * or together as one encrypted {@link ClinicalProfile} envelope when
+ * {@code encryption.profile.envelope=true}. Reads understand both layouts; the first write of a
+ * row moves it to the configured layout, so switching the mode needs no downtime.
+ * <p>
+ * Versioned, so the background layout migration cannot overwrite a concurrent profile edit.
+ */
 @Data
 @Entity
 @Table(name = "patient_medical_profiles")
@@ -15,6 +29,11 @@ public class PatientMedicalProfile {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /** Optimistic lock; the default fills rows that existed before the column. */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
+
     @Column
     @Convert(converter = EncryptedBooleanConverter.class)
     private Boolean isSmoking;
@@ -59,10 +78,179 @@ public class PatientMedicalProfile {
     @Convert(converter = EncryptedSetStringConverter.class)
     private Set<String> familyAntecedents;
 
+    /** Envelope layout: all clinical values, the columns above are then null. Replaced, never mutated. */
+    @Column(name = "clinical_envelope", columnDefinition = "TEXT")
+    @Convert(converter = EncryptedClinicalProfileConverter.class)
+    @Mutability(Immutability.class)
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ClinicalProfile clinicalEnvelope;
 
+    public Boolean getIsSmoking() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getIsSmoking() : isSmoking;
+    }
 
+    public void setIsSmoking(Boolean isSmoking) {
+        if (!updateEnvelope(b -> b.isSmoking(isSmoking))) {
+            this.isSmoking = isSmoking;
+        }
+    }
 
+    public Integer getAge() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getAge() : age;
+    }
 
+    public void setAge(Integer age) {
+        if (!updateEnvelope(b -> b.age(age))) {
+            this.age = age;
+        }
+    }
 
-}
+    public GenderEnum getGender() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getGender() : gender;
+    }
+
+    public void setGender(GenderEnum gender) {
+        if (!updateEnvelope(b -> b.gender(gender))) {
+            this.gender = gender;
+        }
+    }
+
+    public Float getWeight() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getWeight() : weight;
+    }
+
+    public void setWeight(Float weight) {
+        if (!updateEnvelope(b -> b.weight(weight))) {
+            this.weight = weight;
+        }
+    }
+
+    public Float getMeanBloodPressure() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getMeanBloodPressure() : meanBloodPressure;
+    }
+
+    public void setMeanBloodPressure(Float meanBloodPressure) {
+        if (!updateEnvelope(b -> b.meanBloodPressure(meanBloodPressure))) {
+            this.meanBloodPressure = meanBloodPressure;
+        }
+    }
+
+    public Float getMeanCholesterol() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getMeanCholesterol() : meanCholesterol;
+    }
+
+    public void setMeanCholesterol(Float meanCholesterol) {
+        if (!updateEnvelope(b -> b.meanCholesterol(meanCholesterol))) {
+            this.meanCholesterol = meanCholesterol;
+        }
+    }
+
+    public Boolean getSedentary() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getSedentary() : sedentary;
+    }
 
+    public void setSedentary(Boolean sedentary) {
+        if (!updateEnvelope(b -> b.sedentary(sedentary))) {
+            this.sedentary = sedentary;
+        }
+    }
+
+    public Integer getBmi() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getBmi() : bmi;
+    }
+
+    public void setBmi(Integer bmi) {
+        if (!updateEnvelope(b -> b.bmi(bmi))) {
+            this.bmi = bmi;
+        }
+    }
+
+    public Boolean getAlcohol() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getAlcohol() : alcohol;
+    }
+
+    public void setAlcohol(Boolean alcohol) {
+        if (!updateEnvelope(b -> b.alcohol(alcohol))) {
+            this.alcohol = alcohol;
+        }
+    }
+
+    public Set<String> getFamilyAntecedents() {
+        return clinicalEnvelope != null ? clinicalEnvelope.getFamilyAntecedents() : familyAntecedents;
+    }
+
+    public void setFamilyAntecedents(Set<String> familyAntecedents) {
+        Set<String> copy = familyAntecedents == null ? null : Set.copyOf(familyAntecedents);
+        if (!updateEnvelope(b -> b.familyAntecedents(copy))) {
+            this.familyAntecedents = familyAntecedents;
+        }
+    }
+
+    /**
+     * Moves the row to the configured layout without changing its values.
+     *
+     * @return true if the layout changed and the row needs to be saved
+     */
+    public boolean migrateStorage() {
+        boolean wasEnvelope = clinicalEnvelope != null;
+        if (!updateEnvelope(UnaryOperator.identity())) {
+            return wasEnvelope;
+        }
+        return !wasEnvelope;
+    }
+
+    /**
+     * In envelope mode, applies the change to the envelope (creating it from the columns first) and
+     * returns true. Otherwise moves any envelope back into the columns and returns false, so the
+     * caller sets its column.
+     */
+    private boolean updateEnvelope(UnaryOperator<ClinicalProfile.ClinicalProfileBuilder> change) {
+        if (EncryptedClinicalProfileConverter.isEnvelopeMode()) {
+            ClinicalProfile current = clinicalEnvelope != null ? clinicalEnvelope : takeColumns();
+            clinicalEnvelope = change.apply(current.toBuilder()).build();
+            return true;
+        }
+        if (clinicalEnvelope != null) {
+            ClinicalProfile envelope = clinicalEnvelope;
+            clinicalEnvelope = null;
+            isSmoking = envelope.getIsSmoking();
+            age = envelope.getAge();
+            gender = envelope.getGender();
+            weight = envelope.getWeight();
+            meanBloodPressure = envelope.getMeanBloodPressure();
+            meanCholesterol = envelope.getMeanCholesterol();
+            sedentary = envelope.getSedentary();
+            bmi = envelope.getBmi();
+            alcohol = envelope.getAlcohol();
+            familyAntecedents = envelope.getFamilyAntecedents();
+        }
+        return false;
+    }
+
+    private ClinicalProfile takeColumns() {
+        ClinicalProfile fromColumns = ClinicalProfile.builder()
+                .isSmoking(isSmoking)
+                .age(age)
+                .gender(gender)
+                .weight(weight)
+                .meanBloodPressure(meanBloodPressure)
+                .meanCholesterol(meanCholesterol)
+                .sedentary(sedentary)
+                .bmi(bmi)
+                .alcohol(alcohol)
+                .familyAntecedents(familyAntecedents == null ? null : Set.copyOf(familyAntecedents))
+                .build();
+        isSmoking = null;
+        age = null;
+        gender = null;
+        weight = null;
+        meanBloodPressure = null;
+        meanCholesterol = null;
+        sedentary = null;
+        bmi = null;
+        alcohol = null;
+        familyAntecedents = null;
+        return fromColumns;
+    }
+}
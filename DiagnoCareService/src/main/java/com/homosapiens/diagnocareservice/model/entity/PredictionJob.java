@@ -0,0 +1,50 @@
+package com.homosapiens.diagnocareservice.model.entity;
+
+import com.homosapiens.diagnocareservice.model.entity.enums.PredictionJobStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+@EqualsAndHashCode(callSuper = false)
+@Data
+@Entity
+@Table(name = "prediction_jobs", indexes = {
+        @Index(name = "idx_prediction_jobs_status", columnList = "status")
+})
+public class PredictionJob extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private PredictionJobStatus status = PredictionJobStatus.PENDING;
+
+    // CreatePredictionRequestDTO as JSON, replayed by the worker
+    @Column(name = "request_payload", columnDefinition = "TEXT", nullable = false)
+    private String requestPayload;
+
+    @Column(name = "prediction_id")
+    private Long predictionId;
+
+    // MLPredictionResponseDTO as JSON, returned with the prediction once completed
+    @Column(name = "ml_result_payload", columnDefinition = "TEXT")
+    private String mlResultPayload;
+
+    @Column(name = "error_status")
+    private Integer errorStatus;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -3,11 +3,15 @@ package com.homosapiens.diagnocareservice.model.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.BatchSize;
 
 @EqualsAndHashCode(callSuper = false)
 @Data
 @Entity
-@Table(name = "symptomes")
+@Table(name = "symptomes", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_symptomes_label", columnNames = "label")
+})
+@BatchSize(size = 50)
 public class Symptom extends BaseEntity {
 
     @Column(name = "label", length = 500)
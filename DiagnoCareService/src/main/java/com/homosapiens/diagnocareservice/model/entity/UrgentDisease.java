@@ -14,4 +14,13 @@ public class UrgentDisease extends BaseEntity {
 
     @Column(name = "disease_name", length = 255, nullable = false, unique = true)
     private String diseaseName;
+
+    @Column(name = "disease_name_fr", length = 255)
+    private String diseaseNameFr;
+
+    /**
+     * Other names the ML service or users may report for this disease, separated by ';'.
+     */
+    @Column(name = "aliases", length = 1000)
+    private String aliases;
 }
@@ -1,6 +1,7 @@
 package com.homosapiens.diagnocareservice.model.entity;
 
 import com.homosapiens.diagnocareservice.core.security.EncryptedStringConverter;
+import com.homosapiens.diagnocareservice.core.security.UserBlindIndexListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -15,7 +16,8 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = false)
 @Data
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_phone_bidx", columnList = "phone_bidx"))
+@EntityListeners(UserBlindIndexListener.class)
 public class User extends BaseEntity{
 
     @Column(length = 100)
@@ -43,6 +45,17 @@ public class User extends BaseEntity{
     @Convert(converter = EncryptedStringConverter.class)
     private String phoneNumber;
 
+    /** Keyed HMAC of the normalized email, maintained by UserBlindIndexListener. */
+    @Column(name = "email_bidx", unique = true, length = 64)
+    private String emailBlindIndex;
+
+    /**
+     * Keyed HMAC of the normalized phone number, maintained by UserBlindIndexListener.
+     * Indexed but not unique: phone numbers were never unique across accounts.
+     */
+    @Column(name = "phone_bidx", length = 64)
+    private String phoneBlindIndex;
+
     @Column(length = 5)
     private String lang = "fr";
 
@@ -0,0 +1,8 @@
+package com.homosapiens.diagnocareservice.model.entity.enums;
+
+public enum PredictionJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
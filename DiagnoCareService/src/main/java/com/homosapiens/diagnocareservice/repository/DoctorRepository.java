@@ -2,8 +2,13 @@ package com.homosapiens.diagnocareservice.repository;
 
 import com.homosapiens.diagnocareservice.model.entity.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +16,21 @@ import java.util.Optional;
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findBySpecialistLabel(String specialistLabel);
     List<Doctor> findBySpecialistLabelContainingIgnoreCase(String specialistLabel);
+
+    @Query("select distinct d.specialistLabel from Doctor d where d.specialistLabel is not null")
+    List<String> findAllSpecialistLabels();
+
+    /**
+     * Inserts the doctor unless one with the same specialist label already exists (relies on uk_medecins_specialist_label).
+     */
+    @Modifying
+    @Query(value = """
+            insert into medecins (specialist_label, specialist_score, description, created_date, updated_date)
+            values (:label, :score, :description, :now, :now)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("label") String specialistLabel,
+                       @Param("score") BigDecimal specialistScore,
+                       @Param("description") String description,
+                       @Param("now") LocalDateTime now);
 }
@@ -2,12 +2,34 @@ package com.homosapiens.diagnocareservice.repository;
 
 import com.homosapiens.diagnocareservice.model.entity.Pathology;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PathologyRepository extends JpaRepository<Pathology, Long> {
     Optional<Pathology> findByPathologyName(String pathologyName);
     Optional<Pathology> findByPathologyNameContainingIgnoreCase(String pathologyName);
+
+    @Query("select distinct p.pathologyName from Pathology p where p.pathologyName is not null")
+    List<String> findAllPathologyNames();
+
+    /**
+     * Inserts the pathology unless one with the same name already exists (relies on uk_pathologies_name).
+     * Concurrent callers never fail: the loser's insert is a no-op and it reads the winner's row.
+     */
+    @Modifying
+    @Query(value = """
+            insert into pathologies (pathology_name, description, created_date, updated_date)
+            values (:name, :description, :now, :now)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name,
+                       @Param("description") String description,
+                       @Param("now") LocalDateTime now);
 }
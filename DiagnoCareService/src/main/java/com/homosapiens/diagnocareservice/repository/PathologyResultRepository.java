@@ -10,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface PathologyResultRepository extends JpaRepository<PathologyResult, Long> {
+public interface PathologyResultRepository extends JpaRepository<PathologyResult, Long>, PathologyResultRepositoryCustom {
     List<PathologyResult> findByPathology(Pathology pathology);
     List<PathologyResult> findByDoctor(Doctor doctor);
     List<PathologyResult> findByPrediction(Prediction prediction);
@@ -0,0 +1,16 @@
+package com.homosapiens.diagnocareservice.repository;
+
+import com.homosapiens.diagnocareservice.model.entity.PathologyResult;
+
+import java.util.List;
+
+public interface PathologyResultRepositoryCustom {
+
+    /**
+     * Inserts all results with one multi-row INSERT. Pathology, doctor and prediction must already
+     * be persisted; only their ids are used. Generated ids are not read back.
+     *
+     * @return the number of inserted rows
+     */
+    int insertAll(List<PathologyResult> pathologyResults);
+}
@@ -0,0 +1,55 @@
+package com.homosapiens.diagnocareservice.repository;
+
+import com.homosapiens.diagnocareservice.model.entity.PathologyResult;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.TypedParameterValue;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class PathologyResultRepositoryImpl implements PathologyResultRepositoryCustom {
+
+    private static final String INSERT = "insert into resultat_pathologie (disease_score, description, "
+            + "localized_disease_name, localized_specialist_label, pathologie_id, medecin_id, id_prediction, "
+            + "created_date, updated_date) values ";
+    private static final int COLUMNS = 9;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertAll(List<PathologyResult> pathologyResults) {
+        if (pathologyResults.isEmpty()) {
+            return 0;
+        }
+        // PathologyResult ids are IDENTITY-generated, which rules out Hibernate JDBC batching
+        StringBuilder sql = new StringBuilder(INSERT);
+        for (int row = 0; row < pathologyResults.size(); row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 0; column < COLUMNS; column++) {
+                sql.append(column == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        LocalDateTime now = LocalDateTime.now();
+        int position = 1;
+        for (PathologyResult result : pathologyResults) {
+            // Typed so that nulls bind with the right SQL type on PostgreSQL
+            query.setParameter(position++, new TypedParameterValue<>(StandardBasicTypes.BIG_DECIMAL, result.getDiseaseScore()));
+            query.setParameter(position++, new TypedParameterValue<>(StandardBasicTypes.STRING, result.getDescription()));
+            query.setParameter(position++, new TypedParameterValue<>(StandardBasicTypes.STRING, result.getLocalizedDiseaseName()));
+            query.setParameter(position++, new TypedParameterValue<>(StandardBasicTypes.STRING, result.getLocalizedSpecialistLabel()));
+            query.setParameter(position++, result.getPathology().getId());
+            query.setParameter(position++, result.getDoctor().getId());
+            query.setParameter(position++, result.getPrediction().getId());
+            query.setParameter(position++, now);
+            query.setParameter(position++, now);
+        }
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,87 @@
+package com.homosapiens.diagnocareservice.repository;
+
+import com.homosapiens.diagnocareservice.model.entity.PredictionJob;
+import com.homosapiens.diagnocareservice.model.entity.enums.PredictionJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PredictionJobRepository extends JpaRepository<PredictionJob, Long> {
+
+    List<PredictionJob> findByStatusOrderByIdAsc(PredictionJobStatus status, Pageable pageable);
+
+    List<PredictionJob> findByStatusAndStartedAtBefore(PredictionJobStatus status, LocalDateTime startedBefore);
+
+    /**
+     * Moves a job from {@code expected} to {@code target}; returns 0 if another worker got there first.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            update PredictionJob j
+               set j.status = :target, j.startedAt = :now, j.attempts = j.attempts + 1
+             where j.id = :id and j.status = :expected
+            """)
+    int claim(@Param("id") Long id,
+              @Param("expected") PredictionJobStatus expected,
+              @Param("target") PredictionJobStatus target,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            update PredictionJob j
+               set j.status = :pending
+             where j.id = :id and j.status = :running and j.startedAt = :startedAt
+            """)
+    int requeue(@Param("id") Long id,
+                @Param("startedAt") LocalDateTime startedAt,
+                @Param("running") PredictionJobStatus running,
+                @Param("pending") PredictionJobStatus pending);
+
+    /**
+     * Marks a job COMPLETED if it is still the run started at {@code startedAt}; runs inside the
+     * transaction storing the prediction, so both commit together. Returns 0 if the run was
+     * requeued or taken over in the meantime.
+     */
+    @Modifying
+    @Query("""
+            update PredictionJob j
+               set j.status = :completed, j.predictionId = :predictionId, j.mlResultPayload = :mlResultPayload,
+                   j.completedAt = :now
+             where j.id = :id and j.status = :running and j.startedAt = :startedAt
+            """)
+    int complete(@Param("id") Long id,
+                 @Param("startedAt") LocalDateTime startedAt,
+                 @Param("running") PredictionJobStatus running,
+                 @Param("completed") PredictionJobStatus completed,
+                 @Param("predictionId") Long predictionId,
+                 @Param("mlResultPayload") String mlResultPayload,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Marks a job FAILED if it is still the run started at {@code startedAt}. Returns 0 if the run
+     * completed, was requeued or was taken over in the meantime.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            update PredictionJob j
+               set j.status = :failed, j.errorStatus = :errorStatus, j.errorMessage = :errorMessage,
+                   j.completedAt = :now
+             where j.id = :id and j.status = :running and j.startedAt = :startedAt
+            """)
+    int fail(@Param("id") Long id,
+             @Param("startedAt") LocalDateTime startedAt,
+             @Param("running") PredictionJobStatus running,
+             @Param("failed") PredictionJobStatus failed,
+             @Param("errorStatus") Integer errorStatus,
+             @Param("errorMessage") String errorMessage,
+             @Param("now") LocalDateTime now);
+}
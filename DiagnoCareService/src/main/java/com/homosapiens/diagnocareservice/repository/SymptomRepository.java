@@ -2,13 +2,19 @@ package com.homosapiens.diagnocareservice.repository;
 
 import com.homosapiens.diagnocareservice.model.entity.Symptom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SymptomRepository extends JpaRepository<Symptom, Long> {
+public interface SymptomRepository extends JpaRepository<Symptom, Long>, SymptomRepositoryCustom {
     Optional<Symptom> findByLabel(String label);
     List<Symptom> findByLabelContainingIgnoreCase(String label);
+    List<Symptom> findByLabelIn(Collection<String> labels);
+
+    @Query("select distinct s.label from Symptom s where s.label is not null")
+    List<String> findAllLabels();
 }
@@ -0,0 +1,14 @@
+package com.homosapiens.diagnocareservice.repository;
+
+import java.util.Collection;
+
+public interface SymptomRepositoryCustom {
+
+    /**
+     * Inserts a symptom for every label with one multi-row {@code INSERT ... ON CONFLICT DO NOTHING}
+     * (relies on uk_symptomes_label), so concurrent requests creating the same new label never fail.
+     *
+     * @return the number of rows actually inserted
+     */
+    int insertLabelsIfAbsent(Collection<String> labels);
+}
@@ -0,0 +1,39 @@
+package com.homosapiens.diagnocareservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+class SymptomRepositoryImpl implements SymptomRepositoryCustom {
+
+    private static final String INSERT = "insert into symptomes (label, created_date, updated_date) values ";
+    private static final String ON_CONFLICT = " on conflict do nothing";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertLabelsIfAbsent(Collection<String> labels) {
+        if (labels.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT);
+        for (int row = 0; row < labels.size(); row++) {
+            sql.append(row == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+        sql.append(ON_CONFLICT);
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        LocalDateTime now = LocalDateTime.now();
+        int position = 1;
+        for (String label : labels) {
+            query.setParameter(position++, label);
+            query.setParameter(position++, now);
+            query.setParameter(position++, now);
+        }
+        return query.executeUpdate();
+    }
+}
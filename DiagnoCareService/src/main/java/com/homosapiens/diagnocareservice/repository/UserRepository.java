@@ -2,7 +2,10 @@ package com.homosapiens.diagnocareservice.repository;
 
 import com.homosapiens.diagnocareservice.model.entity.User;
 import com.homosapiens.diagnocareservice.model.entity.enums.RoleEnum;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,7 +18,8 @@ import java.util.Optional;
  * Since emails are encrypted in the database, always use UserLookupService.findUserByEmail()
  * which handles the hash calculation automatically.
  * 
- * This repository only exposes findByEmailHash() for internal use.
+ * The same goes for phone numbers: use UserLookupService.findUserByPhoneNumber(), which queries the
+ * blind index column.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -31,6 +35,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmailHash(String emailHash);
     
-    Optional<User> findByPhoneNumber(String phoneNumber);
+    /**
+     * Finds a user by the blind index of their email (see BlindIndexService.emailIndex).
+     */
+    Optional<User> findByEmailBlindIndex(String emailBlindIndex);
+
+    /**
+     * Finds the oldest user with the blind index of this phone number (see BlindIndexService.phoneIndex);
+     * phone numbers are not unique.
+     */
+    Optional<User> findFirstByPhoneBlindIndexOrderByIdAsc(String phoneBlindIndex);
+
+    /**
+     * Users created before the blind index columns existed, in id order after {@code afterId}.
+     */
+    @Query("SELECT u FROM User u WHERE u.id > :afterId " +
+            "AND ((u.email IS NOT NULL AND u.emailBlindIndex IS NULL) " +
+            "OR (u.phoneNumber IS NOT NULL AND u.phoneBlindIndex IS NULL)) ORDER BY u.id")
+    List<User> findMissingBlindIndexes(@Param("afterId") Long afterId, Pageable pageable);
+
     List<User> findByRoles_Name(RoleEnum role);
 }
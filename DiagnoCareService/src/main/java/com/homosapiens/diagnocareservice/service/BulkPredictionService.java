@@ -0,0 +1,17 @@
+package com.homosapiens.diagnocareservice.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BulkPredictionService {
+
+    /**
+     * Scores every NDJSON {@code CreatePredictionRequestDTO} read from {@code input} and writes one
+     * NDJSON {@code BulkPredictionResultDTO} per non-blank line to {@code output}, in input order.
+     * Invalid or failing lines produce an error line and do not stop the stream.
+     *
+     * @param persist store each scored request as a session symptom and prediction, like POST /predictions
+     */
+    void score(InputStream input, OutputStream output, boolean persist) throws IOException;
+}
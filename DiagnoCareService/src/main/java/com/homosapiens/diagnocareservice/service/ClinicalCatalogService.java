@@ -0,0 +1,18 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.model.entity.Doctor;
+import com.homosapiens.diagnocareservice.model.entity.Pathology;
+
+import java.math.BigDecimal;
+
+/**
+ * In-memory view of the pathology and doctor catalogs, which the prediction workflow looks up
+ * by name for every ML result. Returned entities are shared and must be treated as read-only references.
+ */
+public interface ClinicalCatalogService {
+    Pathology getOrCreatePathology(String pathologyName, String description);
+    Doctor getOrCreateDoctor(String specialistLabel, BigDecimal specialistScore, String description);
+    void evictPathology(Long pathologyId);
+    void evictDoctor(Long doctorId);
+    void reload();
+}
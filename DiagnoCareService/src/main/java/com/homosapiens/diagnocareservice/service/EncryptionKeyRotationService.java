@@ -0,0 +1,11 @@
+package com.homosapiens.diagnocareservice.service;
+
+public interface EncryptionKeyRotationService {
+
+    /**
+     * Re-encrypts the next batch of rows whose encrypted columns are not on the active key.
+     *
+     * @return false once every table is on the active key
+     */
+    boolean rotateNextBatch();
+}
@@ -2,6 +2,13 @@ package com.homosapiens.diagnocareservice.service;
 
 import com.homosapiens.diagnocareservice.core.config.MLServiceConfig;
 import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.core.ml.MLCallRejectedException;
+import com.homosapiens.diagnocareservice.core.ml.MLPredictionBatcher;
+import com.homosapiens.diagnocareservice.core.ml.MLPredictionCache;
+import com.homosapiens.diagnocareservice.core.ml.MLRequestHedger;
+import com.homosapiens.diagnocareservice.core.ml.MLWireFormat;
+import com.homosapiens.diagnocareservice.dto.MLPredictionBatchRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionBatchResponseDTO;
 import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
 import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
 import com.homosapiens.diagnocareservice.dto.MLTranslationRequestDTO;
@@ -10,16 +17,32 @@ import com.homosapiens.diagnocareservice.dto.MLSymptomExtractionRequestDTO;
 import com.homosapiens.diagnocareservice.dto.MLSymptomExtractionResponseDTO;
 import com.homosapiens.diagnocareservice.dto.MLFeaturesMetadataDTO;
 import com.homosapiens.diagnocareservice.dto.MLDiseasesMetadataDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -29,14 +52,226 @@ public class MLPredictionClient {
     private final RestTemplate directRestTemplate;
     private final RestTemplate loadBalancedRestTemplate;
     private final MLServiceConfig mlServiceConfig;
+    private final MLPredictionCache predictionCache;
+    private final MLWireFormat wireFormat;
+
+    @Value("${ml.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${ml.batching.max-batch-size:16}")
+    private int batchMaxSize;
+
+    @Value("${ml.batching.max-wait-ms:5}")
+    private long batchMaxWaitMs;
+
+    @Value("${ml.batching.queue-capacity:512}")
+    private int batchQueueCapacity;
+
+    @Value("${ml.batching.max-concurrent-batches:4}")
+    private int batchMaxConcurrent;
+
+    @Value("${ml.batching.result-timeout-ms:30000}")
+    private long batchResultTimeoutMs;
+
+    @Value("${ml.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${ml.hedging.percentile:95}")
+    private int hedgePercentile;
+
+    @Value("${ml.hedging.min-delay-ms:50}")
+    private long hedgeMinDelayMs;
+
+    @Value("${ml.hedging.max-delay-ms:2000}")
+    private long hedgeMaxDelayMs;
+
+    @Value("${ml.hedging.initial-delay-ms:500}")
+    private long hedgeInitialDelayMs;
+
+    @Value("${ml.hedging.min-samples:20}")
+    private int hedgeMinSamples;
+
+    @Value("${ml.hedging.sample-window:200}")
+    private int hedgeSampleWindow;
+
+    @Value("${ml.hedging.budget-percent:10}")
+    private int hedgeBudgetPercent;
+
+    @Value("${ml.hedging.max-concurrent-attempts:64}")
+    private int hedgeMaxConcurrentAttempts;
+
+    private MLPredictionBatcher batcher;
+    private MLRequestHedger hedger;
+    private volatile boolean batchEndpointSupported = true;
+
+    @PostConstruct
+    void init() {
+        if (batchingEnabled) {
+            batcher = new MLPredictionBatcher(batchMaxSize, batchMaxWaitMs, batchQueueCapacity,
+                    batchMaxConcurrent, this::sendBatch);
+            log.info("ML predict micro-batching enabled (maxBatchSize={}, maxWaitMs={})", batchMaxSize, batchMaxWaitMs);
+        }
+        if (hedgingEnabled) {
+            hedger = new MLRequestHedger(hedgePercentile, hedgeMinDelayMs, hedgeMaxDelayMs, hedgeInitialDelayMs,
+                    hedgeMinSamples, hedgeSampleWindow, hedgeBudgetPercent, hedgeMaxConcurrentAttempts);
+            log.info("ML predict hedging enabled (p{} delay, budget {}%)", hedgePercentile, hedgeBudgetPercent);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        if (hedger != null) {
+            hedger.close();
+        }
+    }
 
     public MLPredictionResponseDTO predict(MLPredictionRequestDTO request) {
+        MLPredictionResponseDTO cached = predictionCache.get(request);
+        if (cached != null) {
+            log.info("ML prediction served from cache ({} predictions)",
+                    cached.getPredictions() != null ? cached.getPredictions().size() : 0);
+            return cached;
+        }
+        MLPredictionResponseDTO response = batcher != null && batchEndpointSupported
+                ? predictBatched(request)
+                : predictSingle(request);
+        predictionCache.put(request, response);
+        return response;
+    }
+
+    public Map<String, Object> getHedgingStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", hedger != null);
+        if (hedger != null) {
+            stats.putAll(hedger.snapshot());
+        }
+        return stats;
+    }
+
+    public Map<String, Object> getBatchingStats() {
+        if (batcher == null) {
+            Map<String, Object> disabled = new LinkedHashMap<>();
+            disabled.put("enabled", false);
+            return disabled;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", true);
+        stats.put("batchEndpointSupported", batchEndpointSupported);
+        stats.putAll(batcher.snapshot());
+        return stats;
+    }
+
+    /**
+     * Polls the ML health endpoint for the loaded model version so cached predictions are
+     * dropped after a retrain even when every request is currently served from cache.
+     */
+    @Scheduled(initialDelayString = "${ml.prediction-cache.version-check-ms:60000}",
+            fixedDelayString = "${ml.prediction-cache.version-check-ms:60000}")
+    public void refreshModelVersion() {
+        if (!predictionCache.isEnabled()) {
+            return;
+        }
+        try {
+            String url = mlServiceConfig.getMlServiceUrl() + "/health";
+            ResponseEntity<Map<String, Object>> response = selectRestTemplate(url)
+                    .exchange(url, HttpMethod.GET, null, new ParameterizedTypeReference<Map<String, Object>>() {});
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                Object version = response.getBody().get("model_version");
+                predictionCache.onModelVersion(version != null ? version.toString() : null);
+            }
+        } catch (RestClientException e) {
+            log.debug("ML model version check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * /predict is side-effect free, so a slow call may be hedged: with a load-balanced ML URL the
+     * second attempt goes through {@link com.homosapiens.diagnocareservice.core.ml.MLInstanceLoadTracker},
+     * which counts the stalled call as in flight on its instance and so normally picks another one
+     * (round-robin only when latency-aware selection is disabled).
+     */
+    private MLPredictionResponseDTO predictSingle(MLPredictionRequestDTO request) {
+        return hedger != null ? hedger.execute(() -> callPredict(request)) : callPredict(request);
+    }
+
+    private MLPredictionResponseDTO predictBatched(MLPredictionRequestDTO request) {
+        CompletableFuture<MLPredictionResponseDTO> future = batcher.submit(request);
+        if (future == null) {
+            return callPredict(request);
+        }
+        try {
+            return future.orTimeout(batchResultTimeoutMs, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML batch did not answer within " + batchResultTimeoutMs + " ms");
+            }
+            throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: " + e.getMessage());
+        }
+    }
+
+    private List<MLPredictionBatchResponseDTO.Item> sendBatch(List<MLPredictionRequestDTO> requests) {
+        if (requests.size() == 1) {
+            return List.of(MLPredictionBatchResponseDTO.Item.builder().response(callPredict(requests.get(0))).build());
+        }
+        if (!batchEndpointSupported) {
+            List<MLPredictionBatchResponseDTO.Item> items = new ArrayList<>(requests.size());
+            for (MLPredictionRequestDTO request : requests) {
+                items.add(predictAsItem(request));
+            }
+            return items;
+        }
+        try {
+            String url = mlServiceConfig.getMlServiceUrl() + "/predict/batch";
+            log.info("Calling ML batch prediction at: {} ({} requests)", url, requests.size());
+
+            RestTemplate restTemplate = selectRestTemplate(url);
+            ResponseEntity<MLPredictionBatchResponseDTO> response = post(
+                    restTemplate,
+                    url,
+                    MLPredictionBatchRequestDTO.builder().requests(requests).build(),
+                    MLPredictionBatchResponseDTO.class
+            );
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                return response.getBody().getResults();
+            }
+            log.error("ML batch prediction returned non-success status: {}", response.getStatusCode());
+            throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "ML service returned an error: " + response.getStatusCode());
+        } catch (HttpClientErrorException.NotFound | HttpClientErrorException.MethodNotAllowed e) {
+            // Older ML deployments have no batch route: stop batching and score this batch one by one
+            log.warn("ML service does not support /predict/batch, falling back to single predictions");
+            batchEndpointSupported = false;
+            return sendBatch(requests);
+        } catch (RestClientException e) {
+            logCallFailure("ML batch prediction", e);
+            throw new AppException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "ML service is unavailable: " + e.getMessage());
+        }
+    }
+
+    private MLPredictionBatchResponseDTO.Item predictAsItem(MLPredictionRequestDTO request) {
+        try {
+            return MLPredictionBatchResponseDTO.Item.builder().response(callPredict(request)).build();
+        } catch (AppException e) {
+            return MLPredictionBatchResponseDTO.Item.builder().error(e.getMessage()).build();
+        }
+    }
+
+    private MLPredictionResponseDTO callPredict(MLPredictionRequestDTO request) {
         try {
             String url = mlServiceConfig.getMlServiceUrl() + "/predict";
             log.info("Calling ML service at: {}", url);
 
             RestTemplate restTemplate = selectRestTemplate(url);
-            ResponseEntity<MLPredictionResponseDTO> response = restTemplate.postForEntity(
+            ResponseEntity<MLPredictionResponseDTO> response = post(
+                    restTemplate,
                     url,
                     request,
                     MLPredictionResponseDTO.class
@@ -52,19 +287,39 @@ public class MLPredictionClient {
                         "ML service returned an error: " + response.getStatusCode());
             }
         } catch (RestClientException e) {
-            log.error("Error calling ML service: {}", e.getMessage(), e);
+            logCallFailure("ML service", e);
             throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, 
                     "ML service is unavailable: " + e.getMessage());
         }
     }
 
+    /**
+     * POSTs {@code body} in the negotiated wire format; see {@link MLWireFormat}.
+     */
+    private <T> ResponseEntity<T> post(RestTemplate restTemplate, String url, Object body, Class<T> responseType) {
+        try {
+            return restTemplate.postForEntity(url, new HttpEntity<>(body, wireFormat.requestHeaders()), responseType);
+        } catch (HttpClientErrorException.UnsupportedMediaType e) {
+            if (!wireFormat.isCbor()) {
+                throw e;
+            }
+            wireFormat.fallBackToJson();
+            return restTemplate.postForEntity(url, new HttpEntity<>(body, wireFormat.requestHeaders()), responseType);
+        }
+    }
+
+    public Map<String, Object> getWireFormatStats() {
+        return wireFormat.snapshot();
+    }
+
     public MLTranslationResponseDTO translate(MLTranslationRequestDTO request) {
         try {
             String url = mlServiceConfig.getMlServiceUrl() + "/translate";
             log.info("Calling ML translation service at: {}", url);
 
             RestTemplate restTemplate = selectRestTemplate(url);
-            ResponseEntity<MLTranslationResponseDTO> response = restTemplate.postForEntity(
+            ResponseEntity<MLTranslationResponseDTO> response = post(
+                    restTemplate,
                     url,
                     request,
                     MLTranslationResponseDTO.class
@@ -78,67 +333,64 @@ public class MLPredictionClient {
             throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR,
                     "ML translation service returned an error: " + response.getStatusCode());
         } catch (RestClientException e) {
-            log.error("Error calling ML translation service: {}", e.getMessage(), e);
+            logCallFailure("ML translation service", e);
             throw new AppException(HttpStatus.SERVICE_UNAVAILABLE,
                     "ML translation service is unavailable: " + e.getMessage());
         }
     }
 
     public MLFeaturesMetadataDTO getFeaturesMetadata() {
-        try {
-            String url = mlServiceConfig.getMlServiceUrl() + "/features-metadata";
-            log.info("Calling ML features metadata service at: {}", url);
+        return fetchFeaturesMetadata(null).getBody();
+    }
 
-            RestTemplate restTemplate = selectRestTemplate(url);
-            ResponseEntity<MLFeaturesMetadataDTO> response = restTemplate.getForEntity(
-                    url,
-                    MLFeaturesMetadataDTO.class
-            );
+    public MLDiseasesMetadataDTO getDiseasesMetadata() {
+        return fetchDiseasesMetadata(null).getBody();
+    }
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                log.info("ML features metadata retrieved successfully. Found {} symptoms", 
-                        response.getBody().getSymptoms() != null ? response.getBody().getSymptoms().getCount() : 0);
-                return response.getBody();
-            }
+    /**
+     * Conditional GET of /features-metadata: with a matching {@code ifNoneMatch} the ML service
+     * answers 304 and the returned entity has no body.
+     */
+    public ResponseEntity<MLFeaturesMetadataDTO> fetchFeaturesMetadata(String ifNoneMatch) {
+        ResponseEntity<MLFeaturesMetadataDTO> response = fetchMetadata(
+                "/features-metadata", "ML features metadata service", MLFeaturesMetadataDTO.class, ifNoneMatch);
+        if (response.getBody() != null) {
+            log.info("ML features metadata retrieved successfully. Found {} symptoms",
+                    response.getBody().getSymptoms() != null ? response.getBody().getSymptoms().getCount() : 0);
+        }
+        return response;
+    }
 
-            log.error("ML features metadata service returned non-success status: {}", response.getStatusCode());
-            throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "ML features metadata service returned an error: " + response.getStatusCode());
-        } catch (org.springframework.web.client.RestClientResponseException e) {
-            String errorBody = e.getResponseBodyAsString();
-            if (errorBody != null && errorBody.toLowerCase().contains("<html")) {
-                errorBody = "ML Service returned an HTML error page (Status: " + e.getStatusCode() + ")";
-            } else if (errorBody == null || errorBody.isBlank()) {
-                errorBody = e.getMessage();
-            }
-            log.error("Error calling ML features metadata service: {}", errorBody);
-            throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: " + errorBody);
-        } catch (RestClientException e) {
-            log.error("Error calling ML features metadata service: {}", e.getMessage(), e);
-            throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: " + e.getMessage());
+    public ResponseEntity<MLDiseasesMetadataDTO> fetchDiseasesMetadata(String ifNoneMatch) {
+        ResponseEntity<MLDiseasesMetadataDTO> response = fetchMetadata(
+                "/diseases-metadata", "ML diseases metadata service", MLDiseasesMetadataDTO.class, ifNoneMatch);
+        if (response.getBody() != null) {
+            log.info("ML diseases metadata retrieved successfully. Found {} diseases",
+                    response.getBody().getDiseases() != null ? response.getBody().getDiseases().getCount() : 0);
         }
+        return response;
     }
 
-    public MLDiseasesMetadataDTO getDiseasesMetadata() {
+    private <T> ResponseEntity<T> fetchMetadata(String path, String serviceName, Class<T> type, String ifNoneMatch) {
         try {
-            String url = mlServiceConfig.getMlServiceUrl() + "/diseases-metadata";
-            log.info("Calling ML diseases metadata service at: {}", url);
+            String url = mlServiceConfig.getMlServiceUrl() + path;
+            log.info("Calling {} at: {}", serviceName, url);
 
+            HttpHeaders headers = new HttpHeaders();
+            if (ifNoneMatch != null) {
+                headers.setIfNoneMatch(ifNoneMatch);
+            }
             RestTemplate restTemplate = selectRestTemplate(url);
-            ResponseEntity<MLDiseasesMetadataDTO> response = restTemplate.getForEntity(
-                    url,
-                    MLDiseasesMetadataDTO.class
-            );
+            ResponseEntity<T> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), type);
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                log.info("ML diseases metadata retrieved successfully. Found {} diseases", 
-                        response.getBody().getDiseases() != null ? response.getBody().getDiseases().getCount() : 0);
-                return response.getBody();
+            if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()
+                    || (response.getStatusCode().is2xxSuccessful() && response.getBody() != null)) {
+                return response;
             }
 
-            log.error("ML diseases metadata service returned non-success status: {}", response.getStatusCode());
+            log.error("{} returned non-success status: {}", serviceName, response.getStatusCode());
             throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "ML diseases metadata service returned an error: " + response.getStatusCode());
+                    serviceName + " returned an error: " + response.getStatusCode());
         } catch (org.springframework.web.client.RestClientResponseException e) {
             String errorBody = e.getResponseBodyAsString();
             if (errorBody != null && errorBody.toLowerCase().contains("<html")) {
@@ -146,14 +398,23 @@ public class MLPredictionClient {
             } else if (errorBody == null || errorBody.isBlank()) {
                 errorBody = e.getMessage();
             }
-            log.error("Error calling ML diseases metadata service: {}", errorBody);
+            log.error("Error calling {}: {}", serviceName, errorBody);
             throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: " + errorBody);
         } catch (RestClientException e) {
-            log.error("Error calling ML diseases metadata service: {}", e.getMessage(), e);
+            logCallFailure(serviceName, e);
             throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: " + e.getMessage());
         }
     }
 
+    private void logCallFailure(String target, RestClientException e) {
+        if (e.getCause() instanceof MLCallRejectedException) {
+            // Open breaker or full bulkhead: expected while the ML service is struggling, no stack trace
+            log.warn("Call to {} rejected: {}", target, e.getCause().getMessage());
+        } else {
+            log.error("Error calling {}: {}", target, e.getMessage(), e);
+        }
+    }
+
     private RestTemplate selectRestTemplate(String url) {
         try {
             URI uri = URI.create(url);
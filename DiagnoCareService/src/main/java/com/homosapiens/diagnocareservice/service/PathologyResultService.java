@@ -10,6 +10,7 @@ import java.util.Optional;
 public interface PathologyResultService {
     PathologyResult createPathologyResult(PathologyResultRequestDTO requestDTO);
     PathologyResult createPathologyResult(Long predictionId, PathologyResultRequestDTO requestDTO);
+    int createPathologyResults(List<PathologyResult> pathologyResults);
     PathologyResult updatePathologyResult(Long id, PathologyResultRequestDTO requestDTO);
     void deletePathologyResult(Long id);
     Optional<PathologyResult> getPathologyResultById(Long id);
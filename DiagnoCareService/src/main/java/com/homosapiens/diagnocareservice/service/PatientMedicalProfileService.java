@@ -11,4 +11,11 @@ public interface PatientMedicalProfileService {
     void deleteProfile(Long id);
     Optional<PatientMedicalProfile> getProfileByUserId(Long userId);
     PatientMedicalProfileDTO convertToDTO(PatientMedicalProfile profile);
+
+    /**
+     * Moves the next batch of profiles to the configured storage layout (envelope or per-column).
+     *
+     * @return false once every profile has been visited
+     */
+    boolean migrateNextStorageBatch();
 }
@@ -0,0 +1,11 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.dto.CreatePredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.PredictionJobResponseDTO;
+
+import java.util.Optional;
+
+public interface PredictionJobService {
+    PredictionJobResponseDTO submitJob(CreatePredictionRequestDTO request);
+    Optional<PredictionJobResponseDTO> getJob(Long jobId);
+}
@@ -1,8 +1,32 @@
 package com.homosapiens.diagnocareservice.service;
 
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
 import com.homosapiens.diagnocareservice.dto.PredictionCreationResult;
 import com.homosapiens.diagnocareservice.dto.SessionSymptomRequestDTO;
+import com.homosapiens.diagnocareservice.model.entity.Prediction;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
 
 public interface PredictionWorkflowService {
     PredictionCreationResult createPrediction(SessionSymptomRequestDTO requestDTO, Long previousPredictionId);
+
+    /**
+     * Same as {@link #createPrediction(SessionSymptomRequestDTO, Long)}; {@code afterPersist} runs inside
+     * the transaction that stores the prediction, with the ML response it was built from, so its
+     * writes commit or roll back together with it.
+     */
+    PredictionCreationResult createPrediction(SessionSymptomRequestDTO requestDTO, Long previousPredictionId,
+                                              BiConsumer<Prediction, MLPredictionResponseDTO> afterPersist);
+
+    /**
+     * Runs the read phase and the ML call of {@link #createPrediction(SessionSymptomRequestDTO, Long)}
+     * without persisting anything: unknown symptom labels are sent to the ML service as given.
+     */
+    MLPredictionResponseDTO score(SessionSymptomRequestDTO requestDTO);
+
+    /**
+     * Cumulative latency of each workflow stage (individual reads, ML call, persistence).
+     */
+    Map<String, Object> getStageTimings();
 }
@@ -3,12 +3,19 @@ package com.homosapiens.diagnocareservice.service;
 import com.homosapiens.diagnocareservice.dto.SessionSymptomDTO;
 import com.homosapiens.diagnocareservice.dto.SessionSymptomRequestDTO;
 import com.homosapiens.diagnocareservice.model.entity.SessionSymptom;
+import com.homosapiens.diagnocareservice.model.entity.Symptom;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface SessionSymptomService {
     SessionSymptom createSessionSymptom(SessionSymptomRequestDTO requestDTO);
+
+    /**
+     * Same as {@link #createSessionSymptom(SessionSymptomRequestDTO)}, reusing symptoms the caller
+     * already resolved from this request (e.g. in an earlier transaction) instead of resolving them again.
+     */
+    SessionSymptom createSessionSymptom(SessionSymptomRequestDTO requestDTO, List<Symptom> resolvedSymptoms);
     SessionSymptom updateSessionSymptom(Long id, SessionSymptomRequestDTO requestDTO);
     void deleteSessionSymptom(Long id);
     Optional<SessionSymptom> getSessionSymptomById(Long id);
@@ -0,0 +1,26 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.model.entity.Symptom;
+
+import java.util.List;
+
+/**
+ * Resolves the symptoms of a session in bulk. Results keep the request order (duplicates included);
+ * symptoms already known by id may be returned as uninitialized references.
+ */
+public interface SymptomResolverService {
+    List<Symptom> resolveByIds(List<Long> symptomIds);
+
+    /**
+     * Resolves labels to symptoms, creating the missing ones. Must run inside a read-write transaction.
+     */
+    List<Symptom> resolveByLabels(List<String> labels);
+
+    /**
+     * Turns symptoms loaded in an earlier transaction into references usable in the current one,
+     * without reloading them.
+     */
+    List<Symptom> reuse(List<Symptom> resolvedSymptoms);
+
+    void evict(Long symptomId);
+}
@@ -3,6 +3,18 @@ package com.homosapiens.diagnocareservice.service;
 import com.homosapiens.diagnocareservice.dto.MLTranslationRequestDTO;
 import com.homosapiens.diagnocareservice.dto.MLTranslationResponseDTO;
 
+import java.util.Map;
+
 public interface TranslationService {
     MLTranslationResponseDTO translate(MLTranslationRequestDTO request);
+
+    /**
+     * Translates every known symptom, pathology and specialist label into the warm-up languages,
+     * so later translations are answered from the term cache.
+     */
+    void warmUp();
+
+    void clearCache();
+
+    Map<String, Object> getCacheStats();
 }
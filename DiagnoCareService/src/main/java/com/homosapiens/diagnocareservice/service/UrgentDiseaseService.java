@@ -9,5 +9,12 @@ public interface UrgentDiseaseService {
     List<UrgentDiseaseDTO> getAll();
     UrgentDiseaseDTO create(UrgentDiseaseRequestDTO requestDTO);
     void delete(Long id);
+
+    /**
+     * Pure in-memory check: matches the English name, the French name or an alias, ignoring case,
+     * accents and punctuation.
+     */
     boolean isUrgentDisease(String diseaseName);
+
+    void reload();
 }
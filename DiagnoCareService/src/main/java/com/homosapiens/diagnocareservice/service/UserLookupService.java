@@ -1,32 +1,49 @@
 package com.homosapiens.diagnocareservice.service;
 
+import com.homosapiens.diagnocareservice.core.security.BlindIndexService;
 import com.homosapiens.diagnocareservice.core.util.EmailHashService;
 import com.homosapiens.diagnocareservice.model.entity.User;
 import com.homosapiens.diagnocareservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
- * Service for looking up users by email.
- * This service handles the complexity of finding users when emails are encrypted in the database.
+ * Service for looking up users by email or phone number.
+ * This service handles the complexity of finding users when these are encrypted in the database:
+ * lookups go through the blind index columns (see BlindIndexService).
  * 
  * IMPORTANT: Always use this service instead of directly calling UserRepository.findByEmail()
  * to ensure proper handling of encrypted emails.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserLookupService {
 
     private final UserRepository userRepository;
     private final EmailHashService emailHashService;
+    private final BlindIndexService blindIndexService;
+
+    @Value("${encryption.blind-index.backfill-batch-size:200}")
+    private int backfillBatchSize;
+
+    /** Highest user id the backfill has visited; rows are only ever indexed once. */
+    private volatile long backfillCursor;
+    private volatile boolean backfillDone;
 
     /**
      * Finds a user by email address.
      * Since emails are encrypted in the database, this method:
-     * 1. Calculates the SHA-256 hash of the email
-     * 2. Looks up the user by email hash
+     * 1. Looks up the user by the blind index of the email
+     * 2. Falls back to the SHA-256 email hash for rows the backfill has not reached yet
      * 
      * @param email The plain text email address
      * @return Optional containing the user if found
@@ -35,10 +52,30 @@ public class UserLookupService {
         if (email == null || email.trim().isEmpty()) {
             return Optional.empty();
         }
+        Optional<User> user = userRepository.findByEmailBlindIndex(blindIndexService.emailIndex(email));
+        if (user.isPresent() || backfillDone) {
+            return user;
+        }
         String emailHash = emailHashService.calculateEmailHash(email);
         return userRepository.findByEmailHash(emailHash);
     }
 
+    /**
+     * Finds a user by phone number, through the blind index of the number. Formatting is ignored:
+     * "04 20 37 13 30" finds a user registered with "0420371330". Numbers are not unique; when several
+     * accounts share one, the oldest is returned.
+     *
+     * @param phoneNumber The plain text phone number
+     * @return Optional containing the user if found
+     */
+    public Optional<User> findUserByPhoneNumber(String phoneNumber) {
+        String phoneIndex = blindIndexService.phoneIndex(phoneNumber);
+        if (phoneIndex == null) {
+            return Optional.empty();
+        }
+        return userRepository.findFirstByPhoneBlindIndexOrderByIdAsc(phoneIndex);
+    }
+
     /**
      * Checks if a user exists with the given email.
      * 
@@ -48,4 +85,47 @@ public class UserLookupService {
     public boolean existsByEmail(String email) {
         return findUserByEmail(email).isPresent();
     }
+
+    /**
+     * Fills the blind indexes of users stored before the columns existed. New and updated rows are
+     * indexed by UserBlindIndexListener, so this only walks the table once per start.
+     */
+    @Scheduled(initialDelayString = "${encryption.blind-index.backfill-delay-ms:5000}",
+            fixedDelayString = "${encryption.blind-index.backfill-delay-ms:5000}")
+    public void backfillBlindIndexes() {
+        if (backfillDone) {
+            return;
+        }
+        try {
+            backfillNextBatch();
+        } catch (Exception e) {
+            log.error("Blind index backfill batch failed, retrying on the next tick", e);
+        }
+    }
+
+    /**
+     * Indexes the next batch of users that have no blind index yet.
+     *
+     * @return false once every user has been visited
+     */
+    public boolean backfillNextBatch() {
+        List<User> users = userRepository.findMissingBlindIndexes(backfillCursor, PageRequest.of(0, backfillBatchSize));
+        for (User user : users) {
+            user.setEmailBlindIndex(blindIndexService.emailIndex(user.getEmail()));
+            user.setPhoneBlindIndex(blindIndexService.phoneIndex(user.getPhoneNumber()));
+            try {
+                userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                // Two accounts share an email (unique index): left unindexed until someone merges them
+                log.warn("Could not index user {}: duplicate blind index", user.getId());
+            }
+            backfillCursor = user.getId();
+        }
+        if (users.size() < backfillBatchSize) {
+            backfillDone = true;
+            log.info("Blind indexes are filled for all users");
+            return false;
+        }
+        return true;
+    }
 }
@@ -0,0 +1,187 @@
+package com.homosapiens.diagnocareservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homosapiens.diagnocareservice.core.concurrent.FanOutExecutor;
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.dto.*;
+import com.homosapiens.diagnocareservice.service.BulkPredictionService;
+import com.homosapiens.diagnocareservice.service.PredictionWorkflowService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk scoring over NDJSON. Input is read one line at a time and at most {@code max-in-flight} lines
+ * are being scored at once: when the window is full the oldest line is awaited and written before
+ * the next one is read, so memory stays bounded whatever the input size and a slow ML service
+ * slows down reading the request instead of piling up work. Concurrent predict calls are coalesced
+ * into batch calls by {@code MLPredictionClient} when {@code ml.batching.enabled} is on.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkPredictionServiceImpl implements BulkPredictionService {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final PredictionWorkflowService predictionWorkflowService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.bulk-predictions.threads:8}")
+    private int threads;
+
+    @Value("${app.bulk-predictions.max-in-flight:32}")
+    private int maxInFlight;
+
+    @Value("${app.bulk-predictions.max-line-length:65536}")
+    private int maxLineLength;
+
+    @Value("${app.bulk-predictions.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    private FanOutExecutor executor;
+
+    @PostConstruct
+    void init() {
+        executor = new FanOutExecutor("bulk-prediction", threads, maxInFlight, virtualThreads);
+    }
+
+    @PreDestroy
+    void close() {
+        executor.close();
+    }
+
+    @Override
+    public void score(InputStream input, OutputStream output, boolean persist) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Deque<CompletableFuture<BulkPredictionResultDTO>> window = new ArrayDeque<>();
+        long lineNumber = 0;
+        int scored = 0;
+        NdjsonLine line;
+        while ((line = readLine(reader)) != null) {
+            lineNumber++;
+            if (!line.tooLong() && line.text().isBlank()) {
+                continue;
+            }
+            if (window.size() >= Math.max(1, maxInFlight)) {
+                write(output, window.removeFirst().join());
+            }
+            window.addLast(submit(lineNumber, line, persist));
+            scored++;
+        }
+        while (!window.isEmpty()) {
+            write(output, window.removeFirst().join());
+        }
+        log.info("Bulk scoring finished: {} requests, persist={}", scored, persist);
+    }
+
+    private CompletableFuture<BulkPredictionResultDTO> submit(long lineNumber, NdjsonLine line, boolean persist) {
+        if (line.tooLong()) {
+            return CompletableFuture.completedFuture(failure(lineNumber, null, HttpStatus.BAD_REQUEST,
+                    "Line longer than " + maxLineLength + " characters"));
+        }
+        return executor.submit(() -> scoreLine(lineNumber, line.text(), persist));
+    }
+
+    private BulkPredictionResultDTO scoreLine(long lineNumber, String line, boolean persist) {
+        CreatePredictionRequestDTO request;
+        try {
+            request = objectMapper.readValue(line, CreatePredictionRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            return failure(lineNumber, null, HttpStatus.BAD_REQUEST, "Invalid JSON: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<CreatePredictionRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return failure(lineNumber, request.getUserId(), HttpStatus.BAD_REQUEST, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        SessionSymptomRequestDTO sessionSymptomRequestDTO = new SessionSymptomRequestDTO();
+        sessionSymptomRequestDTO.setUserId(request.getUserId());
+        sessionSymptomRequestDTO.setSymptomLabels(request.getSymptomLabels());
+        try {
+            if (persist) {
+                PredictionCreationResult result = predictionWorkflowService.createPrediction(sessionSymptomRequestDTO, null);
+                return BulkPredictionResultDTO.builder()
+                        .line(lineNumber)
+                        .status(HttpStatus.CREATED.value())
+                        .userId(request.getUserId())
+                        .predictionId(result.getPrediction().getId())
+                        .mlResults(result.getMlResponse())
+                        .build();
+            }
+            return BulkPredictionResultDTO.builder()
+                    .line(lineNumber)
+                    .status(HttpStatus.OK.value())
+                    .userId(request.getUserId())
+                    .mlResults(predictionWorkflowService.score(sessionSymptomRequestDTO))
+                    .build();
+        } catch (AppException e) {
+            return failure(lineNumber, request.getUserId(), e.getStatus(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Bulk scoring failed on line {}: {}", lineNumber, e.getMessage());
+            return failure(lineNumber, request.getUserId(), HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    private static BulkPredictionResultDTO failure(long lineNumber, Long userId, HttpStatus status, String error) {
+        return BulkPredictionResultDTO.builder()
+                .line(lineNumber)
+                .status(status.value())
+                .userId(userId)
+                .error(error)
+                .build();
+    }
+
+    private void write(OutputStream output, BulkPredictionResultDTO result) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(result));
+        output.write(NEWLINE);
+        output.flush();
+    }
+
+    /**
+     * Reads up to the next '\n' keeping at most {@code maxLineLength} characters, or returns null at
+     * the end of the input. Longer lines are consumed and reported as too long.
+     */
+    private NdjsonLine readLine(BufferedReader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        boolean tooLong = false;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (text.length() < maxLineLength) {
+                text.append((char) c);
+            } else {
+                tooLong = true;
+            }
+        }
+        if (c == -1 && text.isEmpty() && !tooLong) {
+            return null;
+        }
+        return new NdjsonLine(text.toString(), tooLong);
+    }
+
+    private record NdjsonLine(String text, boolean tooLong) {
+    }
+}
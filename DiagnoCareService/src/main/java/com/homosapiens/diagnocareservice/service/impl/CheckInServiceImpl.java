@@ -17,13 +17,16 @@ import com.homosapiens.diagnocareservice.service.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
@@ -38,6 +41,7 @@ public class CheckInServiceImpl implements CheckInService {
     private final UrgentDiseaseService urgentDiseaseService;
     private final PathologyResultRepository pathologyResultRepository;
     private final com.homosapiens.diagnocareservice.repository.PredictionRepository predictionRepository;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${app.checkin.first-reminder-minutes:1440}")
     private long firstReminderMinutes;
@@ -63,28 +67,40 @@ public class CheckInServiceImpl implements CheckInService {
         return checkInRepository.save(checkIn);
     }
 
+    /**
+     * Not transactional on purpose: the new prediction is created by the workflow, which keeps the
+     * ML call outside any transaction. The check-in itself is completed inside the workflow's write
+     * transaction so it commits together with the new prediction.
+     */
     @Override
-    @Transactional
     public CheckInResponseDTO submitCheckIn(CheckInCreateRequestDTO requestDTO) {
-        Prediction previousPrediction = predictionService.getPredictionById(requestDTO.getPreviousPredictionId())
-                .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "Previous prediction not found"));
-
-        User user = userService.getUserById(requestDTO.getUserId())
-                .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "User not found"));
-
-        if (!previousPrediction.getSessionSymptom().getUser().getId().equals(user.getId())) {
-            throw new AppException(HttpStatus.BAD_REQUEST, "Prediction does not belong to user");
-        }
-
-        CheckIn existingCheckIn = checkInRepository.findByPreviousPredictionIdAndUserId(previousPrediction.getId(), user.getId())
-                .orElse(null);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Long previousPredictionId = readOnly.execute(status -> {
+            Prediction previousPrediction = loadPreviousPrediction(requestDTO.getPreviousPredictionId());
+            User user = loadUser(requestDTO.getUserId());
+            if (!previousPrediction.getSessionSymptom().getUser().getId().equals(user.getId())) {
+                throw new AppException(HttpStatus.BAD_REQUEST, "Prediction does not belong to user");
+            }
+            return previousPrediction.getId();
+        });
 
         SessionSymptomRequestDTO symptomRequestDTO = new SessionSymptomRequestDTO();
         symptomRequestDTO.setUserId(requestDTO.getUserId());
         symptomRequestDTO.setSymptomLabels(requestDTO.getSymptomLabels());
 
-        PredictionCreationResult result = predictionWorkflowService.createPrediction(symptomRequestDTO, previousPrediction.getId());
-        Prediction newPrediction = result.getPrediction();
+        AtomicReference<CheckInResponseDTO> response = new AtomicReference<>();
+        predictionWorkflowService.createPrediction(symptomRequestDTO, previousPredictionId,
+                (newPrediction, mlResponse) -> response.set(completeCheckIn(previousPredictionId, requestDTO.getUserId(), newPrediction)));
+        return response.get();
+    }
+
+    private CheckInResponseDTO completeCheckIn(Long previousPredictionId, Long userId, Prediction newPrediction) {
+        Prediction previousPrediction = loadPreviousPrediction(previousPredictionId);
+        User user = loadUser(userId);
+
+        CheckIn existingCheckIn = checkInRepository.findByPreviousPredictionIdAndUserId(previousPrediction.getId(), user.getId())
+                .orElse(null);
 
         CheckIn checkIn = existingCheckIn != null
                 ? existingCheckIn
@@ -103,6 +119,16 @@ public class CheckInServiceImpl implements CheckInService {
         return toDto(saved, previousPrediction, newPrediction);
     }
 
+    private Prediction loadPreviousPrediction(Long previousPredictionId) {
+        return predictionService.getPredictionById(previousPredictionId)
+                .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "Previous prediction not found"));
+    }
+
+    private User loadUser(Long userId) {
+        return userService.getUserById(userId)
+                .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+
     private CheckIn createNewCheckIn(User user, Prediction previousPrediction) {
         CheckIn created = new CheckIn();
         created.setUser(user);
@@ -0,0 +1,120 @@
+package com.homosapiens.diagnocareservice.service.impl;
+
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.model.entity.Doctor;
+import com.homosapiens.diagnocareservice.model.entity.Pathology;
+import com.homosapiens.diagnocareservice.repository.DoctorRepository;
+import com.homosapiens.diagnocareservice.repository.PathologyRepository;
+import com.homosapiens.diagnocareservice.service.ClinicalCatalogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every pathology by name and every doctor by specialist label in memory, so resolving the
+ * top ML results normally costs no query at all. Misses are resolved with an
+ * {@code INSERT ... ON CONFLICT DO NOTHING} followed by a read, which is safe when several requests
+ * discover the same new disease at once. New entries are only cached once the surrounding
+ * transaction commits, so a rolled-back insert never leaves a dangling id in the cache. The whole
+ * catalog is reloaded every {@code app.clinical-catalog.reload-ms} so rows deleted or renamed through
+ * other instances stop being served from memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClinicalCatalogServiceImpl implements ClinicalCatalogService {
+
+    private final PathologyRepository pathologyRepository;
+    private final DoctorRepository doctorRepository;
+
+    private final Map<String, Pathology> pathologiesByName = new ConcurrentHashMap<>();
+    private final Map<String, Doctor> doctorsByLabel = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.clinical-catalog.reload-ms:60000}",
+            fixedDelayString = "${app.clinical-catalog.reload-ms:60000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        Map<String, Pathology> pathologies = new ConcurrentHashMap<>();
+        // CatalogUniqueConstraintCheck refuses to start on duplicate names, putIfAbsent is only a safeguard
+        pathologyRepository.findAll().forEach(p -> pathologies.putIfAbsent(p.getPathologyName(), p));
+        Map<String, Doctor> doctors = new ConcurrentHashMap<>();
+        doctorRepository.findAll().forEach(d -> doctors.putIfAbsent(d.getSpecialistLabel(), d));
+
+        boolean changed = !pathologies.keySet().equals(pathologiesByName.keySet())
+                || !doctors.keySet().equals(doctorsByLabel.keySet());
+        pathologiesByName.clear();
+        pathologiesByName.putAll(pathologies);
+        doctorsByLabel.clear();
+        doctorsByLabel.putAll(doctors);
+        if (changed) {
+            log.info("Clinical catalog loaded: {} pathologies, {} doctors", pathologies.size(), doctors.size());
+        }
+    }
+
+    @Override
+    @Transactional
+    public Pathology getOrCreatePathology(String pathologyName, String description) {
+        Pathology cached = pathologiesByName.get(pathologyName);
+        if (cached != null) {
+            return cached;
+        }
+        pathologyRepository.insertIfAbsent(pathologyName, description, LocalDateTime.now());
+        Pathology pathology = pathologyRepository.findByPathologyName(pathologyName)
+                .orElseThrow(() -> new AppException(HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Pathology could not be created: " + pathologyName));
+        cacheAfterCommit(() -> pathologiesByName.putIfAbsent(pathologyName, pathology));
+        return pathology;
+    }
+
+    @Override
+    @Transactional
+    public Doctor getOrCreateDoctor(String specialistLabel, BigDecimal specialistScore, String description) {
+        Doctor cached = doctorsByLabel.get(specialistLabel);
+        if (cached != null) {
+            return cached;
+        }
+        doctorRepository.insertIfAbsent(specialistLabel, specialistScore, description, LocalDateTime.now());
+        Doctor doctor = doctorRepository.findBySpecialistLabel(specialistLabel)
+                .orElseThrow(() -> new AppException(HttpStatus.INTERNAL_SERVER_ERROR,
+                        "Doctor could not be created: " + specialistLabel));
+        cacheAfterCommit(() -> doctorsByLabel.putIfAbsent(specialistLabel, doctor));
+        return doctor;
+    }
+
+    @Override
+    public void evictPathology(Long pathologyId) {
+        // By id, so a rename also drops the entry under the old name
+        pathologiesByName.values().removeIf(pathology -> pathology.getId().equals(pathologyId));
+    }
+
+    @Override
+    public void evictDoctor(Long doctorId) {
+        doctorsByLabel.values().removeIf(doctor -> doctor.getId().equals(doctorId));
+    }
+
+    private void cacheAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
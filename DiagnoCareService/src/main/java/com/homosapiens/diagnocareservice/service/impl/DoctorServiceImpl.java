@@ -3,6 +3,7 @@ package com.homosapiens.diagnocareservice.service.impl;
 import com.homosapiens.diagnocareservice.dto.DoctorDTO;
 import com.homosapiens.diagnocareservice.model.entity.Doctor;
 import com.homosapiens.diagnocareservice.repository.DoctorRepository;
+import com.homosapiens.diagnocareservice.service.ClinicalCatalogService;
 import com.homosapiens.diagnocareservice.service.DoctorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,7 @@ import java.util.stream.Collectors;
 public class DoctorServiceImpl implements DoctorService {
 
     private final DoctorRepository doctorRepository;
+    private final ClinicalCatalogService clinicalCatalogService;
 
     @Override
     public Doctor createDoctor(Doctor doctor) {
@@ -28,7 +30,9 @@ public class DoctorServiceImpl implements DoctorService {
     public Doctor updateDoctor(Long id, Doctor doctor) {
         if (doctorRepository.existsById(id)) {
             doctor.setId(id);
-            return doctorRepository.save(doctor);
+            Doctor saved = doctorRepository.save(doctor);
+            clinicalCatalogService.evictDoctor(id);
+            return saved;
         }
         throw new RuntimeException("Doctor not found with id: " + id);
     }
@@ -36,6 +40,7 @@ public class DoctorServiceImpl implements DoctorService {
     @Override
     public void deleteDoctor(Long id) {
         doctorRepository.deleteById(id);
+        clinicalCatalogService.evictDoctor(id);
     }
 
     @Override
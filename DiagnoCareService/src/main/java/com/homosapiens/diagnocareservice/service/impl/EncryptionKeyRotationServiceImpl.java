@@ -0,0 +1,134 @@
+package com.homosapiens.diagnocareservice.service.impl;
+
+import com.homosapiens.diagnocareservice.core.security.DataEncryptionService;
+import com.homosapiens.diagnocareservice.service.AppSettingService;
+import com.homosapiens.diagnocareservice.service.EncryptionKeyRotationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background re-encryption of the encrypted columns to the active key, so that an old key can be
+ * removed from {@code encryption.keys} once it is done.
+ * <p>
+ * One batch of rows per tick keeps the load on the database low while the service keeps serving.
+ * Progress is stored per table in app settings as {@code <keyId>:<lastId>}, so the job resumes
+ * where it stopped after a restart and starts over when the active key changes. Rows are read and
+ * written through JDBC, because JPA would see no change in the decrypted values; each update only
+ * applies if the column still holds the value that was read, so a concurrent write always wins.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EncryptionKeyRotationServiceImpl implements EncryptionKeyRotationService {
+
+    private static final String CURSOR_SETTING_PREFIX = "ENCRYPTION_ROTATION_CURSOR_";
+    private static final String DONE = "done";
+
+    /** Columns mapped with an Encrypted*Converter, per table. */
+    private static final Map<String, List<String>> ENCRYPTED_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        ENCRYPTED_COLUMNS.put("users", List.of("email", "address", "phone_number"));
+        ENCRYPTED_COLUMNS.put("patient_medical_profiles", List.of("is_smoking", "age", "gender", "weight",
+                "mean_bp", "mean_chol", "sedentary", "bmi", "alcohol", "family_antecedents", "clinical_envelope"));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataEncryptionService dataEncryptionService;
+    private final AppSettingService appSettingService;
+
+    @Value("${encryption.rotation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${encryption.rotation.batch-size:200}")
+    private int batchSize;
+
+    /** Active key id for which every table is known to be rotated, -1 until then. */
+    private volatile int completedKeyId = -1;
+
+    @Scheduled(initialDelayString = "${encryption.rotation.delay-ms:2000}",
+            fixedDelayString = "${encryption.rotation.delay-ms:2000}")
+    public void scheduledRotation() {
+        if (!enabled || completedKeyId == dataEncryptionService.getActiveKeyId()) {
+            return;
+        }
+        try {
+            rotateNextBatch();
+        } catch (Exception e) {
+            log.error("Encryption key rotation batch failed, retrying on the next tick", e);
+        }
+    }
+
+    @Override
+    public boolean rotateNextBatch() {
+        int activeKeyId = dataEncryptionService.getActiveKeyId();
+        for (Map.Entry<String, List<String>> table : ENCRYPTED_COLUMNS.entrySet()) {
+            String cursorKey = CURSOR_SETTING_PREFIX + table.getKey().toUpperCase();
+            String[] cursor = appSettingService.getValue(cursorKey, "").split(":");
+            boolean sameKey = cursor.length == 2 && cursor[0].equals(String.valueOf(activeKeyId));
+            if (sameKey && DONE.equals(cursor[1])) {
+                continue;
+            }
+            long lastId = sameKey ? Long.parseLong(cursor[1]) : 0L;
+            rotateBatch(table.getKey(), table.getValue(), cursorKey, activeKeyId, lastId);
+            return true;
+        }
+        if (completedKeyId != activeKeyId) {
+            completedKeyId = activeKeyId;
+            log.info("All encrypted columns are on key {}", activeKeyId);
+        }
+        return false;
+    }
+
+    private void rotateBatch(String table, List<String> columns, String cursorKey, int activeKeyId, long lastId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, " + String.join(", ", columns) + " FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?",
+                lastId, batchSize);
+
+        Map<String, List<Object[]>> updates = new LinkedHashMap<>();
+        int failures = 0;
+        for (Map<String, Object> row : rows) {
+            Object id = row.get("id");
+            for (String column : columns) {
+                Object value = row.get(column);
+                if (!(value instanceof String stored) || !dataEncryptionService.needsReencryption(stored)) {
+                    continue;
+                }
+                try {
+                    updates.computeIfAbsent(column, c -> new ArrayList<>())
+                            .add(new Object[]{dataEncryptionService.reencrypt(stored), id, stored});
+                } catch (RuntimeException e) {
+                    // Plain text that merely looks like Base64, or a key that is no longer configured
+                    failures++;
+                    log.warn("Cannot re-encrypt {}.{} of row {}: {}", table, column, id, e.getMessage());
+                }
+            }
+        }
+
+        int rotated = 0;
+        for (Map.Entry<String, List<Object[]>> column : updates.entrySet()) {
+            String sql = "UPDATE " + table + " SET " + column.getKey() + " = ? WHERE id = ? AND " + column.getKey() + " = ?";
+            for (int count : jdbcTemplate.batchUpdate(sql, column.getValue())) {
+                rotated += Math.max(count, 0);
+            }
+        }
+
+        if (rows.size() < batchSize) {
+            appSettingService.setValue(cursorKey, activeKeyId + ":" + DONE);
+            log.info("Encrypted columns of {} are on key {}", table, activeKeyId);
+        } else {
+            long nextId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+            appSettingService.setValue(cursorKey, activeKeyId + ":" + nextId);
+        }
+        log.debug("Re-encrypted {} values of {} after id {} ({} failures)", rotated, table, lastId, failures);
+    }
+}
@@ -84,6 +84,15 @@ public class PathologyResultServiceImpl implements PathologyResultService {
         return pathologyResultRepository.save(pathologyResult);
     }
 
+    /**
+     * Writes results whose pathology, doctor and prediction are already resolved in a single INSERT,
+     * instead of re-loading each reference by id as {@link #createPathologyResult(Long, PathologyResultRequestDTO)} does.
+     */
+    @Override
+    public int createPathologyResults(List<PathologyResult> pathologyResults) {
+        return pathologyResultRepository.insertAll(pathologyResults);
+    }
+
     @Override
     public PathologyResult updatePathologyResult(Long id, PathologyResultRequestDTO requestDTO) {
         PathologyResult pathologyResult = pathologyResultRepository.findById(id)
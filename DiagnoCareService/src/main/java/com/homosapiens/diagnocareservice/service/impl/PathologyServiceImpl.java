@@ -3,6 +3,7 @@ package com.homosapiens.diagnocareservice.service.impl;
 import com.homosapiens.diagnocareservice.dto.PathologyDTO;
 import com.homosapiens.diagnocareservice.model.entity.Pathology;
 import com.homosapiens.diagnocareservice.repository.PathologyRepository;
+import com.homosapiens.diagnocareservice.service.ClinicalCatalogService;
 import com.homosapiens.diagnocareservice.service.PathologyService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,7 @@ import java.util.stream.Collectors;
 public class PathologyServiceImpl implements PathologyService {
 
     private final PathologyRepository pathologyRepository;
+    private final ClinicalCatalogService clinicalCatalogService;
 
     @Override
     public Pathology createPathology(Pathology pathology) {
@@ -28,7 +30,9 @@ public class PathologyServiceImpl implements PathologyService {
     public Pathology updatePathology(Long id, Pathology pathology) {
         if (pathologyRepository.existsById(id)) {
             pathology.setId(id);
-            return pathologyRepository.save(pathology);
+            Pathology saved = pathologyRepository.save(pathology);
+            clinicalCatalogService.evictPathology(id);
+            return saved;
         }
         throw new RuntimeException("Pathology not found with id: " + id);
     }
@@ -36,6 +40,7 @@ public class PathologyServiceImpl implements PathologyService {
     @Override
     public void deletePathology(Long id) {
         pathologyRepository.deleteById(id);
+        clinicalCatalogService.evictPathology(id);
     }
 
     @Override
@@ -1,6 +1,8 @@
 package com.homosapiens.diagnocareservice.service.impl;
 
 import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.core.ml.MLProfileFeatureCache;
+import com.homosapiens.diagnocareservice.core.security.EncryptedClinicalProfileConverter;
 import com.homosapiens.diagnocareservice.dto.PatientMedicalProfileDTO;
 import com.homosapiens.diagnocareservice.dto.PatientMedicalProfileRequestDTO;
 import com.homosapiens.diagnocareservice.model.entity.PatientMedicalProfile;
@@ -9,19 +11,40 @@ import com.homosapiens.diagnocareservice.repository.PatientMedicalProfileReposit
 import com.homosapiens.diagnocareservice.repository.UserRepository;
 import com.homosapiens.diagnocareservice.service.PatientMedicalProfileService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
+@Slf4j
 public class PatientMedicalProfileServiceImpl implements PatientMedicalProfileService {
 
     private final PatientMedicalProfileRepository profileRepository;
     private final UserRepository userRepository;
+    private final MLProfileFeatureCache profileFeatureCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${encryption.profile.migration-batch-size:100}")
+    private int migrationBatchSize;
+
+    /** Last profile id visited by the layout migration; only rows still in the other layout are read. */
+    private volatile long migrationCursor;
+    private volatile boolean migrationDone;
 
     @Override
     public PatientMedicalProfile createOrUpdateProfile(PatientMedicalProfileRequestDTO requestDTO) {
@@ -50,12 +73,17 @@ public class PatientMedicalProfileServiceImpl implements PatientMedicalProfileSe
         profile.setAlcohol(requestDTO.getAlcohol());
         profile.setFamilyAntecedents(requestDTO.getFamilyAntecedents());
 
-        return profileRepository.save(profile);
+        PatientMedicalProfile saved = profileRepository.save(profile);
+        invalidateFeaturesAfterCommit(user.getId());
+        return saved;
     }
 
     @Override
     public void deleteProfile(Long id) {
-        profileRepository.deleteById(id);
+        profileRepository.findById(id).ifPresent(profile -> {
+            profileRepository.delete(profile);
+            invalidateFeaturesAfterCommit(profile.getUser().getId());
+        });
     }
 
     @Override
@@ -81,4 +109,71 @@ public class PatientMedicalProfileServiceImpl implements PatientMedicalProfileSe
         dto.setUserId(profile.getUser().getId());
         return dto;
     }
+
+    /**
+     * Rows also move to the configured layout on their next write; this moves the ones that are never
+     * written, one batch per tick. Runs outside the class-level transaction: the call below does not go
+     * through the proxy, and each row must commit (or conflict) on its own.
+     */
+    @Scheduled(initialDelayString = "${encryption.profile.migration-delay-ms:5000}",
+            fixedDelayString = "${encryption.profile.migration-delay-ms:5000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void migrateStorageLayout() {
+        if (!migrationDone) {
+            migrateNextStorageBatch();
+        }
+    }
+
+    /**
+     * Each row is migrated in its own short transaction; a row edited concurrently fails the version
+     * check and is skipped, keeping the edit (which already wrote it in the configured layout).
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean migrateNextStorageBatch() {
+        PageRequest page = PageRequest.of(0, migrationBatchSize);
+        boolean envelopeMode = EncryptedClinicalProfileConverter.isEnvelopeMode();
+        List<PatientMedicalProfile> batch = envelopeMode
+                ? profileRepository.findByClinicalEnvelopeIsNullAndIdGreaterThanOrderByIdAsc(migrationCursor, page)
+                : profileRepository.findByClinicalEnvelopeIsNotNullAndIdGreaterThanOrderByIdAsc(migrationCursor, page);
+        TransactionTemplate rowTransaction = new TransactionTemplate(transactionManager);
+        int migrated = 0;
+        for (PatientMedicalProfile candidate : batch) {
+            try {
+                Boolean moved = rowTransaction.execute(status -> profileRepository.findById(candidate.getId())
+                        .map(PatientMedicalProfile::migrateStorage)
+                        .orElse(false));
+                if (Boolean.TRUE.equals(moved)) {
+                    migrated++;
+                }
+            } catch (OptimisticLockingFailureException e) {
+                log.debug("Medical profile {} changed during migration, left to its own write", candidate.getId());
+            }
+        }
+        if (migrated > 0) {
+            log.info("Moved {} medical profiles to the {} layout", migrated, envelopeMode ? "envelope" : "per-column");
+        }
+        if (batch.size() < migrationBatchSize) {
+            migrationDone = true;
+            return false;
+        }
+        migrationCursor = batch.get(batch.size() - 1).getId();
+        return true;
+    }
+
+    /**
+     * Drops the cached ML features of this user once the write is visible to other transactions.
+     */
+    private void invalidateFeaturesAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            profileFeatureCache.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                profileFeatureCache.invalidate(userId);
+            }
+        });
+    }
 }
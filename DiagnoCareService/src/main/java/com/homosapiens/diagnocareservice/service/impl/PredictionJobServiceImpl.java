@@ -0,0 +1,251 @@
+package com.homosapiens.diagnocareservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.dto.*;
+import com.homosapiens.diagnocareservice.model.entity.Prediction;
+import com.homosapiens.diagnocareservice.model.entity.PredictionJob;
+import com.homosapiens.diagnocareservice.model.entity.enums.PredictionJobStatus;
+import com.homosapiens.diagnocareservice.repository.PredictionJobRepository;
+import com.homosapiens.diagnocareservice.service.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous prediction jobs. Jobs are persisted before being queued on a bounded worker pool,
+ * so a full queue or a restart only delays them: the sweeper re-queues PENDING jobs and resets
+ * RUNNING jobs whose worker disappeared.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PredictionJobServiceImpl implements PredictionJobService {
+
+    private final PredictionJobRepository predictionJobRepository;
+    private final PredictionWorkflowService predictionWorkflowService;
+    private final PredictionService predictionService;
+    private final CheckInService checkInService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.prediction-jobs.workers:4}")
+    private int workers;
+
+    @Value("${app.prediction-jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.prediction-jobs.stale-after-ms:300000}")
+    private long staleAfterMs;
+
+    @Value("${app.prediction-jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.prediction-jobs.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void startWorkers() {
+        AtomicInteger index = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "prediction-job-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stopWorkers() throws InterruptedException {
+        // Queued jobs stay PENDING and are picked up again on restart; running jobs get a chance to
+        // finish, those still running after the timeout are interrupted and left RUNNING for the sweeper
+        executor.getQueue().clear();
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public PredictionJobResponseDTO submitJob(CreatePredictionRequestDTO request) {
+        if (userService.getUserById(request.getUserId()).isEmpty()) {
+            throw new AppException(HttpStatus.NOT_FOUND, "User not found");
+        }
+
+        PredictionJob job = new PredictionJob();
+        job.setUserId(request.getUserId());
+        job.setRequestPayload(writeJson(request));
+        job.setStatus(PredictionJobStatus.PENDING);
+        PredictionJob saved = predictionJobRepository.save(job);
+
+        enqueue(saved.getId());
+        return toDto(saved, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<PredictionJobResponseDTO> getJob(Long jobId) {
+        return predictionJobRepository.findById(jobId).map(job -> {
+            PredictionWithResultsResponse result = null;
+            if (job.getStatus() == PredictionJobStatus.COMPLETED && job.getPredictionId() != null) {
+                PredictionDTO prediction = predictionService.getPredictionById(job.getPredictionId())
+                        .map(predictionService::convertToDTO)
+                        .orElse(null);
+                result = PredictionWithResultsResponse.builder()
+                        .prediction(prediction)
+                        .mlResults(readJson(job.getMlResultPayload(), MLPredictionResponseDTO.class))
+                        .build();
+            }
+            return toDto(job, result);
+        });
+    }
+
+    /**
+     * Re-queues jobs that were accepted while the pool was full or before a restart,
+     * and gives jobs stuck in RUNNING (worker died with the previous instance) another chance.
+     */
+    @Scheduled(initialDelayString = "${app.prediction-jobs.sweep-delay-ms:15000}",
+            fixedDelayString = "${app.prediction-jobs.sweep-delay-ms:15000}")
+    public void sweepJobs() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000);
+        for (PredictionJob stale : predictionJobRepository.findByStatusAndStartedAtBefore(PredictionJobStatus.RUNNING, staleBefore)) {
+            if (stale.getAttempts() != null && stale.getAttempts() >= maxAttempts) {
+                markFailed(stale.getId(), stale.getStartedAt(), HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                        "Prediction job was interrupted " + stale.getAttempts() + " times");
+            } else if (predictionJobRepository.requeue(stale.getId(), stale.getStartedAt(),
+                    PredictionJobStatus.RUNNING, PredictionJobStatus.PENDING) == 1) {
+                log.warn("Prediction job {} was left RUNNING since {}, re-queued", stale.getId(), stale.getStartedAt());
+            }
+        }
+
+        int freeSlots = executor.getQueue().remainingCapacity();
+        if (freeSlots <= 0) {
+            return;
+        }
+        predictionJobRepository.findByStatusOrderByIdAsc(PredictionJobStatus.PENDING, PageRequest.of(0, freeSlots))
+                .forEach(job -> enqueue(job.getId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobsOnStartup() {
+        sweepJobs();
+    }
+
+    private void enqueue(Long jobId) {
+        try {
+            executor.execute(() -> runJob(jobId));
+        } catch (RejectedExecutionException e) {
+            log.info("Prediction job queue is full, job {} stays PENDING until the next sweep", jobId);
+        }
+    }
+
+    private void runJob(Long jobId) {
+        // Truncated to the column precision, complete() matches on it
+        LocalDateTime startedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (predictionJobRepository.claim(jobId, PredictionJobStatus.PENDING, PredictionJobStatus.RUNNING,
+                startedAt) == 0) {
+            // Already taken by another worker or instance
+            return;
+        }
+        try {
+            PredictionJob job = predictionJobRepository.findById(jobId)
+                    .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "Prediction job not found"));
+            CreatePredictionRequestDTO request = readJson(job.getRequestPayload(), CreatePredictionRequestDTO.class);
+
+            SessionSymptomRequestDTO sessionSymptomRequestDTO = new SessionSymptomRequestDTO();
+            sessionSymptomRequestDTO.setUserId(request.getUserId());
+            sessionSymptomRequestDTO.setSymptomLabels(request.getSymptomLabels());
+            // The job is completed in the transaction storing the prediction: a crash in between cannot
+            // leave a stored prediction behind a RUNNING job that the sweeper would run again
+            predictionWorkflowService.createPrediction(sessionSymptomRequestDTO, null, (prediction, mlResponse) -> {
+                checkInService.scheduleCheckIn(prediction);
+                markCompleted(jobId, startedAt, prediction, mlResponse);
+            });
+        } catch (RunTakenOverException e) {
+            log.warn("Prediction job {} was requeued while running, result of this run discarded", jobId);
+        } catch (AppException e) {
+            log.warn("Prediction job {} failed: {}", jobId, e.getMessage());
+            markFailed(jobId, startedAt, e.getStatus().value(), e.getMessage());
+        } catch (Exception e) {
+            if (executor.isShutdown()) {
+                // Interrupted by shutdown: left RUNNING, the sweeper requeues it after a restart
+                log.info("Prediction job {} interrupted by shutdown", jobId);
+                return;
+            }
+            log.error("Prediction job {} failed", jobId, e);
+            markFailed(jobId, startedAt, HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+        }
+    }
+
+    private void markCompleted(Long jobId, LocalDateTime startedAt, Prediction prediction, MLPredictionResponseDTO mlResponse) {
+        if (predictionJobRepository.complete(jobId, startedAt, PredictionJobStatus.RUNNING, PredictionJobStatus.COMPLETED,
+                prediction.getId(), writeJson(mlResponse), LocalDateTime.now()) == 0) {
+            // Rolls back the prediction: the run that owns the job now will create its own
+            throw new RunTakenOverException();
+        }
+    }
+
+    private void markFailed(Long jobId, LocalDateTime startedAt, int status, String message) {
+        if (predictionJobRepository.fail(jobId, startedAt, PredictionJobStatus.RUNNING, PredictionJobStatus.FAILED,
+                status, message, LocalDateTime.now()) == 0) {
+            // Completed, requeued or re-claimed since this run started: its outcome stands
+            log.info("Prediction job {} is no longer owned by the run started at {}, failure dropped", jobId, startedAt);
+        }
+    }
+
+    private PredictionJobResponseDTO toDto(PredictionJob job, PredictionWithResultsResponse result) {
+        return PredictionJobResponseDTO.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .createdDate(job.getCreatedDate())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .errorStatus(job.getErrorStatus())
+                .errorMessage(job.getErrorMessage())
+                .result(result)
+                .build();
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not serialize prediction job data");
+        }
+    }
+
+    private <T> T readJson(String json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not read prediction job data");
+        }
+    }
+
+    private static class RunTakenOverException extends RuntimeException {
+    }
+}
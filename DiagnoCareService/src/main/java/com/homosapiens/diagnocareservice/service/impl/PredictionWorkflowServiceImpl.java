@@ -1,19 +1,35 @@
 package com.homosapiens.diagnocareservice.service.impl;
 
+import com.homosapiens.diagnocareservice.core.concurrent.FanOutExecutor;
+import com.homosapiens.diagnocareservice.core.concurrent.StageTimings;
 import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.core.ml.MLProfileFeatureCache;
+import com.homosapiens.diagnocareservice.core.ml.MLProfileFeatures;
 import com.homosapiens.diagnocareservice.dto.*;
 import com.homosapiens.diagnocareservice.model.entity.*;
-import com.homosapiens.diagnocareservice.repository.SymptomRepository;
 import com.homosapiens.diagnocareservice.service.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -24,48 +40,89 @@ public class PredictionWorkflowServiceImpl implements PredictionWorkflowService
     private final SessionSymptomService sessionSymptomService;
     private final MLPredictionClient mlPredictionClient;
     private final PatientMedicalProfileService patientMedicalProfileService;
-    private final PathologyService pathologyService;
-    private final DoctorService doctorService;
+    private final ClinicalCatalogService clinicalCatalogService;
     private final PathologyResultService pathologyResultService;
     private final UserService userService;
-    private final SymptomRepository symptomRepository;
+    private final SymptomResolverService symptomResolverService;
     private final UrgentDiseaseService urgentDiseaseService;
+    private final PlatformTransactionManager transactionManager;
+    private final MLProfileFeatureCache profileFeatureCache;
 
-    @Override
-    @Transactional(rollbackFor = Exception.class)
-    public PredictionCreationResult createPrediction(SessionSymptomRequestDTO requestDTO, Long previousPredictionId) {
-        log.info("Creating prediction for session symptom request: userId={}", requestDTO.getUserId());
+    @Value("${app.prediction-workflow.parallel-reads:true}")
+    private boolean parallelReads;
 
-        String language = resolveUserLanguage(requestDTO.getUserId(), null);
+    @Value("${app.prediction-workflow.read-threads:16}")
+    private int readThreads;
 
-        List<String> extractedSymptoms = resolveSymptomsForPrediction(requestDTO);
-        if (extractedSymptoms.isEmpty()) {
-            throw new AppException(HttpStatus.BAD_REQUEST, "Symptoms are required");
+    @Value("${app.prediction-workflow.read-queue-capacity:64}")
+    private int readQueueCapacity;
+
+    @Value("${app.prediction-workflow.virtual-threads:true}")
+    private boolean virtualThreads;
+
+    private final StageTimings stageTimings = new StageTimings();
+    private FanOutExecutor readExecutor;
+
+    @PostConstruct
+    void init() {
+        if (parallelReads) {
+            readExecutor = new FanOutExecutor("prediction-read", readThreads, readQueueCapacity, virtualThreads);
         }
-        log.info("Using {} symptoms for prediction (language: {})", extractedSymptoms.size(), language);
+    }
 
-        Optional<PatientMedicalProfile> profileOpt = patientMedicalProfileService.getProfileByUserId(requestDTO.getUserId());
+    @PreDestroy
+    void close() {
+        if (readExecutor != null) {
+            readExecutor.close();
+        }
+    }
+
+    @Override
+    public PredictionCreationResult createPrediction(SessionSymptomRequestDTO requestDTO, Long previousPredictionId) {
+        return createPrediction(requestDTO, previousPredictionId, null);
+    }
+
+    /**
+     * Runs in three phases so no JDBC connection is held while waiting on the ML service:
+     * a short read-only transaction building the ML request, the ML call outside any transaction,
+     * then one short transaction persisting the session symptom, prediction and pathology results
+     * (plus {@code afterPersist}, if given) atomically. The reads of the first phase are independent
+     * and run concurrently, each in its own read-only transaction; see {@link #loadPredictionInputs}.
+     */
+    @Override
+    public PredictionCreationResult createPrediction(SessionSymptomRequestDTO requestDTO, Long previousPredictionId,
+                                                     BiConsumer<Prediction, MLPredictionResponseDTO> afterPersist) {
+        log.info("Creating prediction for session symptom request: userId={}", requestDTO.getUserId());
 
-        MLPredictionRequestDTO mlRequest = buildMLRequest(extractedSymptoms, profileOpt, language);
+        long start = System.nanoTime();
+        PredictionInputs inputs = stageTimings.time("reads", () -> loadPredictionInputs(requestDTO));
 
-        MLPredictionResponseDTO mlResponse = mlPredictionClient.predict(mlRequest);
+        MLPredictionResponseDTO mlResponse = stageTimings.time("ml", () -> mlPredictionClient.predict(inputs.mlRequest()));
         log.info("ML service returned {} predictions", mlResponse.getPredictions().size());
 
         boolean isRedAlert = determineRedAlert(mlResponse);
         BigDecimal bestScore = calculateBestScore(mlResponse);
 
-        SessionSymptom sessionSymptom = sessionSymptomService.createSessionSymptom(requestDTO);
+        Prediction created = stageTimings.time("persist", () -> inTransaction(status -> {
+            SessionSymptom sessionSymptom = sessionSymptomService.createSessionSymptom(requestDTO, inputs.resolvedSymptoms());
 
-        PredictionRequestDTO predictionRequest = new PredictionRequestDTO();
-        predictionRequest.setSessionSymptomId(sessionSymptom.getId());
-        predictionRequest.setBestScore(bestScore);
-        predictionRequest.setIsRedAlert(isRedAlert);
-        predictionRequest.setComment("AI prediction based on symptoms and patient profile");
-        predictionRequest.setPreviousPredictionId(previousPredictionId);
+            PredictionRequestDTO predictionRequest = new PredictionRequestDTO();
+            predictionRequest.setSessionSymptomId(sessionSymptom.getId());
+            predictionRequest.setBestScore(bestScore);
+            predictionRequest.setIsRedAlert(isRedAlert);
+            predictionRequest.setComment("AI prediction based on symptoms and patient profile");
+            predictionRequest.setPreviousPredictionId(previousPredictionId);
 
-        Prediction created = predictionService.createPrediction(predictionRequest);
+            Prediction prediction = predictionService.createPrediction(predictionRequest);
 
-        createPathologyResults(created, mlResponse, language);
+            createPathologyResults(prediction, mlResponse, inputs.language());
+
+            if (afterPersist != null) {
+                afterPersist.accept(prediction, mlResponse);
+            }
+            return prediction;
+        }));
+        stageTimings.record("total", System.nanoTime() - start);
 
         return PredictionCreationResult.builder()
                 .prediction(created)
@@ -73,71 +130,138 @@ public class PredictionWorkflowServiceImpl implements PredictionWorkflowService
                 .build();
     }
 
-    private MLPredictionRequestDTO buildMLRequest(List<String> symptoms, Optional<PatientMedicalProfile> profileOpt, String language) {
-        MLPredictionRequestDTO.MLPredictionRequestDTOBuilder builder = MLPredictionRequestDTO.builder()
-                .symptoms(symptoms)
-                .language(language);
-
-        if (profileOpt.isPresent()) {
-            PatientMedicalProfile profile = profileOpt.get();
-            builder.age(profile.getAge())
-                   .weight(profile.getWeight())
-                   .bmi(profile.getBmi() != null ? (float) profile.getBmi() : 24.2f)
-                   .tension_moyenne(profile.getMeanBloodPressure())
-                   .cholesterole_moyen(profile.getMeanCholesterol())
-                   .gender(profile.getGender() != null
-                           ? profile.getGender().name().substring(0, 1) + profile.getGender().name().substring(1).toLowerCase()
-                           : "Male")
-                   .smoking(profile.getIsSmoking() != null && profile.getIsSmoking() ? "Yes" : "No")
-                   .alcohol(profile.getAlcohol() != null && profile.getAlcohol() ? "Moderate" : "None")
-                   .sedentarite(profile.getSedentary() != null && profile.getSedentary() ? "High" : "Moderate")
-                   .family_history(profile.getFamilyAntecedents() != null && !profile.getFamilyAntecedents().isEmpty() ? "Yes" : "No");
-
-            if (profile.getMeanBloodPressure() != null) {
-                if (profile.getMeanBloodPressure() > 140) {
-                    builder.blood_pressure("High");
-                } else if (profile.getMeanBloodPressure() < 90) {
-                    builder.blood_pressure("Low");
-                } else {
-                    builder.blood_pressure("Normal");
-                }
-            } else {
-                builder.blood_pressure("Normal");
-            }
+    @Override
+    public MLPredictionResponseDTO score(SessionSymptomRequestDTO requestDTO) {
+        long start = System.nanoTime();
+        PredictionInputs inputs = stageTimings.time("reads", () -> loadPredictionInputs(requestDTO));
+        MLPredictionResponseDTO mlResponse = stageTimings.time("ml", () -> mlPredictionClient.predict(inputs.mlRequest()));
+        stageTimings.record("score", System.nanoTime() - start);
+        return mlResponse;
+    }
 
-            if (profile.getMeanCholesterol() != null) {
-                // Seuils alignés avec les distributions d'entraînement du modèle ML :
-                //   "High"   ~ N(235, 25)  → frontière à 220
-                //   "Normal" ~ N(190, 20)  → frontière à 170
-                //   "Low"    ~ N(155, 20)
-                if (profile.getMeanCholesterol() > 220) {
-                    builder.cholesterol_level("High");
-                } else if (profile.getMeanCholesterol() < 170) {
-                    builder.cholesterol_level("Low");
-                } else {
-                    builder.cholesterol_level("Normal");
-                }
-            } else {
-                builder.cholesterol_level("Normal");
-            }
+    @Override
+    public Map<String, Object> getStageTimings() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("parallelReads", readExecutor != null);
+        if (readExecutor != null) {
+            snapshot.put("readExecutor", readExecutor.snapshot());
+        }
+        snapshot.put("stages", stageTimings.snapshot());
+        return snapshot;
+    }
+
+    /**
+     * User language, symptoms and medical profile are independent reads: they are fanned out and
+     * joined, so this phase costs about the slowest of them. When the caller already runs inside a
+     * transaction they run sequentially in it instead, so one request never holds several pooled
+     * connections while its caller holds another. The profile is only read on a miss of
+     * {@link MLProfileFeatureCache}; profile writes invalidate it.
+     */
+    private PredictionInputs loadPredictionInputs(SessionSymptomRequestDTO requestDTO) {
+        boolean hasIds = requestDTO.getSymptomIds() != null && !requestDTO.getSymptomIds().isEmpty();
+        boolean hasLabels = requestDTO.getSymptomLabels() != null && !requestDTO.getSymptomLabels().isEmpty();
+        if (!hasIds && !hasLabels) {
+            throw new AppException(HttpStatus.BAD_REQUEST, "Symptoms are required");
+        }
+
+        // Cached features are skipped inside a caller transaction, which may hold uncommitted profile writes
+        boolean callerTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        Long userId = requestDTO.getUserId();
+        MLProfileFeatures cachedProfile = callerTransaction ? null : profileFeatureCache.get(userId);
+        long profileVersion = profileFeatureCache.version();
+
+        String language;
+        SymptomReads symptoms;
+        MLProfileFeatures profile;
+        if (readExecutor == null || callerTransaction) {
+            // One transaction for all reads; the per-read transactions below join it
+            PredictionReads reads = inReadOnlyTransaction(status -> new PredictionReads(
+                    timedRead("read.language", () -> resolveUserLanguage(userId, null)),
+                    timedRead("read.symptoms", () -> readSymptoms(requestDTO)),
+                    cachedProfile != null ? cachedProfile : readProfileFeatures(userId)));
+            language = reads.language();
+            symptoms = reads.symptoms();
+            profile = reads.profile();
         } else {
-            builder.age(35)
-                   .weight(75f)
-                   .bmi(24.2f)
-                   .tension_moyenne(120f)
-                   .cholesterole_moyen(190f)
-                   .gender("Male")
-                   .blood_pressure("Normal")
-                   .cholesterol_level("Normal")
-                   .smoking("No")
-                   .alcohol("None")
-                   .sedentarite("Moderate")
-                   .family_history("No");
+            CompletableFuture<String> languageRead = readExecutor.submit(
+                    () -> timedRead("read.language", () -> resolveUserLanguage(userId, null)));
+            CompletableFuture<SymptomReads> symptomsRead = readExecutor.submit(
+                    () -> timedRead("read.symptoms", () -> readSymptoms(requestDTO)));
+            CompletableFuture<MLProfileFeatures> profileRead = cachedProfile != null
+                    ? CompletableFuture.completedFuture(cachedProfile)
+                    : readExecutor.submit(() -> readProfileFeatures(userId));
+            symptoms = join(symptomsRead);
+            language = join(languageRead);
+            profile = join(profileRead);
+        }
+        if (cachedProfile == null && !callerTransaction) {
+            profileFeatureCache.put(userId, profile, profileVersion);
         }
 
-        builder.outcome_variable("Negative");
+        if (symptoms.labels().isEmpty()) {
+            throw new AppException(HttpStatus.BAD_REQUEST, "Symptoms are required");
+        }
+        log.info("Using {} symptoms for prediction (language: {})", symptoms.labels().size(), language);
 
-        return builder.build();
+        return new PredictionInputs(language, buildMLRequest(symptoms.labels(), profile, language), symptoms.resolved());
+    }
+
+    /**
+     * Features are derived inside the read transaction, while the profile is still attached.
+     */
+    private MLProfileFeatures readProfileFeatures(Long userId) {
+        return timedRead("read.profile",
+                () -> MLProfileFeatures.of(patientMedicalProfileService.getProfileByUserId(userId)));
+    }
+
+    private <T> T timedRead(String stage, Supplier<T> read) {
+        return stageTimings.time(stage, () -> inReadOnlyTransaction(status -> read.get()));
+    }
+
+    private static <T> T join(CompletableFuture<T> read) {
+        try {
+            return read.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Labels are read inside the transaction: symptoms resolved by id may be lazy references, which
+     * fail to load if the symptom was deleted through another instance since its id was cached.
+     */
+    private SymptomReads readSymptoms(SessionSymptomRequestDTO requestDTO) {
+        List<Symptom> resolvedSymptoms = resolveSymptomsById(requestDTO);
+        if (resolvedSymptoms.isEmpty()) {
+            return new SymptomReads(resolvedSymptoms, requestedSymptomLabels(requestDTO));
+        }
+        try {
+            return new SymptomReads(resolvedSymptoms, resolvedSymptoms.stream().map(Symptom::getLabel).toList());
+        } catch (EntityNotFoundException e) {
+            requestDTO.getSymptomIds().forEach(symptomResolverService::evict);
+            throw new AppException(HttpStatus.NOT_FOUND, "One or more symptoms not found");
+        }
+    }
+
+    private <T> T inReadOnlyTransaction(TransactionCallback<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(action);
+    }
+
+    private <T> T inTransaction(TransactionCallback<T> action) {
+        return new TransactionTemplate(transactionManager).execute(action);
+    }
+
+    private MLPredictionRequestDTO buildMLRequest(List<String> symptoms, MLProfileFeatures profile, String language) {
+        return profile.applyTo(MLPredictionRequestDTO.builder())
+                .symptoms(symptoms)
+                .language(language)
+                .outcome_variable("Negative")
+                .build();
     }
 
     private String resolveUserLanguage(Long userId, String fallbackLanguage) {
@@ -153,21 +277,22 @@ public class PredictionWorkflowServiceImpl implements PredictionWorkflowService
         return normalizeLanguage(language);
     }
 
-    private List<String> resolveSymptomsForPrediction(SessionSymptomRequestDTO requestDTO) {
-        if (requestDTO.getSymptomIds() != null && !requestDTO.getSymptomIds().isEmpty()) {
-            List<Symptom> symptoms = symptomRepository.findAllById(requestDTO.getSymptomIds());
-            if (symptoms.size() != requestDTO.getSymptomIds().size()) {
+    private List<Symptom> resolveSymptomsById(SessionSymptomRequestDTO requestDTO) {
+        List<Long> ids = requestDTO.getSymptomIds();
+        if (ids != null && !ids.isEmpty()) {
+            if (ids.stream().distinct().count() != ids.size()) {
                 throw new AppException(HttpStatus.NOT_FOUND, "One or more symptoms not found");
             }
-            return symptoms.stream()
-                    .map(Symptom::getLabel)
-                    .toList();
+            return symptomResolverService.resolveByIds(ids);
         }
+        return List.of();
+    }
 
+    private List<String> requestedSymptomLabels(SessionSymptomRequestDTO requestDTO) {
+        // Labels are sent to ML as is; they are resolved (and created if new) when the session is persisted
         if (requestDTO.getSymptomLabels() != null && !requestDTO.getSymptomLabels().isEmpty()) {
             return requestDTO.getSymptomLabels();
         }
-
         throw new AppException(HttpStatus.BAD_REQUEST, "Symptoms are required");
     }
 
@@ -206,60 +331,72 @@ public class PredictionWorkflowServiceImpl implements PredictionWorkflowService
         return BigDecimal.valueOf(bestProb != null ? bestProb : 0.0);
     }
 
+    /**
+     * Resolves the pathology and doctor of the top 3 ML results through the in-memory catalog
+     * and writes the results with a single INSERT. Results without a disease or specialist are
+     * skipped up front; a database error fails the whole prediction, since it leaves the
+     * surrounding transaction rollback-only anyway.
+     */
     private void createPathologyResults(Prediction prediction, MLPredictionResponseDTO mlResponse, String language) {
         if (mlResponse.getPredictions() == null || mlResponse.getPredictions().isEmpty()) {
             return;
         }
 
+        List<PathologyResult> pathologyResults = new ArrayList<>(3);
         mlResponse.getPredictions().stream()
                 .limit(3)
                 .forEach(result -> {
-                    try {
-                        String diseaseName = "fr".equals(language) && result.getDisease_fr() != null
-                                ? result.getDisease_fr()
-                                : result.getDisease();
-
-                        String specialistName = "fr".equals(language) && result.getSpecialist_fr() != null
-                                ? result.getSpecialist_fr()
-                                : result.getSpecialist();
-
-                        Pathology pathology = pathologyService.getPathologyByName(result.getDisease())
-                                .orElseGet(() -> {
-                                    Pathology newPathology = new Pathology();
-                                    newPathology.setPathologyName(result.getDisease());
-                                    newPathology.setDescription("AI predicted pathology");
-                                    return pathologyService.createPathology(newPathology);
-                                });
-
-                        Doctor doctor = doctorService.getDoctorBySpecialistLabel(result.getSpecialist())
-                                .orElseGet(() -> {
-                                    Doctor newDoctor = new Doctor();
-                                    newDoctor.setSpecialistLabel(result.getSpecialist());
-                                    newDoctor.setSpecialistScore(BigDecimal.valueOf(result.getSpecialist_probability() != null ? result.getSpecialist_probability() : 0.0));
-                                    newDoctor.setDescription("AI recommended specialist");
-                                    return doctorService.createDoctor(newDoctor);
-                                });
-
-                        PathologyResultRequestDTO pathologyResultRequest = new PathologyResultRequestDTO();
-                        pathologyResultRequest.setPredictionId(prediction.getId().toString());
-                        pathologyResultRequest.setPathologyId(pathology.getId());
-                        pathologyResultRequest.setDoctorId(doctor.getId());
-                        pathologyResultRequest.setDiseaseScore(BigDecimal.valueOf(result.getProbability() != null ? result.getProbability() : 0.0));
-                        pathologyResultRequest.setLocalizedDiseaseName(diseaseName);
-                        pathologyResultRequest.setLocalizedSpecialistLabel(specialistName);
-
-                        String description = result.getDescription();
-                        if (description == null || description.isEmpty()) {
-                            description = String.format("Predicted disease: %s (%.2f%%) - Recommended specialist: %s",
-                                    diseaseName, result.getProbability(), specialistName);
-                        }
-                        pathologyResultRequest.setDescription(description);
-
-                        pathologyResultService.createPathologyResult(prediction.getId(), pathologyResultRequest);
-
-                    } catch (Exception e) {
-                        log.error("Error creating pathology result for disease: {}", result.getDisease(), e);
+                    if (result.getDisease() == null || result.getDisease().isBlank()
+                            || result.getSpecialist() == null || result.getSpecialist().isBlank()) {
+                        log.warn("Skipping ML result without disease or specialist: {}", result.getDisease());
+                        return;
+                    }
+                    String diseaseName = "fr".equals(language) && result.getDisease_fr() != null
+                            ? result.getDisease_fr()
+                            : result.getDisease();
+
+                    String specialistName = "fr".equals(language) && result.getSpecialist_fr() != null
+                            ? result.getSpecialist_fr()
+                            : result.getSpecialist();
+
+                    Pathology pathology = clinicalCatalogService.getOrCreatePathology(
+                            result.getDisease(), "AI predicted pathology");
+
+                    Doctor doctor = clinicalCatalogService.getOrCreateDoctor(
+                            result.getSpecialist(),
+                            BigDecimal.valueOf(result.getSpecialist_probability() != null ? result.getSpecialist_probability() : 0.0),
+                            "AI recommended specialist");
+
+                    PathologyResult pathologyResult = new PathologyResult();
+                    pathologyResult.setPrediction(prediction);
+                    pathologyResult.setPathology(pathology);
+                    pathologyResult.setDoctor(doctor);
+                    pathologyResult.setDiseaseScore(BigDecimal.valueOf(result.getProbability() != null ? result.getProbability() : 0.0));
+                    pathologyResult.setLocalizedDiseaseName(diseaseName);
+                    pathologyResult.setLocalizedSpecialistLabel(specialistName);
+
+                    String description = result.getDescription();
+                    if (description == null || description.isEmpty()) {
+                        description = String.format("Predicted disease: %s (%.2f%%) - Recommended specialist: %s",
+                                diseaseName, result.getProbability(), specialistName);
                     }
+                    pathologyResult.setDescription(description);
+
+                    pathologyResults.add(pathologyResult);
                 });
+
+        pathologyResultService.createPathologyResults(pathologyResults);
+    }
+
+    private record PredictionReads(String language, SymptomReads symptoms, MLProfileFeatures profile) {
+    }
+
+    private record SymptomReads(List<Symptom> resolved, List<String> labels) {
+    }
+
+    /**
+     * @param resolvedSymptoms symptoms loaded by id in the read phase, reused when persisting; empty for label requests
+     */
+    private record PredictionInputs(String language, MLPredictionRequestDTO mlRequest, List<Symptom> resolvedSymptoms) {
     }
 }
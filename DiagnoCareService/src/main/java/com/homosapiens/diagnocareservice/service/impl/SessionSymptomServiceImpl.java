@@ -8,9 +8,9 @@ import com.homosapiens.diagnocareservice.model.entity.SessionSymptom;
 import com.homosapiens.diagnocareservice.model.entity.Symptom;
 import com.homosapiens.diagnocareservice.model.entity.User;
 import com.homosapiens.diagnocareservice.repository.SessionSymptomRepository;
-import com.homosapiens.diagnocareservice.repository.SymptomRepository;
 import com.homosapiens.diagnocareservice.repository.UserRepository;
 import com.homosapiens.diagnocareservice.service.SessionSymptomService;
+import com.homosapiens.diagnocareservice.service.SymptomResolverService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -27,10 +27,15 @@ public class SessionSymptomServiceImpl implements SessionSymptomService {
 
     private final SessionSymptomRepository sessionSymptomRepository;
     private final UserRepository userRepository;
-    private final SymptomRepository symptomRepository;
+    private final SymptomResolverService symptomResolverService;
 
     @Override
     public SessionSymptom createSessionSymptom(SessionSymptomRequestDTO requestDTO) {
+        return createSessionSymptom(requestDTO, null);
+    }
+
+    @Override
+    public SessionSymptom createSessionSymptom(SessionSymptomRequestDTO requestDTO, List<Symptom> resolvedSymptoms) {
         User user = userRepository.findById(requestDTO.getUserId())
                 .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "User not found with id: " + requestDTO.getUserId()));
 
@@ -40,22 +45,13 @@ public class SessionSymptomServiceImpl implements SessionSymptomService {
         sessionSymptom.setRawDescription(rawDescription != null ? rawDescription : "");
 
         List<Symptom> symptoms;
-        if (requestDTO.getSymptomIds() != null && !requestDTO.getSymptomIds().isEmpty()) {
-            symptoms = requestDTO.getSymptomIds().stream()
-                    .map(id -> symptomRepository.findById(id)
-                            .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "Symptom not found with id: " + id)))
-                    .collect(Collectors.toList());
-        } else if (requestDTO.getSymptomLabels() != null && !requestDTO.getSymptomLabels().isEmpty()) {
-            symptoms = requestDTO.getSymptomLabels().stream()
-                    .map(label -> symptomRepository.findByLabel(label)
-                            .orElseGet(() -> {
-                                Symptom symptom = new Symptom();
-                                symptom.setLabel(label);
-                                return symptomRepository.save(symptom);
-                            }))
-                    .collect(Collectors.toList());
+        if (resolvedSymptoms != null && !resolvedSymptoms.isEmpty()) {
+            symptoms = symptomResolverService.reuse(resolvedSymptoms);
         } else {
-            throw new AppException(HttpStatus.BAD_REQUEST, "Symptoms are required");
+            symptoms = resolveSymptoms(requestDTO);
+            if (symptoms == null) {
+                throw new AppException(HttpStatus.BAD_REQUEST, "Symptoms are required");
+            }
         }
 
         sessionSymptom.setSymptoms(symptoms);
@@ -71,27 +67,27 @@ public class SessionSymptomServiceImpl implements SessionSymptomService {
             sessionSymptom.setRawDescription(requestDTO.getRawDescription());
         }
 
-        if (requestDTO.getSymptomIds() != null && !requestDTO.getSymptomIds().isEmpty()) {
-            List<Symptom> symptoms = requestDTO.getSymptomIds().stream()
-                    .map(symptomId -> symptomRepository.findById(symptomId)
-                            .orElseThrow(() -> new AppException(HttpStatus.NOT_FOUND, "Symptom not found with id: " + symptomId)))
-                    .collect(Collectors.toList());
-            sessionSymptom.setSymptoms(symptoms);
-        } else if (requestDTO.getSymptomLabels() != null && !requestDTO.getSymptomLabels().isEmpty()) {
-            List<Symptom> symptoms = requestDTO.getSymptomLabels().stream()
-                    .map(label -> symptomRepository.findByLabel(label)
-                            .orElseGet(() -> {
-                                Symptom symptom = new Symptom();
-                                symptom.setLabel(label);
-                                return symptomRepository.save(symptom);
-                            }))
-                    .collect(Collectors.toList());
+        List<Symptom> symptoms = resolveSymptoms(requestDTO);
+        if (symptoms != null) {
             sessionSymptom.setSymptoms(symptoms);
         }
 
         return sessionSymptomRepository.save(sessionSymptom);
     }
 
+    /**
+     * @return the symptoms named by ids (preferred) or labels, or null if the request names none
+     */
+    private List<Symptom> resolveSymptoms(SessionSymptomRequestDTO requestDTO) {
+        if (requestDTO.getSymptomIds() != null && !requestDTO.getSymptomIds().isEmpty()) {
+            return symptomResolverService.resolveByIds(requestDTO.getSymptomIds());
+        }
+        if (requestDTO.getSymptomLabels() != null && !requestDTO.getSymptomLabels().isEmpty()) {
+            return symptomResolverService.resolveByLabels(requestDTO.getSymptomLabels());
+        }
+        return null;
+    }
+
     @Override
     public void deleteSessionSymptom(Long id) {
         sessionSymptomRepository.deleteById(id);
@@ -0,0 +1,158 @@
+package com.homosapiens.diagnocareservice.service.impl;
+
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.model.entity.Symptom;
+import com.homosapiens.diagnocareservice.repository.SymptomRepository;
+import com.homosapiens.diagnocareservice.service.SymptomResolverService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves a whole symptom list with at most one {@code IN (...)} read, plus one multi-row
+ * {@code INSERT ... ON CONFLICT DO NOTHING} and one re-read when labels are new. A label -> id cache
+ * lets known labels and ids become {@link SymptomRepository#getReferenceById references} without any
+ * query; the session only needs their ids for the join table, and {@code @BatchSize} on
+ * {@link Symptom} loads them in one query if their labels are read later. Cache entries are added
+ * only after the transaction that read or created them commits, and the whole cache is dropped every
+ * {@code app.symptoms.label-cache-refresh-ms} so symptoms deleted or relabelled through other
+ * instances stop being served from it.
+ */
+@Service
+@RequiredArgsConstructor
+public class SymptomResolverServiceImpl implements SymptomResolverService {
+
+    private final SymptomRepository symptomRepository;
+
+    @Value("${app.symptoms.label-cache-max-entries:10000}")
+    private int maxCacheEntries;
+
+    private final Map<String, Long> idsByLabel = new ConcurrentHashMap<>();
+    private final Set<Long> knownIds = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public List<Symptom> resolveByIds(List<Long> symptomIds) {
+        Set<Long> unknownIds = new LinkedHashSet<>();
+        for (Long id : symptomIds) {
+            if (id == null) {
+                throw new AppException(HttpStatus.BAD_REQUEST, "Symptom id is required");
+            }
+            if (!knownIds.contains(id)) {
+                unknownIds.add(id);
+            }
+        }
+
+        Map<Long, Symptom> byId = new HashMap<>();
+        if (!unknownIds.isEmpty()) {
+            List<Symptom> loaded = symptomRepository.findAllById(unknownIds);
+            loaded.forEach(symptom -> byId.put(symptom.getId(), symptom));
+            for (Long id : unknownIds) {
+                if (!byId.containsKey(id)) {
+                    throw new AppException(HttpStatus.NOT_FOUND, "Symptom not found with id: " + id);
+                }
+            }
+            cacheAfterCommit(loaded);
+        }
+
+        List<Symptom> symptoms = new ArrayList<>(symptomIds.size());
+        for (Long id : symptomIds) {
+            symptoms.add(byId.computeIfAbsent(id, symptomRepository::getReferenceById));
+        }
+        return symptoms;
+    }
+
+    @Override
+    public List<Symptom> resolveByLabels(List<String> labels) {
+        Map<String, Symptom> byLabel = new HashMap<>();
+        Set<String> unknownLabels = new LinkedHashSet<>();
+        for (String label : labels) {
+            if (label == null || label.isBlank()) {
+                throw new AppException(HttpStatus.BAD_REQUEST, "Symptom label is required");
+            }
+            Long id = idsByLabel.get(label);
+            if (id != null) {
+                byLabel.putIfAbsent(label, symptomRepository.getReferenceById(id));
+            } else {
+                unknownLabels.add(label);
+            }
+        }
+
+        if (!unknownLabels.isEmpty()) {
+            List<Symptom> loaded = new ArrayList<>(symptomRepository.findByLabelIn(unknownLabels));
+            loaded.forEach(symptom -> byLabel.putIfAbsent(symptom.getLabel(), symptom));
+            unknownLabels.removeIf(byLabel::containsKey);
+            if (!unknownLabels.isEmpty()) {
+                symptomRepository.insertLabelsIfAbsent(unknownLabels);
+                List<Symptom> created = symptomRepository.findByLabelIn(unknownLabels);
+                created.forEach(symptom -> byLabel.putIfAbsent(symptom.getLabel(), symptom));
+                loaded.addAll(created);
+            }
+            cacheAfterCommit(loaded);
+        }
+
+        List<Symptom> symptoms = new ArrayList<>(labels.size());
+        for (String label : labels) {
+            Symptom symptom = byLabel.get(label);
+            if (symptom == null) {
+                throw new AppException(HttpStatus.INTERNAL_SERVER_ERROR, "Symptom could not be created: " + label);
+            }
+            symptoms.add(symptom);
+        }
+        return symptoms;
+    }
+
+    @Override
+    public List<Symptom> reuse(List<Symptom> resolvedSymptoms) {
+        List<Symptom> references = new ArrayList<>(resolvedSymptoms.size());
+        for (Symptom symptom : resolvedSymptoms) {
+            references.add(symptomRepository.getReferenceById(symptom.getId()));
+        }
+        return references;
+    }
+
+    @Scheduled(initialDelayString = "${app.symptoms.label-cache-refresh-ms:60000}",
+            fixedDelayString = "${app.symptoms.label-cache-refresh-ms:60000}")
+    public void clear() {
+        // Entries are refilled lazily by the next reads
+        idsByLabel.clear();
+        knownIds.clear();
+    }
+
+    @Override
+    public void evict(Long symptomId) {
+        // By id, so a relabel also drops the entry under the old label
+        idsByLabel.values().removeIf(id -> id.equals(symptomId));
+        knownIds.remove(symptomId);
+    }
+
+    private void cacheAfterCommit(List<Symptom> symptoms) {
+        Runnable action = () -> symptoms.forEach(symptom -> {
+            if (symptom.getLabel() != null && idsByLabel.size() < maxCacheEntries
+                    && idsByLabel.putIfAbsent(symptom.getLabel(), symptom.getId()) == null) {
+                knownIds.add(symptom.getId());
+            }
+        });
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -3,6 +3,7 @@ package com.homosapiens.diagnocareservice.service.impl;
 import com.homosapiens.diagnocareservice.dto.SymptomDTO;
 import com.homosapiens.diagnocareservice.model.entity.Symptom;
 import com.homosapiens.diagnocareservice.repository.SymptomRepository;
+import com.homosapiens.diagnocareservice.service.SymptomResolverService;
 import com.homosapiens.diagnocareservice.service.SymptomService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,7 @@ import java.util.stream.Collectors;
 public class SymptomServiceImpl implements SymptomService {
 
     private final SymptomRepository symptomRepository;
+    private final SymptomResolverService symptomResolverService;
 
     @Override
     public Symptom createSymptom(Symptom symptom) {
@@ -28,6 +30,7 @@ public class SymptomServiceImpl implements SymptomService {
     public Symptom updateSymptom(Long id, Symptom symptom) {
         if (symptomRepository.existsById(id)) {
             symptom.setId(id);
+            symptomResolverService.evict(id);
             return symptomRepository.save(symptom);
         }
         throw new RuntimeException("Symptom not found with id: " + id);
@@ -36,6 +39,7 @@ public class SymptomServiceImpl implements SymptomService {
     @Override
     public void deleteSymptom(Long id) {
         symptomRepository.deleteById(id);
+        symptomResolverService.evict(id);
     }
 
     @Override
@@ -2,27 +2,246 @@ package com.homosapiens.diagnocareservice.service.impl;
 
 import com.homosapiens.diagnocareservice.dto.MLTranslationRequestDTO;
 import com.homosapiens.diagnocareservice.dto.MLTranslationResponseDTO;
+import com.homosapiens.diagnocareservice.repository.DoctorRepository;
+import com.homosapiens.diagnocareservice.repository.PathologyRepository;
+import com.homosapiens.diagnocareservice.repository.SymptomRepository;
 import com.homosapiens.diagnocareservice.service.MLPredictionClient;
 import com.homosapiens.diagnocareservice.service.TranslationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Translates symptom, disease and specialist labels through the ML service, one term at a time
+ * from a per-language dictionary. The vocabulary is small and fixed, so known terms are answered
+ * locally and only the unknown remainder of a request is sent to ML, in a single call. Terms the ML
+ * service leaves unchanged are cached too. Failed calls are never cached: the untranslated term is
+ * returned, as before.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TranslationServiceImpl implements TranslationService {
 
+    private enum TermKind {SYMPTOM, DISEASE, SPECIALIST}
+
+    private record TermKey(TermKind kind, String term) {
+    }
+
     private final MLPredictionClient mlPredictionClient;
+    private final SymptomRepository symptomRepository;
+    private final PathologyRepository pathologyRepository;
+    private final DoctorRepository doctorRepository;
+
+    @Value("${app.translation.cache-enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${app.translation.max-terms-per-language:5000}")
+    private int maxTermsPerLanguage;
+
+    @Value("${app.translation.warm-languages:fr}")
+    private List<String> warmLanguages;
+
+    private final Map<String, Map<TermKey, String>> dictionaries = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder requestsServedLocally = new LongAdder();
+    private final LongAdder termHits = new LongAdder();
+    private final LongAdder termMisses = new LongAdder();
+    private final LongAdder mlCalls = new LongAdder();
+    private final LongAdder mlFailures = new LongAdder();
 
     @Override
     public MLTranslationResponseDTO translate(MLTranslationRequestDTO request) {
         if (request == null || "en".equalsIgnoreCase(request.getLanguage())) {
             return fallbackResponse(request);
         }
+        if (!cacheEnabled || request.getLanguage() == null) {
+            return translateRemotely(request);
+        }
+        requests.increment();
+        String language = request.getLanguage().toLowerCase(Locale.ROOT);
+        Map<TermKey, String> dictionary = dictionaries.computeIfAbsent(language, key -> new ConcurrentHashMap<>());
+
+        Map<TermKind, List<String>> requested = new EnumMap<>(TermKind.class);
+        requested.put(TermKind.SYMPTOM, defaultList(request.getSymptoms()));
+        requested.put(TermKind.DISEASE, defaultList(request.getDiseases()));
+        requested.put(TermKind.SPECIALIST, defaultList(request.getSpecialists()));
+
+        Map<TermKind, Set<String>> unknown = new EnumMap<>(TermKind.class);
+        requested.forEach((kind, terms) -> unknown.put(kind, new LinkedHashSet<>()));
+        for (Map.Entry<TermKind, List<String>> entry : requested.entrySet()) {
+            for (String term : entry.getValue()) {
+                if (isBlank(term)) {
+                    continue;
+                }
+                if (dictionary.containsKey(new TermKey(entry.getKey(), term))) {
+                    termHits.increment();
+                } else {
+                    termMisses.increment();
+                    unknown.get(entry.getKey()).add(term);
+                }
+            }
+        }
+
+        Map<TermKey, String> resolved = Collections.emptyMap();
+        if (unknown.values().stream().allMatch(Set::isEmpty)) {
+            requestsServedLocally.increment();
+        } else {
+            resolved = resolveRemotely(language, dictionary, unknown);
+        }
+
+        return MLTranslationResponseDTO.builder()
+                .language(request.getLanguage())
+                .symptoms(lookup(TermKind.SYMPTOM, requested.get(TermKind.SYMPTOM), dictionary, resolved))
+                .diseases(lookup(TermKind.DISEASE, requested.get(TermKind.DISEASE), dictionary, resolved))
+                .specialists(lookup(TermKind.SPECIALIST, requested.get(TermKind.SPECIALIST), dictionary, resolved))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (cacheEnabled) {
+            // Off the startup thread: an unreachable ML service must not delay readiness
+            CompletableFuture.runAsync(this::warmUp);
+        }
+    }
+
+    @Override
+    public void warmUp() {
+        try {
+            List<String> symptoms = symptomRepository.findAllLabels();
+            List<String> diseases = pathologyRepository.findAllPathologyNames();
+            List<String> specialists = doctorRepository.findAllSpecialistLabels();
+            for (String language : warmLanguages) {
+                if (isBlank(language) || "en".equalsIgnoreCase(language.trim())) {
+                    continue;
+                }
+                translate(MLTranslationRequestDTO.builder()
+                        .language(language.trim())
+                        .symptoms(symptoms)
+                        .diseases(diseases)
+                        .specialists(specialists)
+                        .build());
+                log.info("Translation cache warmed for '{}': {} terms",
+                        language.trim(), dictionaries.getOrDefault(language.trim().toLowerCase(Locale.ROOT), Map.of()).size());
+            }
+        } catch (Exception ex) {
+            log.warn("Translation cache warm-up failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void clearCache() {
+        dictionaries.clear();
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        long hits = termHits.sum();
+        long lookups = hits + termMisses.sum();
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        dictionaries.forEach((language, dictionary) -> sizes.put(language, dictionary.size()));
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", cacheEnabled);
+        stats.put("termsPerLanguage", sizes);
+        stats.put("termLookups", lookups);
+        stats.put("termHits", hits);
+        stats.put("termHitRatio", lookups == 0 ? 0.0 : (double) hits / lookups);
+        stats.put("requests", requests.sum());
+        stats.put("requestsServedLocally", requestsServedLocally.sum());
+        stats.put("mlCalls", mlCalls.sum());
+        stats.put("mlFailures", mlFailures.sum());
+        return stats;
+    }
+
+    /**
+     * Sends the unknown terms to ML in one request. The ML service answers positionally, so a
+     * response whose lists do not line up with the request is used for nothing.
+     */
+    private Map<TermKey, String> resolveRemotely(String language, Map<TermKey, String> dictionary,
+                                                 Map<TermKind, Set<String>> unknown) {
+        MLTranslationRequestDTO missing = MLTranslationRequestDTO.builder()
+                .language(language)
+                .symptoms(new ArrayList<>(unknown.get(TermKind.SYMPTOM)))
+                .diseases(new ArrayList<>(unknown.get(TermKind.DISEASE)))
+                .specialists(new ArrayList<>(unknown.get(TermKind.SPECIALIST)))
+                .build();
+        MLTranslationResponseDTO response;
+        try {
+            mlCalls.increment();
+            response = mlPredictionClient.translate(missing);
+        } catch (Exception ex) {
+            mlFailures.increment();
+            log.warn("Failed to translate via ML service. Using fallback values.", ex);
+            return Collections.emptyMap();
+        }
+        if (response == null) {
+            mlFailures.increment();
+            return Collections.emptyMap();
+        }
+
+        Map<TermKey, String> resolved = new HashMap<>();
+        collect(TermKind.SYMPTOM, missing.getSymptoms(), response.getSymptoms(), resolved);
+        collect(TermKind.DISEASE, missing.getDiseases(), response.getDiseases(), resolved);
+        collect(TermKind.SPECIALIST, missing.getSpecialists(), response.getSpecialists(), resolved);
+        if (dictionary.size() + resolved.size() <= maxTermsPerLanguage) {
+            dictionary.putAll(resolved);
+        }
+        return resolved;
+    }
+
+    private void collect(TermKind kind, List<String> terms, List<String> translations, Map<TermKey, String> resolved) {
+        if (terms.isEmpty()) {
+            return;
+        }
+        if (translations == null || translations.size() != terms.size()) {
+            log.warn("ML translation returned {} {} terms for {} requested; not caching them",
+                    translations == null ? 0 : translations.size(), kind.name().toLowerCase(Locale.ROOT), terms.size());
+            return;
+        }
+        for (int i = 0; i < terms.size(); i++) {
+            String translation = translations.get(i);
+            resolved.put(new TermKey(kind, terms.get(i)), translation != null ? translation : terms.get(i));
+        }
+    }
+
+    private List<String> lookup(TermKind kind, List<String> terms, Map<TermKey, String> dictionary,
+                                Map<TermKey, String> resolved) {
+        List<String> translated = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            // Blank terms are dropped, as the ML service does
+            if (isBlank(term)) {
+                continue;
+            }
+            TermKey key = new TermKey(kind, term);
+            String value = resolved.get(key);
+            if (value == null) {
+                value = dictionary.getOrDefault(key, term);
+            }
+            translated.add(value);
+        }
+        return translated;
+    }
+
+    private MLTranslationResponseDTO translateRemotely(MLTranslationRequestDTO request) {
         try {
             return mlPredictionClient.translate(request);
         } catch (Exception ex) {
@@ -51,4 +270,8 @@ public class TranslationServiceImpl implements TranslationService {
     private List<String> defaultList(List<String> values) {
         return values != null ? values : Collections.emptyList();
     }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 }
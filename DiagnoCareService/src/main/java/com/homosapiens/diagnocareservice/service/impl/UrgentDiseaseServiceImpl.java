@@ -7,18 +7,45 @@ import com.homosapiens.diagnocareservice.model.entity.UrgentDisease;
 import com.homosapiens.diagnocareservice.repository.UrgentDiseaseRepository;
 import com.homosapiens.diagnocareservice.service.UrgentDiseaseService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+/**
+ * Urgent diseases are matched against an immutable in-memory set of normalized names (English name,
+ * French name and aliases), so red-alert checks never query the database. The set is rebuilt from
+ * the table and swapped in one write after every committed create/delete, and every
+ * {@code app.urgent-diseases.reload-ms} so changes made through other instances are picked up too.
+ */
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class UrgentDiseaseServiceImpl implements UrgentDiseaseService {
 
+    private static final String ALIAS_SEPARATOR = ";";
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
     private final UrgentDiseaseRepository urgentDiseaseRepository;
 
+    private volatile Set<String> urgentNames;
+
     @Override
     public List<UrgentDiseaseDTO> getAll() {
         return urgentDiseaseRepository.findAll().stream()
@@ -27,6 +54,7 @@ public class UrgentDiseaseServiceImpl implements UrgentDiseaseService {
     }
 
     @Override
+    @Transactional
     public UrgentDiseaseDTO create(UrgentDiseaseRequestDTO requestDTO) {
         String name = requestDTO.getDiseaseName().trim();
         if (urgentDiseaseRepository.existsByDiseaseNameIgnoreCase(name)) {
@@ -34,15 +62,21 @@ public class UrgentDiseaseServiceImpl implements UrgentDiseaseService {
         }
         UrgentDisease urgentDisease = new UrgentDisease();
         urgentDisease.setDiseaseName(name);
-        return toDto(urgentDiseaseRepository.save(urgentDisease));
+        urgentDisease.setDiseaseNameFr(trimToNull(requestDTO.getDiseaseNameFr()));
+        urgentDisease.setAliases(joinAliases(requestDTO.getAliases()));
+        UrgentDiseaseDTO created = toDto(urgentDiseaseRepository.save(urgentDisease));
+        reloadAfterCommit();
+        return created;
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         if (!urgentDiseaseRepository.existsById(id)) {
             throw new AppException(HttpStatus.NOT_FOUND, "Urgent disease not found");
         }
         urgentDiseaseRepository.deleteById(id);
+        reloadAfterCommit();
     }
 
     @Override
@@ -50,13 +84,100 @@ public class UrgentDiseaseServiceImpl implements UrgentDiseaseService {
         if (diseaseName == null || diseaseName.trim().isEmpty()) {
             return false;
         }
-        return urgentDiseaseRepository.existsByDiseaseNameIgnoreCase(diseaseName.trim());
+        Set<String> names = urgentNames;
+        if (names == null) {
+            // Only before the startup load has run
+            reload();
+            names = urgentNames;
+        }
+        return names.contains(normalize(diseaseName));
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.urgent-diseases.reload-ms:60000}",
+            fixedDelayString = "${app.urgent-diseases.reload-ms:60000}")
+    public void reload() {
+        Set<String> names = new HashSet<>();
+        List<UrgentDisease> urgentDiseases = urgentDiseaseRepository.findAll();
+        for (UrgentDisease urgentDisease : urgentDiseases) {
+            addNormalized(names, urgentDisease.getDiseaseName());
+            addNormalized(names, urgentDisease.getDiseaseNameFr());
+            splitAliases(urgentDisease.getAliases()).forEach(alias -> addNormalized(names, alias));
+        }
+        Set<String> loaded = Set.copyOf(names);
+        if (loaded.equals(urgentNames)) {
+            return;
+        }
+        urgentNames = loaded;
+        log.info("Urgent disease matcher loaded: {} diseases, {} names", urgentDiseases.size(), names.size());
+    }
+
+    /**
+     * Case, accents, punctuation and separators are ignored: "Paralysis (brain hemorrhage)",
+     * "paralysis_brain_hemorrhage" and "PARALYSIS - Brain Hemorrhage" are the same name.
+     */
+    static String normalize(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String withoutAccents = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    private static void addNormalized(Set<String> names, String name) {
+        if (name != null && !name.isBlank()) {
+            String normalized = normalize(name);
+            if (!normalized.isEmpty()) {
+                names.add(normalized);
+            }
+        }
+    }
+
+    private static String joinAliases(List<String> aliases) {
+        if (aliases == null) {
+            return null;
+        }
+        String joined = aliases.stream()
+                .map(UrgentDiseaseServiceImpl::trimToNull)
+                .filter(alias -> alias != null)
+                .map(alias -> alias.replace(ALIAS_SEPARATOR, " "))
+                .distinct()
+                .collect(Collectors.joining(ALIAS_SEPARATOR));
+        return joined.isEmpty() ? null : joined;
+    }
+
+    private static List<String> splitAliases(String aliases) {
+        if (aliases == null || aliases.isBlank()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(aliases.split(ALIAS_SEPARATOR))
+                .map(String::trim)
+                .filter(alias -> !alias.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 
     private UrgentDiseaseDTO toDto(UrgentDisease urgentDisease) {
         UrgentDiseaseDTO dto = new UrgentDiseaseDTO();
         dto.setId(urgentDisease.getId());
         dto.setDiseaseName(urgentDisease.getDiseaseName());
+        dto.setDiseaseNameFr(urgentDisease.getDiseaseNameFr());
+        dto.setAliases(splitAliases(urgentDisease.getAliases()));
         return dto;
     }
 }
@@ -73,7 +73,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public Optional<User> getUserByPhoneNumber(String phoneNumber) {
-        return userRepository.findByPhoneNumber(phoneNumber);
+        return userLookupService.findUserByPhoneNumber(phoneNumber);
     }
 
 } 
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.homosapiens.diagnocareservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homosapiens.diagnocareservice.core.kafka.KafkaProducer;
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
+import com.homosapiens.diagnocareservice.model.entity.Doctor;
+import com.homosapiens.diagnocareservice.model.entity.Pathology;
+import com.homosapiens.diagnocareservice.model.entity.User;
+import com.homosapiens.diagnocareservice.repository.DoctorRepository;
+import com.homosapiens.diagnocareservice.repository.PathologyRepository;
+import com.homosapiens.diagnocareservice.repository.PredictionRepository;
+import com.homosapiens.diagnocareservice.repository.UserRepository;
+import com.homosapiens.diagnocareservice.service.MLPredictionClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk_predictions;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL",
+        "app.bulk-predictions.max-in-flight=2"
+})
+class BulkPredictionIntegrationTest {
+
+    @MockBean
+    private KafkaProducer kafkaProducer;
+
+    @MockBean
+    private MLPredictionClient mlPredictionClient;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PathologyRepository pathologyRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static Long userId;
+
+    @BeforeEach
+    void setUp() {
+        if (userId == null) {
+            User user = new User();
+            user.setFirstName("Bulk");
+            user.setLastName("Test");
+            user.setEmail("bulk.test@example.com");
+            user.setPhoneNumber("0123456789077");
+            user.setLang("en");
+            user.setIsActive(true);
+            userId = userRepository.save(user).getId();
+        }
+        if (pathologyRepository.findByPathologyName("Migraine").isEmpty()) {
+            Pathology pathology = new Pathology();
+            pathology.setPathologyName("Migraine");
+            pathologyRepository.save(pathology);
+        }
+        if (doctorRepository.findBySpecialistLabel("Neurologist").isEmpty()) {
+            Doctor doctor = new Doctor();
+            doctor.setSpecialistLabel("Neurologist");
+            doctorRepository.save(doctor);
+        }
+    }
+
+    @Test
+    void scoreInBulk_ShouldStreamOneResultPerLine_InInputOrder_WithoutPersisting() throws Exception {
+        when(mlPredictionClient.predict(any(MLPredictionRequestDTO.class))).thenReturn(mlResponse());
+        long predictionsBefore = predictionRepository.count();
+        String body = line("headache") + "\n"
+                + "{not json\n"
+                + "\n"
+                + "{\"userId\": " + userId + ", \"symptomLabels\": []}\n"
+                + line("nausea") + "\r\n"
+                + line("fever");
+
+        List<JsonNode> results = postBulk(body, false);
+
+        assertEquals(List.of(1L, 2L, 4L, 5L, 6L), results.stream().map(result -> result.path("line").asLong()).toList());
+        assertEquals(List.of(200, 400, 400, 200, 200), results.stream().map(result -> result.path("status").asInt()).toList());
+        assertEquals("Migraine", results.get(0).path("mlResults").path("predictions").get(0).path("disease").asText());
+        assertTrue(results.get(1).path("error").asText().startsWith("Invalid JSON"));
+        assertEquals("At least one symptom label is required", results.get(2).path("error").asText());
+        assertEquals(predictionsBefore, predictionRepository.count());
+    }
+
+    @Test
+    void scoreInBulk_ShouldStorePredictions_WhenPersistRequested() throws Exception {
+        when(mlPredictionClient.predict(any(MLPredictionRequestDTO.class))).thenReturn(mlResponse());
+
+        List<JsonNode> results = postBulk(line("headache") + "\n" + line("dizziness") + "\n", true);
+
+        assertEquals(2, results.size());
+        for (JsonNode result : results) {
+            assertEquals(201, result.path("status").asInt());
+            assertTrue(predictionRepository.existsById(result.path("predictionId").asLong()));
+        }
+    }
+
+    private List<JsonNode> postBulk(String body, boolean persist) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        ResponseEntity<String> response = restTemplate.postForEntity("/predictions/bulk?persist=" + persist,
+                new HttpEntity<>(body, headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()));
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private String line(String symptom) {
+        return "{\"userId\": " + userId + ", \"symptomLabels\": [\"" + symptom + "\"]}";
+    }
+
+    private MLPredictionResponseDTO mlResponse() {
+        return MLPredictionResponseDTO.builder()
+                .language("en")
+                .predictions(List.of(MLPredictionResponseDTO.PredictionResult.builder()
+                        .rank(1)
+                        .disease("Migraine")
+                        .disease_en("Migraine")
+                        .probability(70.0)
+                        .specialist("Neurologist")
+                        .specialist_en("Neurologist")
+                        .specialist_probability(70.0)
+                        .description("Test prediction")
+                        .build()))
+                .build();
+    }
+}
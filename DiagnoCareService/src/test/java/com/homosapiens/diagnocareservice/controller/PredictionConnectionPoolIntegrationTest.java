@@ -0,0 +1,158 @@
+package com.homosapiens.diagnocareservice.controller;
+
+import com.homosapiens.diagnocareservice.core.kafka.KafkaProducer;
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
+import com.homosapiens.diagnocareservice.model.entity.Doctor;
+import com.homosapiens.diagnocareservice.model.entity.Pathology;
+import com.homosapiens.diagnocareservice.model.entity.User;
+import com.homosapiens.diagnocareservice.repository.DoctorRepository;
+import com.homosapiens.diagnocareservice.repository.PathologyRepository;
+import com.homosapiens.diagnocareservice.repository.PredictionRepository;
+import com.homosapiens.diagnocareservice.repository.UserRepository;
+import com.homosapiens.diagnocareservice.service.MLPredictionClient;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * More prediction requests than pooled connections wait on a slow ML service at the same time:
+ * none of them may hold a connection during the ML call, so the rest of the API keeps working.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:prediction_pool;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+class PredictionConnectionPoolIntegrationTest {
+
+    // Twice the DB pool, while staying under the HTTP client's default of 5 connections per route
+    private static final int CONCURRENT_PREDICTIONS = 4;
+
+    @MockBean
+    private KafkaProducer kafkaProducer;
+
+    @MockBean
+    private MLPredictionClient mlPredictionClient;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PredictionRepository predictionRepository;
+
+    @Autowired
+    private PathologyRepository pathologyRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void makePrediction_ShouldNotHoldConnections_WhileWaitingOnMlService() throws Exception {
+        User user = new User();
+        user.setFirstName("Pool");
+        user.setLastName("Test");
+        user.setEmail("pool.test@example.com");
+        user.setPhoneNumber("0123456789099");
+        user.setLang("en");
+        user.setIsActive(true);
+        Long userId = userRepository.save(user).getId();
+        seedCatalog();
+        long predictionsBefore = predictionRepository.count();
+
+        CountDownLatch inMlCall = new CountDownLatch(CONCURRENT_PREDICTIONS);
+        CountDownLatch releaseMl = new CountDownLatch(1);
+        when(mlPredictionClient.predict(any(MLPredictionRequestDTO.class))).thenAnswer(invocation -> {
+            inMlCall.countDown();
+            releaseMl.await(20, TimeUnit.SECONDS);
+            return mlResponse();
+        });
+
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_PREDICTIONS);
+        List<CompletableFuture<ResponseEntity<String>>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_PREDICTIONS; i++) {
+                Map<String, Object> body = Map.of("userId", userId, "symptomLabels", List.of("pool_symptom_" + i));
+                calls.add(CompletableFuture.supplyAsync(
+                        () -> restTemplate.postForEntity("/predictions", body, String.class), clients));
+            }
+
+            assertTrue(inMlCall.await(15, TimeUnit.SECONDS), "all requests should reach the ML call");
+
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            assertEquals(0, hikari.getHikariPoolMXBean().getActiveConnections(),
+                    "no connection may be held while the ML service is being called");
+
+            long start = System.nanoTime();
+            ResponseEntity<String> userResponse = restTemplate.getForEntity("/users/" + userId, String.class);
+            assertEquals(HttpStatus.OK, userResponse.getStatusCode());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000,
+                    "other endpoints must not wait for a connection");
+        } finally {
+            releaseMl.countDown();
+        }
+
+        try {
+            for (CompletableFuture<ResponseEntity<String>> call : calls) {
+                assertEquals(HttpStatus.CREATED, call.get(20, TimeUnit.SECONDS).getStatusCode());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(predictionsBefore + CONCURRENT_PREDICTIONS, predictionRepository.count());
+    }
+
+    private void seedCatalog() {
+        if (pathologyRepository.findByPathologyName("Migraine").isEmpty()) {
+            Pathology pathology = new Pathology();
+            pathology.setPathologyName("Migraine");
+            pathologyRepository.save(pathology);
+        }
+        if (doctorRepository.findBySpecialistLabel("Neurologist").isEmpty()) {
+            Doctor doctor = new Doctor();
+            doctor.setSpecialistLabel("Neurologist");
+            doctorRepository.save(doctor);
+        }
+    }
+
+    private MLPredictionResponseDTO mlResponse() {
+        return MLPredictionResponseDTO.builder()
+                .language("en")
+                .predictions(List.of(MLPredictionResponseDTO.PredictionResult.builder()
+                        .rank(1)
+                        .disease("Migraine")
+                        .disease_en("Migraine")
+                        .probability(70.0)
+                        .specialist("Neurologist")
+                        .specialist_en("Neurologist")
+                        .specialist_probability(70.0)
+                        .description("Test prediction")
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,201 @@
+package com.homosapiens.diagnocareservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.core.kafka.KafkaProducer;
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
+import com.homosapiens.diagnocareservice.model.entity.Doctor;
+import com.homosapiens.diagnocareservice.model.entity.Pathology;
+import com.homosapiens.diagnocareservice.model.entity.PredictionJob;
+import com.homosapiens.diagnocareservice.model.entity.User;
+import com.homosapiens.diagnocareservice.model.entity.enums.PredictionJobStatus;
+import com.homosapiens.diagnocareservice.repository.DoctorRepository;
+import com.homosapiens.diagnocareservice.repository.PathologyRepository;
+import com.homosapiens.diagnocareservice.repository.PathologyResultRepository;
+import com.homosapiens.diagnocareservice.repository.PredictionJobRepository;
+import com.homosapiens.diagnocareservice.repository.UserRepository;
+import com.homosapiens.diagnocareservice.service.MLPredictionClient;
+import com.homosapiens.diagnocareservice.service.impl.PredictionJobServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:prediction_jobs;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL"
+})
+class PredictionJobIntegrationTest {
+
+    @MockBean
+    private KafkaProducer kafkaProducer;
+
+    @MockBean
+    private MLPredictionClient mlPredictionClient;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PathologyRepository pathologyRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PathologyResultRepository pathologyResultRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private PredictionJobRepository predictionJobRepository;
+
+    @Autowired
+    private PredictionJobServiceImpl predictionJobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static Long userId;
+
+    @BeforeEach
+    void setUp() {
+        if (userId == null) {
+            User user = new User();
+            user.setFirstName("Job");
+            user.setLastName("Test");
+            user.setEmail("job.test@example.com");
+            user.setPhoneNumber("0123456789088");
+            user.setLang("en");
+            user.setIsActive(true);
+            userId = userRepository.save(user).getId();
+        }
+        if (pathologyRepository.findByPathologyName("Migraine").isEmpty()) {
+            Pathology pathology = new Pathology();
+            pathology.setPathologyName("Migraine");
+            pathologyRepository.save(pathology);
+        }
+        if (doctorRepository.findBySpecialistLabel("Neurologist").isEmpty()) {
+            Doctor doctor = new Doctor();
+            doctor.setSpecialistLabel("Neurologist");
+            doctorRepository.save(doctor);
+        }
+    }
+
+    @Test
+    void submitPredictionJob_ShouldReturnAccepted_AndCompleteInBackground() throws Exception {
+        when(mlPredictionClient.predict(any(MLPredictionRequestDTO.class))).thenReturn(mlResponse());
+
+        ResponseEntity<String> accepted = restTemplate.postForEntity("/predictions/async",
+                Map.of("userId", userId, "symptomLabels", List.of("headache")), String.class);
+
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+        assertNotNull(accepted.getHeaders().getLocation());
+        long jobId = objectMapper.readTree(accepted.getBody()).path("data").path("jobId").asLong();
+
+        JsonNode job = awaitFinished(jobId);
+        assertEquals("COMPLETED", job.path("status").asText());
+        assertEquals("Migraine", job.path("result").path("mlResults").path("predictions").get(0).path("disease").asText());
+        long predictionId = job.path("result").path("prediction").path("id").asLong();
+        assertTrue(predictionId > 0);
+        assertEquals(1, pathologyResultRepository.findByPredictionId(predictionId).size());
+    }
+
+    @Test
+    void submitPredictionJob_ShouldRecordFailure_WhenMlServiceIsDown() throws Exception {
+        when(mlPredictionClient.predict(any(MLPredictionRequestDTO.class)))
+                .thenThrow(new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: down"));
+
+        ResponseEntity<String> accepted = restTemplate.postForEntity("/predictions/async",
+                Map.of("userId", userId, "symptomLabels", List.of("fever")), String.class);
+        long jobId = objectMapper.readTree(accepted.getBody()).path("data").path("jobId").asLong();
+
+        JsonNode job = awaitFinished(jobId);
+        assertEquals("FAILED", job.path("status").asText());
+        assertEquals(503, job.path("errorStatus").asInt());
+    }
+
+    @Test
+    void getPredictionJob_ShouldReturnNotFound_ForUnknownJob() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/predictions/jobs/999999", String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void sweepJobs_ShouldNotFailAJobThatCompletedMeanwhile() {
+        PredictionJob job = new PredictionJob();
+        job.setUserId(userId);
+        job.setRequestPayload("{}");
+        job.setStatus(PredictionJobStatus.RUNNING);
+        job.setAttempts(3);
+        job.setStartedAt(LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MICROS));
+        Long jobId = predictionJobRepository.save(job).getId();
+
+        // The worker of the last attempt commits its result right after the sweeper read the stale job
+        PredictionJob staleSnapshot = predictionJobRepository.findById(jobId).orElseThrow();
+        doAnswer(invocation -> {
+            jdbcTemplate.update("update prediction_jobs set status = 'COMPLETED' where id = ?", jobId);
+            return List.of(staleSnapshot);
+        }).when(predictionJobRepository).findByStatusAndStartedAtBefore(any(), any());
+
+        predictionJobService.sweepJobs();
+
+        PredictionJob swept = predictionJobRepository.findById(jobId).orElseThrow();
+        assertEquals(PredictionJobStatus.COMPLETED, swept.getStatus());
+        assertNull(swept.getErrorStatus());
+    }
+
+    private JsonNode awaitFinished(long jobId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            ResponseEntity<String> response = restTemplate.getForEntity("/predictions/jobs/" + jobId, String.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            JsonNode job = objectMapper.readTree(response.getBody()).path("data");
+            String status = job.path("status").asText();
+            if ("COMPLETED".equals(status) || "FAILED".equals(status)) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        fail("prediction job " + jobId + " did not finish in time");
+        return null;
+    }
+
+    private MLPredictionResponseDTO mlResponse() {
+        return MLPredictionResponseDTO.builder()
+                .language("en")
+                .predictions(List.of(MLPredictionResponseDTO.PredictionResult.builder()
+                        .rank(1)
+                        .disease("Migraine")
+                        .disease_en("Migraine")
+                        .probability(70.0)
+                        .specialist("Neurologist")
+                        .specialist_en("Neurologist")
+                        .specialist_probability(70.0)
+                        .description("Test prediction")
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.homosapiens.diagnocareservice.core.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutExecutorTest {
+
+    @Test
+    void submit_ShouldRunReadsConcurrently() {
+        try (FanOutExecutor executor = new FanOutExecutor("test-read", 4, 4, true)) {
+            long start = System.nanoTime();
+            List<CompletableFuture<Integer>> reads = IntStream.range(0, 3)
+                    .mapToObj(i -> executor.submit(() -> {
+                        sleepQuietly(200);
+                        return i;
+                    }))
+                    .toList();
+
+            assertEquals(List.of(0, 1, 2), reads.stream().map(CompletableFuture::join).toList());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500,
+                    "three 200 ms reads should overlap");
+        }
+    }
+
+    @Test
+    void submit_ShouldRunOnCaller_WhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (FanOutExecutor executor = new FanOutExecutor("test-read", 1, 1, false)) {
+            executor.submit(() -> awaitQuietly(release));
+            executor.submit(() -> awaitQuietly(release));
+
+            String caller = Thread.currentThread().getName();
+            assertEquals(caller, executor.submit(() -> Thread.currentThread().getName()).get(1, TimeUnit.SECONDS));
+            assertEquals(1L, executor.snapshot().get("ranOnCaller"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void submit_ShouldSurfaceFailures() {
+        try (FanOutExecutor executor = new FanOutExecutor("test-read", 2, 2, false)) {
+            CompletableFuture<Object> read = executor.submit(() -> {
+                throw new IllegalStateException("boom");
+            });
+
+            assertInstanceOf(IllegalStateException.class,
+                    assertThrows(Exception.class, read::join).getCause());
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MLCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void shouldOpen_WhenFailureRateReachesThreshold() {
+        MLCircuitBreaker breaker = new MLCircuitBreaker("predict", 10, 4, 50, 5_000, 2, now::get);
+
+        call(breaker, true);
+        call(breaker, false);
+        call(breaker, true);
+        assertEquals(MLCircuitBreaker.State.CLOSED, breaker.getState(), "below minimum calls");
+
+        call(breaker, false);
+        assertEquals(MLCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void shouldStayClosed_WhenFailureRateStaysBelowThreshold() {
+        MLCircuitBreaker breaker = new MLCircuitBreaker("predict", 4, 4, 75, 5_000, 1, now::get);
+
+        call(breaker, true);
+        call(breaker, true);
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, true);
+
+        assertEquals(MLCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldProbeAfterOpenDuration_AndCloseWhenProbesSucceed() {
+        MLCircuitBreaker breaker = openBreaker();
+
+        now.addAndGet(5_000);
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission(), "only the configured number of probes may run");
+        assertEquals(MLCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(MLCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldReopen_WhenProbeFails() {
+        MLCircuitBreaker breaker = openBreaker();
+
+        now.addAndGet(5_000);
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+
+        assertEquals(MLCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(2L, breaker.snapshot().get("timesOpened"));
+    }
+
+    @Test
+    void transport_ShouldFailFast_OnceBreakerIsOpen() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("ml.resilience.minimum-calls", "2")
+                .withProperty("ml.resilience.sliding-window-size", "2")
+                .withProperty("ml.resilience.open-duration-ms", "60000");
+        MLHttpTransport transport = new MLHttpTransport(environment);
+        try {
+            RestTemplate restTemplate = new RestTemplate(transport.getRequestFactory());
+            String url = "http://localhost:" + port + "/predict";
+            for (int i = 0; i < 2; i++) {
+                assertThrows(ResourceAccessException.class, () -> restTemplate.postForEntity(url, "{}", String.class));
+            }
+            assertEquals(MLCircuitBreaker.State.OPEN, transport.getCircuitState(MLEndpoint.PREDICT));
+            assertEquals(MLCircuitBreaker.State.CLOSED, transport.getCircuitState(MLEndpoint.TRANSLATE));
+
+            long start = System.nanoTime();
+            ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                    () -> restTemplate.postForEntity(url, "{}", String.class));
+            assertInstanceOf(MLCallRejectedException.class, rejected.getCause());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    @Test
+    void transport_ShouldHoldBulkheadPermit_UntilResponseBodyIsClosed() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/predict", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        MLHttpTransport transport = new MLHttpTransport(new MockEnvironment()
+                .withProperty("ml.resilience.max-concurrent-calls", "1"));
+        try {
+            RestTemplate restTemplate = new RestTemplate(transport.getRequestFactory());
+            String url = "http://localhost:" + server.getAddress().getPort() + "/predict";
+
+            // Headers are in, the body is still being read: the permit is not free yet
+            ResourceAccessException rejected = restTemplate.execute(url, HttpMethod.POST, null,
+                    response -> assertThrows(ResourceAccessException.class,
+                            () -> restTemplate.postForEntity(url, "{}", String.class)));
+            assertInstanceOf(MLCallRejectedException.class, rejected.getCause());
+
+            assertEquals("{}", restTemplate.postForEntity(url, "{}", String.class).getBody());
+        } finally {
+            transport.shutdown();
+            server.stop(0);
+        }
+    }
+
+    private MLCircuitBreaker openBreaker() {
+        MLCircuitBreaker breaker = new MLCircuitBreaker("predict", 2, 2, 50, 5_000, 2, now::get);
+        call(breaker, true);
+        call(breaker, true);
+        assertEquals(MLCircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private void call(MLCircuitBreaker breaker, boolean fails) {
+        assertTrue(breaker.tryAcquirePermission());
+        if (fails) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
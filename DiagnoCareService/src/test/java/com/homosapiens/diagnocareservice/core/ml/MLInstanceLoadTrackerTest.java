@@ -0,0 +1,169 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MLInstanceLoadTrackerTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private final ServiceInstance fast = instance("ml-1");
+    private final ServiceInstance slow = instance("ml-2");
+    private final ServiceInstance other = instance("ml-3");
+
+    private MLInstanceLoadTracker tracker(int maxEjectionPercent) {
+        return new MLInstanceLoadTracker(true, 0.5, 3, 3.0, 5, 30_000, 300_000, maxEjectionPercent, now::get);
+    }
+
+    @Test
+    void choose_ShouldPreferLowerLatencyAndLessLoadedInstance() {
+        MLInstanceLoadTracker tracker = tracker(50);
+        List<ServiceInstance> instances = List.of(fast, slow);
+        tracker.choose(instances);
+        call(tracker, fast, 20, true);
+        call(tracker, slow, 40, true);
+
+        for (int i = 0; i < 20; i++) {
+            assertSame(fast, tracker.choose(instances));
+        }
+
+        // Three calls in flight on the faster instance outweigh its lower latency
+        tracker.onStart(fast);
+        tracker.onStart(fast);
+        tracker.onStart(fast);
+        assertSame(slow, tracker.choose(instances));
+    }
+
+    @Test
+    void onComplete_ShouldEjectAfterConsecutiveFailures_AndReturnAfterWindow() {
+        MLInstanceLoadTracker tracker = tracker(50);
+        List<ServiceInstance> instances = List.of(fast, slow);
+        tracker.choose(instances);
+
+        for (int i = 0; i < 3; i++) {
+            call(tracker, slow, 5, false);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertSame(fast, tracker.choose(instances));
+        }
+        assertEquals(1L, tracker.snapshot().get("failureEjections"));
+
+        now.addAndGet(30_001);
+        tracker.choose(instances);
+        assertEquals(false, instanceSnapshot(tracker, "ml-2").get("ejected"));
+        assertEquals(0, instanceSnapshot(tracker, "ml-2").get("consecutiveFailures"));
+    }
+
+    @Test
+    void onComplete_ShouldIgnoreLocallyRejectedCalls() {
+        MLInstanceLoadTracker tracker = tracker(50);
+        tracker.choose(List.of(fast, slow));
+
+        for (int i = 0; i < 5; i++) {
+            tracker.onStart(slow);
+            tracker.onComplete(slow, 0, false, true);
+        }
+
+        assertEquals(0L, tracker.snapshot().get("failureEjections"));
+        assertEquals(0, instanceSnapshot(tracker, "ml-2").get("inFlight"));
+    }
+
+    @Test
+    void onComplete_ShouldEjectLatencyOutlier() {
+        MLInstanceLoadTracker tracker = tracker(50);
+        tracker.choose(List.of(fast, slow, other));
+        for (int i = 0; i < 5; i++) {
+            call(tracker, fast, 10, true);
+            call(tracker, other, 12, true);
+        }
+        for (int i = 0; i < 5; i++) {
+            call(tracker, slow, 100, true);
+        }
+
+        assertEquals(1L, tracker.snapshot().get("latencyEjections"));
+        assertEquals(true, instanceSnapshot(tracker, "ml-2").get("ejected"));
+    }
+
+    @Test
+    void onComplete_ShouldDoubleEjectionOfRepeatLatencyOutlier_UntilACleanPeriod() {
+        MLInstanceLoadTracker tracker = tracker(50);
+        List<ServiceInstance> instances = List.of(fast, slow, other);
+        tracker.choose(instances);
+        for (int i = 0; i < 5; i++) {
+            call(tracker, fast, 10, true);
+            call(tracker, other, 12, true);
+        }
+        for (int i = 0; i < 5; i++) {
+            call(tracker, slow, 100, true);
+        }
+        assertEquals(30_000L, instanceSnapshot(tracker, "ml-2").get("ejectedForMs"));
+
+        // Still slow when it comes back: the successes in between do not reset the streak
+        now.addAndGet(30_001);
+        tracker.choose(instances);
+        for (int i = 0; i < 5; i++) {
+            call(tracker, slow, 100, true);
+        }
+        assertEquals(60_000L, instanceSnapshot(tracker, "ml-2").get("ejectedForMs"));
+
+        // Fast again for min-samples checked calls: the next ejection starts from the base duration
+        now.addAndGet(60_001);
+        tracker.choose(instances);
+        for (int i = 0; i < 9; i++) {
+            call(tracker, slow, 11, true);
+        }
+        assertEquals(0, instanceSnapshot(tracker, "ml-2").get("ejectionStreak"));
+    }
+
+    @Test
+    void choose_ShouldForgetInstancesNoLongerDiscovered() {
+        MLInstanceLoadTracker tracker = tracker(50);
+        tracker.choose(List.of(fast, slow, other));
+        assertEquals(3, tracker.trackedInstances());
+
+        now.addAndGet(11 * 60_000);
+        tracker.choose(List.of(fast));
+
+        assertEquals(1, tracker.trackedInstances());
+    }
+
+    @Test
+    void eject_ShouldRespectMaxEjectionPercent() {
+        MLInstanceLoadTracker tracker = tracker(50);
+        List<ServiceInstance> instances = List.of(fast, slow);
+        tracker.choose(instances);
+
+        for (int i = 0; i < 3; i++) {
+            call(tracker, slow, 5, false);
+            call(tracker, fast, 5, false);
+        }
+
+        assertEquals(1L, tracker.snapshot().get("failureEjections"));
+        assertEquals(1L, tracker.snapshot().get("ejectionsSkippedByMaxPercent"));
+        assertEquals(false, instanceSnapshot(tracker, "ml-1").get("ejected"));
+    }
+
+    private static void call(MLInstanceLoadTracker tracker, ServiceInstance instance, long millis, boolean success) {
+        tracker.onStart(instance);
+        tracker.onComplete(instance, millis * MILLIS, success, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> instanceSnapshot(MLInstanceLoadTracker tracker, String id) {
+        return ((Map<String, Map<String, Object>>) tracker.snapshot().get("instances")).get(id);
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "ml-prediction-service", id, 5000, false);
+    }
+}
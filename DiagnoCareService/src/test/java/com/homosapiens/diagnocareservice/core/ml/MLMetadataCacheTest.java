@@ -0,0 +1,93 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.dto.MLFeaturesMetadataDTO;
+import com.homosapiens.diagnocareservice.service.MLPredictionClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class MLMetadataCacheTest {
+
+    private final MLPredictionClient client = mock(MLPredictionClient.class);
+    private final MLMetadataCache cache = new MLMetadataCache(client, new ObjectMapper());
+
+    @Test
+    void shouldServeSnapshot_WithoutCallingMlServiceAgain() {
+        when(client.fetchFeaturesMetadata(isNull())).thenReturn(ok(features("en", "fr"), "\"v1\""));
+
+        MLMetadataCache.Snapshot<MLFeaturesMetadataDTO> first = cache.getFeaturesMetadata();
+        MLMetadataCache.Snapshot<MLFeaturesMetadataDTO> second = cache.getFeaturesMetadata();
+
+        assertSame(first, second);
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""), "strong ETag must be quoted");
+        verify(client, times(1)).fetchFeaturesMetadata(any());
+    }
+
+    @Test
+    void refresh_ShouldRevalidateWithUpstreamEtag_AndKeepSnapshotOn304() {
+        when(client.fetchFeaturesMetadata(isNull())).thenReturn(ok(features("en"), "\"v1\""));
+        when(client.fetchFeaturesMetadata("\"v1\"")).thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        MLMetadataCache.Snapshot<MLFeaturesMetadataDTO> loaded = cache.getFeaturesMetadata();
+
+        cache.refresh();
+
+        assertSame(loaded, cache.getFeaturesMetadata());
+        verify(client).fetchFeaturesMetadata("\"v1\"");
+    }
+
+    @Test
+    void refresh_ShouldChangeEtag_WhenMetadataChanges() {
+        when(client.fetchFeaturesMetadata(isNull())).thenReturn(ok(features("en"), "\"v1\""));
+        when(client.fetchFeaturesMetadata("\"v1\"")).thenReturn(ok(features("en", "fr"), "\"v2\""));
+        String before = cache.getFeaturesMetadata().etag();
+
+        cache.refresh();
+
+        MLMetadataCache.Snapshot<MLFeaturesMetadataDTO> after = cache.getFeaturesMetadata();
+        assertNotEquals(before, after.etag());
+        assertEquals(List.of("en", "fr"), after.body().getLanguages());
+    }
+
+    @Test
+    void refresh_ShouldKeepServingStaleSnapshot_WhenMlServiceFails() {
+        when(client.fetchFeaturesMetadata(isNull())).thenReturn(ok(features("en"), "\"v1\""));
+        when(client.fetchFeaturesMetadata("\"v1\""))
+                .thenThrow(new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: down"));
+        MLMetadataCache.Snapshot<MLFeaturesMetadataDTO> loaded = cache.getFeaturesMetadata();
+
+        cache.refresh();
+
+        assertSame(loaded, cache.getFeaturesMetadata());
+        @SuppressWarnings("unchecked")
+        var stats = (java.util.Map<String, Object>) cache.snapshot().get("features");
+        assertEquals(1L, stats.get("failures"));
+    }
+
+    @Test
+    void get_ShouldFail_WhenNothingWasEverLoaded() {
+        when(client.fetchFeaturesMetadata(isNull()))
+                .thenThrow(new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: down"));
+
+        AppException error = assertThrows(AppException.class, cache::getFeaturesMetadata);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatus());
+    }
+
+    private static MLFeaturesMetadataDTO features(String... languages) {
+        MLFeaturesMetadataDTO dto = new MLFeaturesMetadataDTO();
+        dto.setLanguages(List.of(languages));
+        return dto;
+    }
+
+    private static <T> ResponseEntity<T> ok(T body, String etag) {
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+}
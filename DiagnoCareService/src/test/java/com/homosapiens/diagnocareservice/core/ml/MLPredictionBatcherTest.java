@@ -0,0 +1,182 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.homosapiens.diagnocareservice.controller.MLStubController;
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.dto.MLPredictionBatchRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionBatchResponseDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MLPredictionBatcherTest {
+
+    private final MLStubController stub = new MLStubController();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private MLPredictionBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    void submit_ShouldCoalesceConcurrentCalls_AndFanOutMatchingResponses() throws Exception {
+        batcher = new MLPredictionBatcher(8, 200, 64, 2, stubSender());
+        int callers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<MLPredictionResponseDTO>> futures = new ArrayList<>();
+        List<MLPredictionResponseDTO> expected = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                MLPredictionRequestDTO request = request("symptom_" + i);
+                expected.add(stub.predict(request).getBody() instanceof MLPredictionResponseDTO r ? r : null);
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    awaitQuietly(start);
+                    return batcher.submit(request).join();
+                }, pool));
+            }
+            start.countDown();
+
+            for (int i = 0; i < callers; i++) {
+                MLPredictionResponseDTO actual = futures.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(expected.get(i).getPredictions().get(0).getDisease(),
+                        actual.getPredictions().get(0).getDisease());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(batchSizes.size() < callers, "calls should have been coalesced, batches: " + batchSizes);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 8), "batch size exceeded: " + batchSizes);
+        assertEquals(callers, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void submit_ShouldFlushPartialBatch_AfterMaxWait() throws Exception {
+        batcher = new MLPredictionBatcher(50, 20, 64, 1, stubSender());
+
+        MLPredictionResponseDTO response = batcher.submit(request("headache")).get(2, TimeUnit.SECONDS);
+
+        assertNotNull(response);
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    void submit_ShouldFailOnlyRejectedItem_WhenBatchItemHasError() {
+        batcher = new MLPredictionBatcher(2, 500, 64, 1, stubSender());
+
+        CompletableFuture<MLPredictionResponseDTO> valid = batcher.submit(request("cough"));
+        CompletableFuture<MLPredictionResponseDTO> invalid = batcher.submit(MLPredictionRequestDTO.builder()
+                .symptoms(List.of()).language("fr").build());
+
+        assertNotNull(valid.join());
+        CompletionException error = assertThrows(CompletionException.class, invalid::join);
+        assertInstanceOf(AppException.class, error.getCause());
+    }
+
+    @Test
+    void submit_ShouldFailWholeBatch_WhenSenderThrows() {
+        batcher = new MLPredictionBatcher(2, 500, 64, 1, requests -> {
+            throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: down");
+        });
+
+        CompletableFuture<MLPredictionResponseDTO> first = batcher.submit(request("cough"));
+        CompletableFuture<MLPredictionResponseDTO> second = batcher.submit(request("fever"));
+
+        for (CompletableFuture<MLPredictionResponseDTO> future : List.of(first, second)) {
+            CompletionException error = assertThrows(CompletionException.class, future::join);
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((AppException) error.getCause()).getStatus());
+        }
+    }
+
+    @Test
+    void submit_ShouldReturnNull_WhenQueueIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = new MLPredictionBatcher(1, 0, 1, 1, requests -> {
+            awaitQuietly(release);
+            return stubSender().apply(requests);
+        });
+        try {
+            List<CompletableFuture<MLPredictionResponseDTO>> accepted = new ArrayList<>();
+            CompletableFuture<MLPredictionResponseDTO> future;
+            int attempts = 0;
+            while ((future = batcher.submit(request("cough"))) != null && attempts++ < 100) {
+                accepted.add(future);
+            }
+
+            assertNull(future);
+            assertTrue((Long) batcher.snapshot().get("rejectedQueueFull") >= 1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void close_ShouldFailRequestsHeldByTheDispatcher() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = new MLPredictionBatcher(1, 0, 8, 1, requests -> {
+            awaitQuietly(release);
+            return stubSender().apply(requests);
+        });
+        try {
+            CompletableFuture<MLPredictionResponseDTO> sending = batcher.submit(request("cough"));
+            CompletableFuture<MLPredictionResponseDTO> waitingForSlot = batcher.submit(request("fever"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while ((Integer) batcher.snapshot().get("queued") > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            batcher.close();
+
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> waitingForSlot.orTimeout(2, TimeUnit.SECONDS).join());
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((AppException) error.getCause()).getStatus());
+            release.countDown();
+            assertNotNull(sending.get(2, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private Function<List<MLPredictionRequestDTO>, List<MLPredictionBatchResponseDTO.Item>> stubSender() {
+        return requests -> {
+            batchSizes.add(requests.size());
+            Object body = stub.predictBatch(MLPredictionBatchRequestDTO.builder().requests(requests).build()).getBody();
+            return ((MLPredictionBatchResponseDTO) body).getResults();
+        };
+    }
+
+    private MLPredictionRequestDTO request(String symptom) {
+        return MLPredictionRequestDTO.builder()
+                .symptoms(List.of(symptom))
+                .age(35)
+                .language("en")
+                .build();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MLPredictionCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+
+    @Test
+    void get_ShouldHit_WhenSymptomsDifferOnlyInOrderAndCase() {
+        MLPredictionCache cache = new MLPredictionCache(true, 10, 60_000, now::get);
+        cache.put(request(List.of("headache", "High_Fever"), "fr"), response("Malaria", "v1"));
+
+        MLPredictionResponseDTO cached = cache.get(request(List.of("high_fever", " Headache"), "fr"));
+
+        assertNotNull(cached);
+        assertEquals("Malaria", cached.getPredictions().get(0).getDisease());
+    }
+
+    @Test
+    void get_ShouldMiss_WhenLanguageOrBinnedFieldDiffers() {
+        MLPredictionCache cache = new MLPredictionCache(true, 10, 60_000, now::get);
+        cache.put(request(List.of("headache"), "fr"), response("Migraine", "v1"));
+
+        assertNull(cache.get(request(List.of("headache"), "en")));
+
+        MLPredictionRequestDTO highPressure = request(List.of("headache"), "fr");
+        highPressure.setBlood_pressure("High");
+        assertNull(cache.get(highPressure));
+    }
+
+    @Test
+    void get_ShouldReturnCopy_SoCallersCannotCorruptCache() {
+        MLPredictionCache cache = new MLPredictionCache(true, 10, 60_000, now::get);
+        cache.put(request(List.of("cough"), "fr"), response("Pneumonia", "v1"));
+
+        cache.get(request(List.of("cough"), "fr")).getPredictions().get(0).setDisease("changed");
+
+        assertEquals("Pneumonia", cache.get(request(List.of("cough"), "fr")).getPredictions().get(0).getDisease());
+    }
+
+    @Test
+    void get_ShouldMiss_WhenEntryExpired() {
+        MLPredictionCache cache = new MLPredictionCache(true, 10, 1_000, now::get);
+        cache.put(request(List.of("cough"), "fr"), response("Pneumonia", "v1"));
+
+        now.addAndGet(1_001);
+
+        assertNull(cache.get(request(List.of("cough"), "fr")));
+        assertEquals(1L, cache.snapshot().get("expirations"));
+    }
+
+    @Test
+    void put_ShouldEvictLeastRecentlyUsed_WhenFull() {
+        MLPredictionCache cache = new MLPredictionCache(true, 2, 60_000, now::get);
+        cache.put(request(List.of("a"), "fr"), response("A", "v1"));
+        cache.put(request(List.of("b"), "fr"), response("B", "v1"));
+        cache.get(request(List.of("a"), "fr"));
+
+        cache.put(request(List.of("c"), "fr"), response("C", "v1"));
+
+        assertNotNull(cache.get(request(List.of("a"), "fr")));
+        assertNull(cache.get(request(List.of("b"), "fr")));
+        assertNotNull(cache.get(request(List.of("c"), "fr")));
+        assertEquals(1L, cache.snapshot().get("evictions"));
+    }
+
+    @Test
+    void onModelVersion_ShouldInvalidateEntries_WhenVersionChanges() {
+        MLPredictionCache cache = new MLPredictionCache(true, 10, 60_000, now::get);
+        cache.put(request(List.of("cough"), "fr"), response("Pneumonia", "v1"));
+
+        cache.onModelVersion("v1");
+        assertNotNull(cache.get(request(List.of("cough"), "fr")));
+
+        cache.onModelVersion("v2");
+        assertNull(cache.get(request(List.of("cough"), "fr")));
+        assertEquals("v2", cache.snapshot().get("modelVersion"));
+    }
+
+    @Test
+    void onModelVersion_ShouldNotFlushAgain_WhenReplicasReportAlreadySeenVersions() {
+        MLPredictionCache cache = new MLPredictionCache(true, 10, 60_000, now::get);
+        cache.onModelVersion("v1");
+        cache.onModelVersion("v2");
+        cache.put(request(List.of("cough"), "fr"), response("Pneumonia", "v2"));
+
+        // Rolling deploy: responses alternate between replicas on the old and the new model
+        cache.onModelVersion("v1");
+        cache.onModelVersion("v2");
+
+        assertNotNull(cache.get(request(List.of("cough"), "fr")));
+        assertEquals(1L, cache.snapshot().get("invalidations"));
+    }
+
+    @Test
+    void get_ShouldAlwaysMiss_WhenDisabled() {
+        MLPredictionCache cache = new MLPredictionCache(false, 10, 60_000, now::get);
+        cache.put(request(List.of("cough"), "fr"), response("Pneumonia", "v1"));
+
+        assertNull(cache.get(request(List.of("cough"), "fr")));
+    }
+
+    private MLPredictionRequestDTO request(List<String> symptoms, String language) {
+        return MLPredictionRequestDTO.builder()
+                .symptoms(symptoms)
+                .age(35)
+                .weight(75.0f)
+                .bmi(24.2f)
+                .gender("Male")
+                .blood_pressure("Normal")
+                .cholesterol_level("Normal")
+                .outcome_variable("Negative")
+                .smoking("No")
+                .language(language)
+                .build();
+    }
+
+    private MLPredictionResponseDTO response(String disease, String modelVersion) {
+        return MLPredictionResponseDTO.builder()
+                .predictions(List.of(MLPredictionResponseDTO.PredictionResult.builder()
+                        .rank(1)
+                        .disease(disease)
+                        .probability(80.0)
+                        .build()))
+                .language("fr")
+                .metadata(MLPredictionResponseDTO.Metadata.builder()
+                        .symptoms_count(1)
+                        .model_version(modelVersion)
+                        .build())
+                .build();
+    }
+}
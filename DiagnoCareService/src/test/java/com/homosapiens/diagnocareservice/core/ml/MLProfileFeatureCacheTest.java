@@ -0,0 +1,75 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.homosapiens.diagnocareservice.model.entity.PatientMedicalProfile;
+import com.homosapiens.diagnocareservice.model.entity.enums.GenderEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MLProfileFeatureCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+
+    @Test
+    void get_ShouldReturnSameFeatures_WhenEntriesAreSealed() {
+        MLProfileFeatureCache cache = new MLProfileFeatureCache(true, 10, 60_000, true, now::get);
+        MLProfileFeatures features = MLProfileFeatures.of(profile());
+
+        cache.put(1L, features, cache.version());
+
+        assertEquals(features, cache.get(1L));
+        assertEquals(true, cache.snapshot().get("encryptedInMemory"));
+    }
+
+    @Test
+    void put_ShouldBeDropped_WhenProfileWrittenDuringLoad() {
+        MLProfileFeatureCache cache = new MLProfileFeatureCache(true, 10, 60_000, false, now::get);
+        long version = cache.version();
+
+        cache.invalidate(1L);
+        cache.put(1L, MLProfileFeatures.DEFAULTS, version);
+
+        assertNull(cache.get(1L));
+        cache.put(1L, MLProfileFeatures.DEFAULTS, cache.version());
+        assertEquals(MLProfileFeatures.DEFAULTS, cache.get(1L));
+    }
+
+    @Test
+    void get_ShouldMiss_WhenEntryExpired() {
+        MLProfileFeatureCache cache = new MLProfileFeatureCache(true, 10, 60_000, true, now::get);
+        cache.put(1L, MLProfileFeatures.DEFAULTS, cache.version());
+
+        now.addAndGet(60_001);
+
+        assertNull(cache.get(1L));
+        assertEquals(1L, cache.snapshot().get("expirations"));
+    }
+
+    @Test
+    void of_ShouldBinProfileLikeTheModelExpects() {
+        MLProfileFeatures features = MLProfileFeatures.of(profile());
+
+        assertEquals("Female", features.gender());
+        assertEquals("High", features.bloodPressure());
+        assertEquals("Low", features.cholesterolLevel());
+        assertEquals("Yes", features.smoking());
+        assertEquals("Yes", features.familyHistory());
+        assertEquals(27f, features.bmi());
+    }
+
+    private static PatientMedicalProfile profile() {
+        PatientMedicalProfile profile = new PatientMedicalProfile();
+        profile.setAge(52);
+        profile.setWeight(68f);
+        profile.setBmi(27);
+        profile.setGender(GenderEnum.FEMALE);
+        profile.setMeanBloodPressure(150f);
+        profile.setMeanCholesterol(160f);
+        profile.setIsSmoking(true);
+        profile.setFamilyAntecedents(Set.of("diabetes"));
+        return profile;
+    }
+}
@@ -0,0 +1,125 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MLRequestHedgerTest {
+
+    private MLRequestHedger hedger;
+
+    @AfterEach
+    void tearDown() {
+        if (hedger != null) {
+            hedger.close();
+        }
+    }
+
+    @Test
+    void execute_ShouldNotHedge_WhenFirstAttemptIsFast() {
+        hedger = new MLRequestHedger(95, 50, 1_000, 200, 5, 50, 100, 4);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertEquals("ok", hedger.execute(() -> {
+            attempts.incrementAndGet();
+            return "ok";
+        }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(0L, hedger.snapshot().get("hedgesSent"));
+    }
+
+    @Test
+    void execute_ShouldReturnHedgeResult_WhenFirstAttemptStalls() {
+        hedger = new MLRequestHedger(95, 10, 1_000, 50, 5, 50, 100, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        try {
+            long start = System.nanoTime();
+            String result = hedger.execute(() -> {
+                if (attempts.incrementAndGet() == 1) {
+                    awaitQuietly(release);
+                    return "slow";
+                }
+                return "hedge";
+            });
+
+            assertEquals("hedge", result);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+            assertEquals(1L, hedger.snapshot().get("hedgesSent"));
+            assertEquals(1L, hedger.snapshot().get("hedgesWon"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void execute_ShouldWaitForFirstAttempt_WhenBudgetIsExhausted() {
+        // 0% budget still allows the initial burst token, then no more hedges
+        hedger = new MLRequestHedger(95, 10, 1_000, 10, 5, 50, 0, 4);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            hedger.execute(() -> {
+                attempts.incrementAndGet();
+                sleepQuietly(40);
+                return "slow";
+            });
+        }
+
+        assertEquals(1L, hedger.snapshot().get("hedgesSent"));
+        assertEquals(2L, hedger.snapshot().get("hedgesSkippedBudget"));
+        assertEquals(4, attempts.get());
+    }
+
+    @Test
+    void execute_ShouldFail_OnlyWhenBothAttemptsFail() {
+        hedger = new MLRequestHedger(95, 10, 1_000, 10, 5, 50, 100, 4);
+
+        AppException error = assertThrows(AppException.class, () -> hedger.execute(() -> {
+            sleepQuietly(30);
+            throw new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML service is unavailable: down");
+        }));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, error.getStatus());
+        assertEquals(1L, hedger.snapshot().get("hedgesSent"));
+    }
+
+    @Test
+    void hedgeDelay_ShouldFollowObservedPercentile() {
+        hedger = new MLRequestHedger(50, 1, 1_000, 500, 5, 50, 100, 4);
+
+        for (int i = 0; i < 5; i++) {
+            hedger.execute(() -> {
+                sleepQuietly(20);
+                return "ok";
+            });
+        }
+
+        long delay = hedger.getHedgeDelayMs();
+        assertTrue(delay >= 20 && delay < 500, "delay should track observed latency, was " + delay);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
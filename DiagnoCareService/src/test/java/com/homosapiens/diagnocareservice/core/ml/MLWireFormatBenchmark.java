@@ -0,0 +1,172 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homosapiens.diagnocareservice.dto.MLPredictionRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLPredictionResponseDTO;
+import com.homosapiens.diagnocareservice.dto.MLTranslationRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLTranslationResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bytes on the wire and encode+decode time of typical ML payloads per format. Not part of the
+ * regular test run (the name does not match the Surefire includes); run it explicitly, with the
+ * Smile codec on the classpath for the Smile row:
+ * <pre>mvn -Pbinary-wire test -Dtest=MLWireFormatBenchmark</pre>
+ */
+class MLWireFormatBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+
+    @Test
+    void compareFormats() throws Exception {
+        Map<String, Codec> codecs = new LinkedHashMap<>();
+        ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+        codecs.put("json", new Codec(json, false));
+        codecs.put("json+gzip", new Codec(json, true));
+        addBinaryCodec(codecs, "cbor", "com.fasterxml.jackson.dataformat.cbor.CBORFactory");
+        addBinaryCodec(codecs, "smile", "com.fasterxml.jackson.dataformat.smile.SmileFactory");
+
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("predict request", predictRequest());
+        payloads.put("predict response", predictResponse());
+        payloads.put("translate request", translateRequest());
+        payloads.put("translate response", translateResponse());
+
+        System.out.printf("%-20s %-10s %8s %14s%n", "payload", "format", "bytes", "encode+decode");
+        for (Map.Entry<String, Object> payload : payloads.entrySet()) {
+            for (Map.Entry<String, Codec> codec : codecs.entrySet()) {
+                Object value = payload.getValue();
+                byte[] encoded = codec.getValue().encode(value);
+                assertEquals(value, codec.getValue().decode(encoded, value.getClass()));
+
+                run(codec.getValue(), value, WARMUP_ITERATIONS);
+                long start = System.nanoTime();
+                run(codec.getValue(), value, MEASURED_ITERATIONS);
+                double micros = (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+
+                System.out.printf("%-20s %-10s %8d %11.2f us%n", payload.getKey(), codec.getKey(), encoded.length, micros);
+            }
+        }
+    }
+
+    private static void run(Codec codec, Object value, int iterations) throws IOException {
+        for (int i = 0; i < iterations; i++) {
+            codec.decode(codec.encode(value), value.getClass());
+        }
+    }
+
+    private static void addBinaryCodec(Map<String, Codec> codecs, String name, String factoryClass) {
+        try {
+            JsonFactory factory = (JsonFactory) Class.forName(factoryClass).getDeclaredConstructor().newInstance();
+            codecs.put(name, new Codec(new ObjectMapper(factory).findAndRegisterModules(), false));
+        } catch (ReflectiveOperationException e) {
+            System.out.printf("%s codec not on the classpath (build with -Pbinary-wire), skipped%n", name);
+        }
+    }
+
+    private static MLPredictionRequestDTO predictRequest() {
+        MLProfileFeatures profile = new MLProfileFeatures(52, 81.5f, 27.4f, 138f, 228f,
+                "Male", "Normal", "High", "Yes", "Moderate", "High", "Yes");
+        return profile.applyTo(MLPredictionRequestDTO.builder())
+                .symptoms(List.of("chest_pain", "breathlessness", "sweating", "fatigue", "dizziness", "palpitations"))
+                .outcome_variable("Negative")
+                .language("fr")
+                .build();
+    }
+
+    private static MLPredictionResponseDTO predictResponse() {
+        String[][] diseases = {
+                {"Heart attack", "Crise cardiaque", "Cardiologist", "Cardiologue"},
+                {"Hypertension", "Hypertension", "Cardiologist", "Cardiologue"},
+                {"Bronchial Asthma", "Asthme bronchique", "Pulmonologist", "Pneumologue"},
+                {"Hypoglycemia", "Hypoglycémie", "Endocrinologist", "Endocrinologue"},
+                {"GERD", "Reflux gastro-oesophagien", "Gastroenterologist", "Gastro-entérologue"}};
+        List<MLPredictionResponseDTO.PredictionResult> predictions = new ArrayList<>();
+        for (int i = 0; i < diseases.length; i++) {
+            predictions.add(MLPredictionResponseDTO.PredictionResult.builder()
+                    .rank(i + 1)
+                    .disease(diseases[i][0])
+                    .disease_fr(diseases[i][1])
+                    .probability(61.37 / (i + 1))
+                    .specialist(diseases[i][2])
+                    .specialist_fr(diseases[i][3])
+                    .specialist_probability(74.12 / (i + 1))
+                    .description("Les symptômes rapportés et le profil du patient sont compatibles avec "
+                            + diseases[i][1].toLowerCase() + ". Une consultation rapide est recommandée.")
+                    .build());
+        }
+        Map<String, String> profileUsed = new LinkedHashMap<>();
+        profileUsed.put("age", "52");
+        profileUsed.put("gender", "Male");
+        profileUsed.put("blood_pressure", "Normal");
+        profileUsed.put("cholesterol_level", "High");
+        return MLPredictionResponseDTO.builder()
+                .predictions(predictions)
+                .language("fr")
+                .metadata(MLPredictionResponseDTO.Metadata.builder()
+                        .symptoms_count(6)
+                        .profile_used(profileUsed)
+                        .model_version("3f9a1c27e4b0d8a5")
+                        .build())
+                .build();
+    }
+
+    private static MLTranslationRequestDTO translateRequest() {
+        return MLTranslationRequestDTO.builder()
+                .language("fr")
+                .symptoms(List.of("chest_pain", "breathlessness", "sweating", "fatigue", "dizziness",
+                        "palpitations", "headache", "nausea", "high_fever", "vomiting"))
+                .diseases(List.of("Heart attack", "Hypertension", "Bronchial Asthma", "Hypoglycemia", "GERD"))
+                .specialists(List.of("Cardiologist", "Pulmonologist", "Endocrinologist", "Gastroenterologist"))
+                .build();
+    }
+
+    private static MLTranslationResponseDTO translateResponse() {
+        return MLTranslationResponseDTO.builder()
+                .language("fr")
+                .symptoms(List.of("douleur thoracique", "essoufflement", "transpiration", "fatigue", "vertiges",
+                        "palpitations", "mal de tête", "nausée", "forte fièvre", "vomissements"))
+                .diseases(List.of("Crise cardiaque", "Hypertension", "Asthme bronchique", "Hypoglycémie",
+                        "Reflux gastro-oesophagien"))
+                .specialists(List.of("Cardiologue", "Pneumologue", "Endocrinologue", "Gastro-entérologue"))
+                .build();
+    }
+
+    private record Codec(ObjectMapper mapper, boolean gzip) {
+
+        byte[] encode(Object value) throws IOException {
+            byte[] bytes = mapper.writeValueAsBytes(value);
+            if (!gzip) {
+                return bytes;
+            }
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            return compressed.toByteArray();
+        }
+
+        <T> T decode(byte[] bytes, Class<T> type) throws IOException {
+            if (!gzip) {
+                return mapper.readValue(bytes, type);
+            }
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                return mapper.readValue(in, type);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.homosapiens.diagnocareservice.core.ml;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MLWireFormatTest {
+
+    @Test
+    void requestHeaders_ShouldOfferJsonAsFallback_WhenCborActive() {
+        MLWireFormat wireFormat = new MLWireFormat("CBOR", true);
+
+        HttpHeaders headers = wireFormat.requestHeaders();
+
+        assertTrue(wireFormat.isCbor());
+        assertEquals(MLWireFormat.APPLICATION_CBOR, headers.getContentType());
+        assertEquals(2, headers.getAccept().size());
+        assertEquals(MLWireFormat.APPLICATION_CBOR, headers.getAccept().get(0));
+        assertEquals(0.5, headers.getAccept().get(1).getQualityValue());
+    }
+
+    @Test
+    void constructor_ShouldUseCbor_WithTheDefaultClasspath() {
+        assertTrue(new MLWireFormat("cbor").isCbor());
+        assertTrue(new RestTemplate().getMessageConverters().stream()
+                .anyMatch(converter -> converter.getSupportedMediaTypes().contains(MLWireFormat.APPLICATION_CBOR)));
+    }
+
+    @Test
+    void constructor_ShouldUseJson_WhenCborCodecMissing() {
+        MLWireFormat wireFormat = new MLWireFormat("cbor", false);
+
+        assertFalse(wireFormat.isCbor());
+        assertEquals(MediaType.APPLICATION_JSON, wireFormat.requestHeaders().getContentType());
+    }
+
+    @Test
+    void fallBackToJson_ShouldSwitchOnce() {
+        MLWireFormat wireFormat = new MLWireFormat("cbor", true);
+
+        wireFormat.fallBackToJson();
+        wireFormat.fallBackToJson();
+
+        assertFalse(wireFormat.isCbor());
+        assertEquals("json", wireFormat.snapshot().get("active"));
+        assertEquals(1L, wireFormat.snapshot().get("fallbacks"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.homosapiens.diagnocareservice.core.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataEncryptionServiceTest {
+
+    private final String key = DataEncryptionService.generateKey();
+    private final DataEncryptionService service = new DataEncryptionService(key);
+
+    @Test
+    void encrypt_ShouldRoundTripWithFreshIv() {
+        String first = service.encrypt("Hypertension artérielle");
+        String second = service.encrypt("Hypertension artérielle");
+
+        assertNotEquals(first, second);
+        assertEquals("Hypertension artérielle", service.decrypt(first));
+        assertEquals("Hypertension artérielle", service.decrypt(second));
+    }
+
+    @Test
+    void decrypt_ShouldReadValuesWrittenWithIvPrefixLayout() throws Exception {
+        byte[] iv = new byte[12];
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(key), "AES"),
+                new GCMParameterSpec(128, iv));
+        byte[] cipherText = cipher.doFinal("77 123 45 67".getBytes(StandardCharsets.UTF_8));
+        String stored = Base64.getEncoder().encodeToString(
+                ByteBuffer.allocate(iv.length + cipherText.length).put(iv).put(cipherText).array());
+
+        assertEquals("77 123 45 67", service.decrypt(stored));
+        assertTrue(DataEncryptionService.isEncrypted(stored));
+        assertTrue(service.needsReencryption(stored));
+    }
+
+    @Test
+    void encrypt_ShouldWriteActiveKeyHeader_AndDecryptOlderKeys() {
+        String rotatedKey = DataEncryptionService.generateKey();
+        DataEncryptionService rotated = new DataEncryptionService(key, "1:" + rotatedKey, "");
+        String oldValue = service.encrypt("patient@example.com");
+        String newValue = rotated.encrypt("patient@example.com");
+
+        assertEquals(DataEncryptionService.LEGACY_KEY_ID, DataEncryptionService.keyIdOf(oldValue));
+        assertEquals(1, DataEncryptionService.keyIdOf(newValue));
+        assertTrue(DataEncryptionService.isEncrypted(newValue));
+        assertEquals("patient@example.com", rotated.decrypt(oldValue));
+        assertTrue(rotated.needsReencryption(oldValue));
+        assertFalse(rotated.needsReencryption(newValue));
+        assertEquals(1, DataEncryptionService.keyIdOf(rotated.reencrypt(oldValue)));
+
+        // Key 1 only, without the secret key: older values are no longer readable
+        DataEncryptionService keyOneOnly = new DataEncryptionService("", "1:" + rotatedKey, "1");
+        assertEquals("patient@example.com", keyOneOnly.decrypt(newValue));
+        assertThrows(RuntimeException.class, () -> keyOneOnly.decrypt(oldValue));
+    }
+
+    @Test
+    void constructor_ShouldRejectUnknownActiveKey() {
+        assertThrows(IllegalStateException.class, () -> new DataEncryptionService(key, "", "2"));
+        assertThrows(IllegalStateException.class, () -> new DataEncryptionService("", "", ""));
+    }
+
+    @Test
+    void isEncrypted_ShouldNotTreatPlainTextAsCiphertext() {
+        assertFalse(DataEncryptionService.isEncrypted("true"));
+        assertFalse(DataEncryptionService.isEncrypted("patient@example.com"));
+        assertEquals(-1, DataEncryptionService.keyIdOf("patient@example.com"));
+    }
+
+    @Test
+    void decrypt_ShouldKeepPooledCiphersUsable_AfterTamperedInput() {
+        byte[] tampered = Base64.getDecoder().decode(service.encrypt("value"));
+        tampered[tampered.length - 1] ^= 1;
+
+        assertThrows(RuntimeException.class, () -> service.decrypt(Base64.getEncoder().encodeToString(tampered)));
+        assertThrows(RuntimeException.class, () -> service.decrypt("c2hvcnQ="));
+        assertEquals("value", service.decrypt(service.encrypt("value")));
+    }
+
+    @Test
+    void encrypt_ShouldBeSafeUnderConcurrentUse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String value = "user-" + thread + "-" + i;
+                        if (!value.equals(service.decrypt(service.encrypt(value)))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.homosapiens.diagnocareservice.model.entity;
+
+import com.homosapiens.diagnocareservice.model.entity.enums.GenderEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClinicalProfileTest {
+
+    @Test
+    void toBytes_ShouldRoundTripAllFields() {
+        ClinicalProfile profile = ClinicalProfile.builder()
+                .isSmoking(true)
+                .age(52)
+                .gender(GenderEnum.FEMALE)
+                .weight(71.5f)
+                .meanBloodPressure(128f)
+                .meanCholesterol(212.5f)
+                .sedentary(false)
+                .bmi(26)
+                .alcohol(false)
+                .familyAntecedents(Set.of("diabetes", "hypertension"))
+                .build();
+
+        byte[] bytes = profile.toBytes();
+
+        assertEquals(profile, ClinicalProfile.fromBytes(bytes));
+        assertTrue(bytes.length < 64);
+    }
+
+    @Test
+    void toBytes_ShouldKeepMissingFieldsNull() {
+        ClinicalProfile profile = ClinicalProfile.builder().age(30).alcohol(true).build();
+
+        ClinicalProfile decoded = ClinicalProfile.fromBytes(profile.toBytes());
+
+        assertEquals(profile, decoded);
+        assertNull(decoded.getGender());
+        assertNull(decoded.getFamilyAntecedents());
+        assertEquals(ClinicalProfile.EMPTY, ClinicalProfile.fromBytes(ClinicalProfile.EMPTY.toBytes()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.core.config.jpa.CatalogUniqueConstraintCheck;
+import com.homosapiens.diagnocareservice.core.kafka.KafkaProducer;
+import com.homosapiens.diagnocareservice.model.entity.Pathology;
+import com.homosapiens.diagnocareservice.repository.DoctorRepository;
+import com.homosapiens.diagnocareservice.repository.PathologyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:clinical_catalog;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL"
+})
+class ClinicalCatalogServiceIntegrationTest {
+
+    @MockBean
+    private KafkaProducer kafkaProducer;
+
+    @Autowired
+    private ClinicalCatalogService clinicalCatalogService;
+
+    @Autowired
+    private PathologyService pathologyService;
+
+    @Autowired
+    private PathologyRepository pathologyRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private CatalogUniqueConstraintCheck catalogUniqueConstraintCheck;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void getOrCreatePathology_ShouldCreateOneRow_WhenCalledConcurrently() throws Exception {
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Pathology>> calls = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                calls.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return clinicalCatalogService.getOrCreatePathology("Dengue", "AI predicted pathology");
+                }, pool));
+            }
+            start.countDown();
+
+            Long id = calls.get(0).get(10, TimeUnit.SECONDS).getId();
+            for (CompletableFuture<Pathology> call : calls) {
+                assertEquals(id, call.get(10, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, pathologyRepository.findAll().stream()
+                .filter(p -> "Dengue".equals(p.getPathologyName())).count());
+    }
+
+    @Test
+    void getOrCreateDoctor_ShouldReuseExistingRow() {
+        Long first = clinicalCatalogService.getOrCreateDoctor("Cardiologist", BigDecimal.TEN, "AI recommended specialist").getId();
+        Long second = clinicalCatalogService.getOrCreateDoctor("Cardiologist", BigDecimal.ONE, "AI recommended specialist").getId();
+
+        assertEquals(first, second);
+        assertEquals(1, doctorRepository.findAll().stream()
+                .filter(d -> "Cardiologist".equals(d.getSpecialistLabel())).count());
+    }
+
+    @Test
+    void updatePathology_ShouldEvictRenamedEntry() {
+        Pathology created = clinicalCatalogService.getOrCreatePathology("Flu", "AI predicted pathology");
+
+        Pathology renamed = new Pathology();
+        renamed.setPathologyName("Influenza");
+        pathologyService.updatePathology(created.getId(), renamed);
+
+        Pathology recreated = clinicalCatalogService.getOrCreatePathology("Flu", "AI predicted pathology");
+        assertNotEquals(created.getId(), recreated.getId());
+    }
+
+    @Test
+    void reload_ShouldForgetPathologyDeletedThroughAnotherInstance() {
+        Pathology created = clinicalCatalogService.getOrCreatePathology("Typhoid", "AI predicted pathology");
+        jdbcTemplate.update("delete from pathologies where id = ?", created.getId());
+
+        clinicalCatalogService.reload();
+
+        Pathology recreated = clinicalCatalogService.getOrCreatePathology("Typhoid", "AI predicted pathology");
+        assertNotEquals(created.getId(), recreated.getId());
+        assertTrue(pathologyRepository.existsById(recreated.getId()));
+    }
+
+    @Test
+    void catalogUniqueConstraintCheck_ShouldFail_WhenConstraintIsMissing() {
+        catalogUniqueConstraintCheck.verify();
+
+        jdbcTemplate.execute("alter table pathologies drop constraint uk_pathologies_name");
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                Pathology duplicate = new Pathology();
+                duplicate.setPathologyName("Malaria");
+                ids.add(pathologyRepository.save(duplicate).getId());
+            }
+
+            IllegalStateException error = assertThrows(IllegalStateException.class, catalogUniqueConstraintCheck::verify);
+            assertTrue(error.getMessage().contains("pathologies.pathology_name (1 duplicated values)"), error.getMessage());
+        } finally {
+            pathologyRepository.deleteAllById(ids);
+            jdbcTemplate.execute("alter table pathologies add constraint uk_pathologies_name unique (pathology_name)");
+        }
+    }
+}
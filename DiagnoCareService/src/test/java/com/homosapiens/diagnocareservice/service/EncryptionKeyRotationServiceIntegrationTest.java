@@ -0,0 +1,88 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.core.kafka.KafkaProducer;
+import com.homosapiens.diagnocareservice.core.security.DataEncryptionService;
+import com.homosapiens.diagnocareservice.model.entity.User;
+import com.homosapiens.diagnocareservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:key_rotation;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL",
+        "encryption.rotation.enabled=false",
+        "encryption.rotation.batch-size=2"
+})
+class EncryptionKeyRotationServiceIntegrationTest {
+
+    @MockBean
+    private KafkaProducer kafkaProducer;
+
+    @Autowired
+    private EncryptionKeyRotationService encryptionKeyRotationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppSettingService appSettingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${encryption.secret-key}")
+    private String secretKey;
+
+    @Test
+    void rotateNextBatch_ShouldMoveLegacyValuesToActiveKeyFormat() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            User user = new User();
+            user.setFirstName("Rotation");
+            user.setLastName("Test" + i);
+            user.setEmail("rotation" + i + "@example.com");
+            user.setPhoneNumber("06000000" + i);
+            user.setIsActive(true);
+            ids[i] = userRepository.save(user).getId();
+            jdbcTemplate.update("UPDATE users SET phone_number = ? WHERE id = ?", legacyEncrypt("06000000" + i), ids[i]);
+        }
+
+        int batches = 0;
+        while (encryptionKeyRotationService.rotateNextBatch()) {
+            assertTrue(++batches < 50);
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            String stored = jdbcTemplate.queryForObject("SELECT phone_number FROM users WHERE id = ?", String.class, ids[i]);
+            assertEquals(DataEncryptionService.LEGACY_KEY_ID, DataEncryptionService.keyIdOf(stored));
+            assertEquals("06000000" + i, userRepository.findById(ids[i]).orElseThrow().getPhoneNumber());
+            assertEquals("rotation" + i + "@example.com", userRepository.findById(ids[i]).orElseThrow().getEmail());
+        }
+        assertEquals("0:done", appSettingService.getValue("ENCRYPTION_ROTATION_CURSOR_USERS", ""));
+        assertFalse(encryptionKeyRotationService.rotateNextBatch());
+    }
+
+    /** Value as written before the key header existed: Base64(IV | ciphertext+tag). */
+    private String legacyEncrypt(String value) throws Exception {
+        byte[] iv = new byte[12];
+        new SecureRandom().nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(secretKey), "AES"),
+                new GCMParameterSpec(128, iv));
+        byte[] cipherText = cipher.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + cipherText.length).put(iv).put(cipherText).array());
+    }
+}
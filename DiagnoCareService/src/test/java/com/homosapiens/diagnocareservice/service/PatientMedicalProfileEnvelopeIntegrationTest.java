@@ -0,0 +1,161 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.core.kafka.KafkaProducer;
+import com.homosapiens.diagnocareservice.core.security.DataEncryptionService;
+import com.homosapiens.diagnocareservice.dto.PatientMedicalProfileRequestDTO;
+import com.homosapiens.diagnocareservice.model.entity.PatientMedicalProfile;
+import com.homosapiens.diagnocareservice.model.entity.User;
+import com.homosapiens.diagnocareservice.model.entity.enums.GenderEnum;
+import com.homosapiens.diagnocareservice.repository.PatientMedicalProfileRepository;
+import com.homosapiens.diagnocareservice.repository.UserRepository;
+import com.homosapiens.diagnocareservice.service.impl.PatientMedicalProfileServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:profile_envelope;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL",
+        "encryption.profile.envelope=true",
+        "encryption.profile.migration-delay-ms=3600000",
+        "encryption.rotation.enabled=false"
+})
+class PatientMedicalProfileEnvelopeIntegrationTest {
+
+    @MockBean
+    private KafkaProducer kafkaProducer;
+
+    @Autowired
+    private PatientMedicalProfileService patientMedicalProfileService;
+
+    @SpyBean
+    private PatientMedicalProfileRepository profileRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataEncryptionService dataEncryptionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void profile_ShouldBeStoredAsOneEnvelope_AndMigratedFromColumns() {
+        User user = new User();
+        user.setFirstName("Envelope");
+        user.setLastName("Test");
+        user.setEmail("envelope.test@example.com");
+        user.setIsActive(true);
+        Long userId = userRepository.save(user).getId();
+
+        PatientMedicalProfileRequestDTO request = new PatientMedicalProfileRequestDTO();
+        request.setUserId(userId);
+        request.setAge(47);
+        request.setGender(GenderEnum.MALE);
+        request.setWeight(82.5f);
+        request.setBmi(27);
+        request.setFamilyAntecedents(Set.of("diabetes"));
+        Long profileId = patientMedicalProfileService.createOrUpdateProfile(request).getId();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT clinical_envelope, age, weight, family_antecedents FROM patient_medical_profiles WHERE id = ?", profileId);
+        assertNotNull(row.get("clinical_envelope"));
+        assertNull(row.get("age"));
+        assertNull(row.get("weight"));
+        assertNull(row.get("family_antecedents"));
+        assertProfile(profileRepository.findById(profileId).orElseThrow());
+
+        // Same row in the per-column layout, as written before the envelope mode was enabled (booleans
+        // left out: the schema generated for H2 pins encrypted boolean columns to two fixed ciphertexts)
+        jdbcTemplate.update("UPDATE patient_medical_profiles SET clinical_envelope = NULL, age = ?, gender = ?, "
+                        + "weight = ?, bmi = ?, family_antecedents = ? WHERE id = ?",
+                dataEncryptionService.encrypt("47"), dataEncryptionService.encrypt("MALE"),
+                dataEncryptionService.encrypt("82.5"),
+                dataEncryptionService.encrypt("27"), dataEncryptionService.encrypt("[\"diabetes\"]"), profileId);
+        assertProfile(profileRepository.findById(profileId).orElseThrow());
+
+        while (patientMedicalProfileService.migrateNextStorageBatch()) {
+            // one batch per call
+        }
+
+        row = jdbcTemplate.queryForMap(
+                "SELECT clinical_envelope, age, weight FROM patient_medical_profiles WHERE id = ?", profileId);
+        assertNotNull(row.get("clinical_envelope"));
+        assertNull(row.get("age"));
+        assertNull(row.get("weight"));
+        assertProfile(profileRepository.findById(profileId).orElseThrow());
+    }
+
+    @Test
+    void migrateStorageLayout_ShouldSkipRowEditedConcurrently_AndMigrateTheOthers() {
+        Long edited = columnLayoutProfile("edited", "[\"asthma\"]");
+        Long untouched = columnLayoutProfile("untouched", "[]");
+
+        doAnswer(invocation -> {
+            PatientMedicalProfile profile = entityManager.find(PatientMedicalProfile.class, edited);
+            // The user's own edit commits between the migration's read and its write
+            CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                    "UPDATE patient_medical_profiles SET version = version + 1 WHERE id = ?", edited)).join();
+            return Optional.of(profile);
+        }).when(profileRepository).findById(edited);
+        Object target = AopTestUtils.getTargetObject(patientMedicalProfileService);
+        ReflectionTestUtils.setField(target, "migrationCursor", 0L);
+        ReflectionTestUtils.setField(target, "migrationDone", false);
+
+        // The scheduled entry point, as the scheduler calls it
+        ((PatientMedicalProfileServiceImpl) patientMedicalProfileService).migrateStorageLayout();
+
+        assertNull(envelopeOf(edited));
+        assertNotNull(envelopeOf(untouched));
+        assertEquals(Set.of(), profileRepository.findById(untouched).orElseThrow().getFamilyAntecedents());
+    }
+
+    private Long columnLayoutProfile(String name, String familyAntecedentsJson) {
+        User user = new User();
+        user.setFirstName(name);
+        user.setLastName("Migration");
+        user.setEmail(name + ".migration@example.com");
+        user.setIsActive(true);
+        PatientMedicalProfileRequestDTO request = new PatientMedicalProfileRequestDTO();
+        request.setUserId(userRepository.save(user).getId());
+        request.setAge(30);
+        Long profileId = patientMedicalProfileService.createOrUpdateProfile(request).getId();
+        jdbcTemplate.update("UPDATE patient_medical_profiles SET clinical_envelope = NULL, age = ?, "
+                        + "family_antecedents = ? WHERE id = ?",
+                dataEncryptionService.encrypt("30"), dataEncryptionService.encrypt(familyAntecedentsJson), profileId);
+        return profileId;
+    }
+
+    private Object envelopeOf(Long profileId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT clinical_envelope FROM patient_medical_profiles WHERE id = ?", Object.class, profileId);
+    }
+
+    private static void assertProfile(PatientMedicalProfile profile) {
+        assertNull(profile.getIsSmoking());
+        assertEquals(47, profile.getAge());
+        assertEquals(GenderEnum.MALE, profile.getGender());
+        assertEquals(82.5f, profile.getWeight());
+        assertEquals(27, profile.getBmi());
+        assertNull(profile.getMeanBloodPressure());
+        assertEquals(Set.of("diabetes"), profile.getFamilyAntecedents());
+    }
+}
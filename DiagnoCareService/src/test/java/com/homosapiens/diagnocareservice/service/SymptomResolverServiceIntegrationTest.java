@@ -0,0 +1,112 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.core.kafka.KafkaProducer;
+import com.homosapiens.diagnocareservice.model.entity.Symptom;
+import com.homosapiens.diagnocareservice.repository.SymptomRepository;
+import com.homosapiens.diagnocareservice.service.impl.SymptomResolverServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:symptom_resolver;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class SymptomResolverServiceIntegrationTest {
+
+    @MockBean
+    private KafkaProducer kafkaProducer;
+
+    @Autowired
+    private SymptomResolverService symptomResolverService;
+
+    @Autowired
+    private SymptomRepository symptomRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void resolveByLabels_ShouldCreateMissingLabelsOnce_AndKeepRequestOrder() {
+        Symptom existing = new Symptom();
+        existing.setLabel("headache");
+        existing = symptomRepository.save(existing);
+
+        List<Symptom> symptoms = inTransaction(() -> symptomResolverService.resolveByLabels(
+                List.of("nausea", "headache", "blurred_vision", "nausea")));
+
+        assertEquals(List.of("nausea", "headache", "blurred_vision", "nausea"),
+                symptoms.stream().map(Symptom::getLabel).toList());
+        assertEquals(existing.getId(), symptoms.get(1).getId());
+        assertEquals(symptoms.get(0).getId(), symptoms.get(3).getId());
+        assertEquals(1, symptomRepository.findByLabelIn(List.of("nausea")).size());
+    }
+
+    @Test
+    void resolveByLabels_ShouldNotQuery_WhenLabelsAreCached() {
+        List<Long> ids = inTransaction(() -> symptomResolverService.resolveByLabels(List.of("chills", "fatigue")))
+                .stream().map(Symptom::getId).toList();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Long> cachedIds = inTransaction(() -> symptomResolverService.resolveByLabels(List.of("fatigue", "chills")))
+                .stream().map(Symptom::getId).toList();
+
+        assertEquals(List.of(ids.get(1), ids.get(0)), cachedIds);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void resolveByIds_ShouldFail_WhenAnIdIsUnknown() {
+        Symptom existing = new Symptom();
+        existing.setLabel("cough");
+        Long id = symptomRepository.save(existing).getId();
+
+        AppException error = assertThrows(AppException.class,
+                () -> inTransaction(() -> symptomResolverService.resolveByIds(List.of(id, 999_999L))));
+        assertEquals(HttpStatus.NOT_FOUND, error.getStatus());
+    }
+
+    @Test
+    void resolveByIds_ShouldFail_WhenSymptomWasDeletedElsewhere_OnceTheCacheIsCleared() {
+        Symptom existing = new Symptom();
+        existing.setLabel("wheezing");
+        Long id = symptomRepository.save(existing).getId();
+        inTransaction(() -> symptomResolverService.resolveByIds(List.of(id)));
+
+        // Deleted through another instance: the cached reference no longer loads
+        jdbcTemplate.update("delete from symptomes where id = ?", id);
+        assertThrows(EntityNotFoundException.class, () -> inTransaction(
+                () -> symptomResolverService.resolveByIds(List.of(id)).get(0).getLabel()));
+
+        ((SymptomResolverServiceImpl) symptomResolverService).clear();
+        AppException error = assertThrows(AppException.class,
+                () -> inTransaction(() -> symptomResolverService.resolveByIds(List.of(id))));
+        assertEquals(HttpStatus.NOT_FOUND, error.getStatus());
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
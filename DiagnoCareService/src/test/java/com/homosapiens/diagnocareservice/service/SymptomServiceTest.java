@@ -24,6 +24,9 @@ class SymptomServiceTest {
     @Mock
     private SymptomRepository symptomRepository;
 
+    @Mock
+    private SymptomResolverService symptomResolverService;
+
     @InjectMocks
     private SymptomServiceImpl symptomService;
 
@@ -0,0 +1,136 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.core.exception.AppException;
+import com.homosapiens.diagnocareservice.dto.MLTranslationRequestDTO;
+import com.homosapiens.diagnocareservice.dto.MLTranslationResponseDTO;
+import com.homosapiens.diagnocareservice.repository.DoctorRepository;
+import com.homosapiens.diagnocareservice.repository.PathologyRepository;
+import com.homosapiens.diagnocareservice.repository.SymptomRepository;
+import com.homosapiens.diagnocareservice.service.impl.TranslationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TranslationServiceTest {
+
+    @Mock
+    private MLPredictionClient mlPredictionClient;
+
+    @Mock
+    private SymptomRepository symptomRepository;
+
+    @Mock
+    private PathologyRepository pathologyRepository;
+
+    @Mock
+    private DoctorRepository doctorRepository;
+
+    @InjectMocks
+    private TranslationServiceImpl translationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(translationService, "cacheEnabled", true);
+        ReflectionTestUtils.setField(translationService, "maxTermsPerLanguage", 5000);
+        ReflectionTestUtils.setField(translationService, "warmLanguages", List.of("fr"));
+    }
+
+    @Test
+    void translate_ShouldAnswerKnownTermsLocally() {
+        when(mlPredictionClient.translate(any())).thenReturn(response(List.of("Fièvre", "Toux"), List.of("Grippe"), List.of("Généraliste")));
+
+        MLTranslationResponseDTO first = translationService.translate(request(List.of("Fever", "Cough"), List.of("Flu"), List.of("General practitioner")));
+        MLTranslationResponseDTO second = translationService.translate(request(List.of("Cough", "Fever"), List.of("Flu"), List.of("General practitioner")));
+
+        assertEquals(List.of("Fièvre", "Toux"), first.getSymptoms());
+        assertEquals(List.of("Toux", "Fièvre"), second.getSymptoms());
+        assertEquals(List.of("Grippe"), second.getDiseases());
+        assertEquals(List.of("Généraliste"), second.getSpecialists());
+        verify(mlPredictionClient, times(1)).translate(any());
+        assertEquals(1L, translationService.getCacheStats().get("requestsServedLocally"));
+    }
+
+    @Test
+    void translate_ShouldSendOnlyUnknownTermsToMl() {
+        when(mlPredictionClient.translate(any()))
+                .thenReturn(response(List.of("Fièvre"), List.of(), List.of()))
+                .thenReturn(response(List.of("Toux"), List.of(), List.of()));
+        translationService.translate(request(List.of("Fever"), List.of(), List.of()));
+
+        MLTranslationResponseDTO result = translationService.translate(request(List.of("Fever", "Cough", "Cough"), List.of(), List.of()));
+
+        ArgumentCaptor<MLTranslationRequestDTO> sent = ArgumentCaptor.forClass(MLTranslationRequestDTO.class);
+        verify(mlPredictionClient, times(2)).translate(sent.capture());
+        assertEquals(List.of("Cough"), sent.getAllValues().get(1).getSymptoms());
+        assertEquals(List.of("Fièvre", "Toux", "Toux"), result.getSymptoms());
+    }
+
+    @Test
+    void translate_ShouldFallBackWithoutCaching_WhenMlFails() {
+        when(mlPredictionClient.translate(any()))
+                .thenThrow(new AppException(HttpStatus.SERVICE_UNAVAILABLE, "ML translation service is unavailable"))
+                .thenReturn(response(List.of("Fièvre"), List.of(), List.of()));
+
+        MLTranslationResponseDTO failed = translationService.translate(request(List.of("Fever"), List.of(), List.of()));
+        MLTranslationResponseDTO retried = translationService.translate(request(List.of("Fever"), List.of(), List.of()));
+
+        assertEquals(List.of("Fever"), failed.getSymptoms());
+        assertEquals(List.of("Fièvre"), retried.getSymptoms());
+        assertEquals(1L, translationService.getCacheStats().get("mlFailures"));
+    }
+
+    @Test
+    void translate_ShouldNotCallMl_ForEnglish() {
+        MLTranslationResponseDTO result = translationService.translate(MLTranslationRequestDTO.builder()
+                .language("en").symptoms(List.of("Fever")).build());
+
+        assertEquals(List.of("Fever"), result.getSymptoms());
+        verifyNoInteractions(mlPredictionClient);
+    }
+
+    @Test
+    void warmUp_ShouldPreloadCatalogTerms() {
+        when(symptomRepository.findAllLabels()).thenReturn(List.of("Fever"));
+        when(pathologyRepository.findAllPathologyNames()).thenReturn(List.of("Flu"));
+        when(doctorRepository.findAllSpecialistLabels()).thenReturn(List.of("General practitioner"));
+        when(mlPredictionClient.translate(any())).thenReturn(response(List.of("Fièvre"), List.of("Grippe"), List.of("Généraliste")));
+
+        translationService.warmUp();
+        MLTranslationResponseDTO result = translationService.translate(request(List.of("Fever"), List.of("Flu"), List.of()));
+
+        assertEquals(List.of("Fièvre"), result.getSymptoms());
+        assertEquals(List.of("Grippe"), result.getDiseases());
+        verify(mlPredictionClient, times(1)).translate(any());
+    }
+
+    private static MLTranslationRequestDTO request(List<String> symptoms, List<String> diseases, List<String> specialists) {
+        return MLTranslationRequestDTO.builder()
+                .language("fr")
+                .symptoms(symptoms)
+                .diseases(diseases)
+                .specialists(specialists)
+                .build();
+    }
+
+    private static MLTranslationResponseDTO response(List<String> symptoms, List<String> diseases, List<String> specialists) {
+        return MLTranslationResponseDTO.builder()
+                .language("fr")
+                .symptoms(symptoms)
+                .diseases(diseases)
+                .specialists(specialists)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.dto.UrgentDiseaseRequestDTO;
+import com.homosapiens.diagnocareservice.model.entity.UrgentDisease;
+import com.homosapiens.diagnocareservice.repository.UrgentDiseaseRepository;
+import com.homosapiens.diagnocareservice.service.impl.UrgentDiseaseServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UrgentDiseaseServiceTest {
+
+    @Mock
+    private UrgentDiseaseRepository urgentDiseaseRepository;
+
+    @InjectMocks
+    private UrgentDiseaseServiceImpl urgentDiseaseService;
+
+    @Test
+    void isUrgentDisease_ShouldMatchNamesAliasesAndFrenchNames_WithoutQueries() {
+        when(urgentDiseaseRepository.findAll()).thenReturn(List.of(
+                urgentDisease(1L, "Paralysis (brain hemorrhage)", "Paralysie (hémorragie cérébrale)", null),
+                urgentDisease(2L, "Heart attack", "Crise cardiaque", "Myocardial infarction")));
+        urgentDiseaseService.reload();
+
+        assertTrue(urgentDiseaseService.isUrgentDisease("paralysis_brain_hemorrhage"));
+        assertTrue(urgentDiseaseService.isUrgentDisease("  HEART ATTACK "));
+        assertTrue(urgentDiseaseService.isUrgentDisease("Paralysie (hemorragie cerebrale)"));
+        assertTrue(urgentDiseaseService.isUrgentDisease("myocardial infarction"));
+        assertFalse(urgentDiseaseService.isUrgentDisease("Migraine"));
+        assertFalse(urgentDiseaseService.isUrgentDisease(" "));
+
+        verify(urgentDiseaseRepository, times(1)).findAll();
+        verify(urgentDiseaseRepository, never()).existsByDiseaseNameIgnoreCase(any());
+    }
+
+    @Test
+    void create_ShouldSwapInNewNames() {
+        List<UrgentDisease> table = new ArrayList<>();
+        when(urgentDiseaseRepository.findAll()).thenAnswer(invocation -> List.copyOf(table));
+        when(urgentDiseaseRepository.save(any(UrgentDisease.class))).thenAnswer(invocation -> {
+            UrgentDisease saved = invocation.getArgument(0);
+            saved.setId(1L);
+            table.add(saved);
+            return saved;
+        });
+        assertFalse(urgentDiseaseService.isUrgentDisease("Pneumonie"));
+
+        UrgentDiseaseRequestDTO request = new UrgentDiseaseRequestDTO();
+        request.setDiseaseName("Pneumonia");
+        request.setDiseaseNameFr("Pneumonie");
+        request.setAliases(List.of("Lung infection", " "));
+        assertEquals(List.of("Lung infection"), urgentDiseaseService.create(request).getAliases());
+
+        assertTrue(urgentDiseaseService.isUrgentDisease("Pneumonie"));
+        assertTrue(urgentDiseaseService.isUrgentDisease("lung-infection"));
+    }
+
+    @Test
+    void reload_ShouldPickUpRowsWrittenByOtherInstances() {
+        List<UrgentDisease> table = new ArrayList<>();
+        when(urgentDiseaseRepository.findAll()).thenAnswer(invocation -> List.copyOf(table));
+        urgentDiseaseService.reload();
+        assertFalse(urgentDiseaseService.isUrgentDisease("Stroke"));
+
+        // Inserted through another replica: only the periodic reload sees it
+        table.add(urgentDisease(3L, "Stroke", "AVC", null));
+        urgentDiseaseService.reload();
+
+        assertTrue(urgentDiseaseService.isUrgentDisease("stroke"));
+        assertTrue(urgentDiseaseService.isUrgentDisease("AVC"));
+    }
+
+    private static UrgentDisease urgentDisease(Long id, String name, String nameFr, String aliases) {
+        UrgentDisease urgentDisease = new UrgentDisease();
+        urgentDisease.setId(id);
+        urgentDisease.setDiseaseName(name);
+        urgentDisease.setDiseaseNameFr(nameFr);
+        urgentDisease.setAliases(aliases);
+        return urgentDisease;
+    }
+}
@@ -0,0 +1,80 @@
+package com.homosapiens.diagnocareservice.service;
+
+import com.homosapiens.diagnocareservice.core.kafka.KafkaProducer;
+import com.homosapiens.diagnocareservice.model.entity.User;
+import com.homosapiens.diagnocareservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:blind_index;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;MODE=PostgreSQL",
+        "encryption.blind-index.backfill-delay-ms=3600000",
+        "encryption.blind-index.backfill-batch-size=2"
+})
+class UserBlindIndexIntegrationTest {
+
+    @MockBean
+    private KafkaProducer kafkaProducer;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lookups_ShouldMatchEncryptedColumnsThroughBlindIndex() {
+        Long id = userRepository.save(user("Blind.Index@Example.com", "04 20 37 13 30")).getId();
+
+        assertEquals(id, userLookupService.findUserByPhoneNumber("0420371330").orElseThrow().getId());
+        assertEquals(id, userLookupService.findUserByEmail("blind.index@example.com ").orElseThrow().getId());
+        assertTrue(userLookupService.findUserByPhoneNumber("0420371331").isEmpty());
+
+        // The index follows updates of the encrypted value
+        User saved = userRepository.findById(id).orElseThrow();
+        saved.setPhoneNumber("0699999999");
+        userRepository.save(saved);
+        assertTrue(userLookupService.findUserByPhoneNumber("0420371330").isEmpty());
+        assertEquals(id, userLookupService.findUserByPhoneNumber("06 99 99 99 99").orElseThrow().getId());
+
+        // Phone numbers are not unique: a second account may use the same one, lookups return the oldest
+        userRepository.save(user("other@example.com", "06-99-99-99-99"));
+        assertEquals(id, userLookupService.findUserByPhoneNumber("0699999999").orElseThrow().getId());
+    }
+
+    @Test
+    void backfillNextBatch_ShouldIndexRowsWrittenBeforeTheColumnsExisted() {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = userRepository.save(user("backfill" + i + "@example.com", "070000000" + i)).getId();
+        }
+        jdbcTemplate.update("UPDATE users SET email_bidx = NULL, phone_bidx = NULL WHERE email_hash IS NOT NULL");
+        assertTrue(userLookupService.findUserByPhoneNumber("0700000001").isEmpty());
+
+        while (userLookupService.backfillNextBatch()) {
+            // one batch per call, like the scheduled job
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(ids[i], userLookupService.findUserByPhoneNumber("070000000" + i).orElseThrow().getId());
+        }
+    }
+
+    private static User user(String email, String phoneNumber) {
+        User user = new User();
+        user.setFirstName("Blind");
+        user.setLastName("Index");
+        user.setEmail(email);
+        user.setPhoneNumber(phoneNumber);
+        user.setIsActive(true);
+        return user;
+    }
+}
@@ -228,24 +228,24 @@ class UserServiceTest {
         user.setId(1L);
         user.setPhoneNumber(phoneNumber);
 
-        when(userRepository.findByPhoneNumber(phoneNumber)).thenReturn(Optional.of(user));
+        when(userLookupService.findUserByPhoneNumber(phoneNumber)).thenReturn(Optional.of(user));
 
         Optional<User> result = userService.getUserByPhoneNumber(phoneNumber);
 
         assertTrue(result.isPresent());
         assertEquals(phoneNumber, result.get().getPhoneNumber());
-        verify(userRepository).findByPhoneNumber(phoneNumber);
+        verify(userLookupService).findUserByPhoneNumber(phoneNumber);
     }
 
     @Test
     void getUserByPhoneNumber_ShouldReturnEmpty_WhenUserDoesNotExist() {
         String phoneNumber = "+9999999999";
 
-        when(userRepository.findByPhoneNumber(phoneNumber)).thenReturn(Optional.empty());
+        when(userLookupService.findUserByPhoneNumber(phoneNumber)).thenReturn(Optional.empty());
 
         Optional<User> result = userService.getUserByPhoneNumber(phoneNumber);
 
         assertFalse(result.isPresent());
-        verify(userRepository).findByPhoneNumber(phoneNumber);
+        verify(userLookupService).findUserByPhoneNumber(phoneNumber);
     }
 }
@@ -0,0 +1,86 @@
+package com.diagnocare.gateway.core.config.security;
+
+import com.diagnocare.gateway.data.dto.UserDto;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Verifies AuthService access tokens inside the gateway: HS256 signature with the shared
+ * {@code security.jwt.token.secret-key}, expiry, and the claims AuthService puts in every access
+ * token (issuer = email, {@code id}, {@code roles}, {@code lang}). Saves the validate-token call,
+ * and the user lookup behind it, on every request.
+ * <p>
+ * Disabled when no key is configured, or when the key is shorter than the 256 bits HS256 requires
+ * (the parser refuses such keys); AuthFilter then validates remotely as before.
+ */
+@Slf4j
+@Component
+public class JwtTokenVerifier {
+
+    private final JwtParser parser;
+
+    public JwtTokenVerifier(@Value("${security.jwt.token.secret-key:}") String secretKey,
+                            @Value("${auth.token.local-verification.enabled:true}") boolean enabled,
+                            @Value("${auth.token.clock-skew-seconds:0}") long clockSkewSeconds) {
+        byte[] keyBytes = secretKey == null ? new byte[0] : secretKey.getBytes(StandardCharsets.UTF_8);
+        if (!enabled || keyBytes.length == 0) {
+            this.parser = null;
+        } else if (keyBytes.length * 8 < 256) {
+            log.warn("security.jwt.token.secret-key is shorter than 256 bits, tokens are validated by AuthService");
+            this.parser = null;
+        } else {
+            this.parser = Jwts.parserBuilder()
+                    .setSigningKey(new SecretKeySpec(keyBytes, SignatureAlgorithm.HS256.getJcaName()))
+                    .setAllowedClockSkewSeconds(clockSkewSeconds)
+                    .build();
+        }
+    }
+
+    public boolean isEnabled() {
+        return parser != null;
+    }
+
+    /**
+     * @return the user the token was issued to
+     * @throws io.jsonwebtoken.ExpiredJwtException   if the token has expired
+     * @throws io.jsonwebtoken.security.SignatureException if it was not signed with our key
+     * @throws JwtException                          if it is malformed or not an access token
+     */
+    public UserDto verify(String token) {
+        if (parser == null) {
+            throw new IllegalStateException("Local token verification is disabled");
+        }
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Empty token", e);
+        }
+        if (claims.getExpiration() == null || claims.getIssuer() == null || claims.get("id") == null) {
+            throw new MalformedJwtException("Token is missing required claims");
+        }
+        if (claims.get("tokenType") != null) {
+            // Only refresh tokens carry a token type
+            throw new MalformedJwtException("Not an access token");
+        }
+
+        UserDto user = new UserDto();
+        user.setId(claims.get("id", Number.class).longValue());
+        user.setEmail(claims.getIssuer());
+        List<?> roles = claims.get("roles", List.class);
+        user.setRoles(roles == null ? List.of() : roles.stream().map(String::valueOf).toList());
+        user.setLang(claims.get("lang", String.class));
+        return user;
+    }
+}
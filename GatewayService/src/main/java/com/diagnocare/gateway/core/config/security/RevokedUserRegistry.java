@@ -0,0 +1,73 @@
+package com.diagnocare.gateway.core.config.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Users deleted in AuthService (USER_DELETED events), refused by AuthFilter even though their access
+ * tokens still verify locally and may sit in {@link ValidatedTokenCache}. An entry is kept for
+ * {@code auth.token.revocation.ttl-ms} after the deletion, the longest an access token issued before
+ * it can live (AuthService's {@code security.jwt.token.expiration}).
+ * <p>
+ * Metric: {@code gateway.auth.revoked.users}.
+ */
+@Component
+public class RevokedUserRegistry {
+
+    private final long ttlMs;
+    private final LongSupplier clock;
+
+    /** User id -> epoch millis after which the user's pre-deletion tokens have all expired. */
+    private final Map<Long, Long> revokedUntil = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RevokedUserRegistry(MeterRegistry meterRegistry,
+                               @Value("${auth.token.revocation.ttl-ms:3600000}") long ttlMs) {
+        this(ttlMs, System::currentTimeMillis);
+        Gauge.builder("gateway.auth.revoked.users", revokedUntil, Map::size).register(meterRegistry);
+    }
+
+    RevokedUserRegistry(long ttlMs, LongSupplier clock) {
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    /**
+     * @param revokedAt epoch millis of the deletion, so events replayed after a restart expire on time
+     */
+    public void revoke(Long userId, long revokedAt) {
+        long until = revokedAt + ttlMs;
+        long now = clock.getAsLong();
+        if (userId == null || until <= now) {
+            return;
+        }
+        revokedUntil.merge(userId, until, Math::max);
+        revokedUntil.values().removeIf(expiry -> expiry <= now);
+    }
+
+    public boolean isRevoked(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long until = revokedUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until <= clock.getAsLong()) {
+            revokedUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    public int size() {
+        return revokedUntil.size();
+    }
+}
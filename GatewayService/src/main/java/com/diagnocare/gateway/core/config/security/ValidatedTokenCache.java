@@ -0,0 +1,190 @@
+package com.diagnocare.gateway.core.config.security;
+
+import com.diagnocare.gateway.data.dto.UserDto;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of validated bearer tokens, so a burst of requests from one screen is validated
+ * once. Keyed by a SHA-256 of the token (the token itself is never kept), an entry lives until the
+ * token's {@code exp} or {@code auth.token.cache.ttl-ms}, whichever comes first. For tokens validated
+ * by AuthService the TTL bounds how long a revocation there goes unnoticed; a locally verified token
+ * would pass until {@code exp} anyway, so deleted users are refused through
+ * {@link RevokedUserRegistry} instead. Concurrent validations of the same token share one in-flight
+ * call. Failed validations are not cached.
+ * <p>
+ * Metrics: {@code gateway.auth.token.cache.requests} by result (hit, miss, coalesced),
+ * {@code gateway.auth.token.cache.hit.ratio} and {@code gateway.auth.token.cache.size}.
+ */
+@Component
+public class ValidatedTokenCache {
+
+    private final boolean enabled;
+    private final long ttlMs;
+    private final int maxSize;
+    private final LongSupplier clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<UserDto>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @Autowired
+    public ValidatedTokenCache(MeterRegistry meterRegistry,
+                               @Value("${auth.token.cache.enabled:true}") boolean enabled,
+                               @Value("${auth.token.cache.ttl-ms:30000}") long ttlMs,
+                               @Value("${auth.token.cache.max-size:10000}") int maxSize) {
+        this(enabled, ttlMs, maxSize, System::currentTimeMillis);
+        FunctionCounter.builder("gateway.auth.token.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("gateway.auth.token.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("gateway.auth.token.cache.requests", coalesced, LongAdder::sum)
+                .tag("result", "coalesced").register(meterRegistry);
+        Gauge.builder("gateway.auth.token.cache.hit.ratio", this, ValidatedTokenCache::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("gateway.auth.token.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    ValidatedTokenCache(boolean enabled, long ttlMs, int maxSize, LongSupplier clock) {
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached user for the token, or validates it with {@code validator}, joining a
+     * validation of the same token that is already running.
+     */
+    public Mono<UserDto> get(String token, Function<String, Mono<UserDto>> validator) {
+        if (!enabled) {
+            return validator.apply(token);
+        }
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt > clock.getAsLong()) {
+                hits.increment();
+                return Mono.just(entry.user);
+            }
+            entries.remove(key, entry);
+        }
+
+        CompletableFuture<UserDto> pending = new CompletableFuture<>();
+        CompletableFuture<UserDto> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced.increment();
+            // If the leading request was cancelled (client went away), validate again ourselves
+            return Mono.fromFuture(existing, true)
+                    .onErrorResume(CancellationException.class, e -> get(token, validator));
+        }
+        misses.increment();
+        return Mono.defer(() -> validator.apply(token))
+                .doOnNext(user -> put(key, token, user))
+                .doOnSuccess(user -> {
+                    inFlight.remove(key, pending);
+                    pending.complete(user);
+                })
+                .doOnError(e -> {
+                    inFlight.remove(key, pending);
+                    pending.completeExceptionally(e);
+                })
+                .doOnCancel(() -> {
+                    inFlight.remove(key, pending);
+                    pending.cancel(false);
+                });
+    }
+
+    public double hitRatio() {
+        long served = hits.sum() + coalesced.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 0.0 : (double) served / total;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void put(String key, String token, UserDto user) {
+        long now = clock.getAsLong();
+        long expiresAt = now + ttlMs;
+        Long tokenExpiry = expiryMillis(token);
+        if (tokenExpiry == null) {
+            // Without a readable exp we cannot bound the entry by the token's lifetime
+            return;
+        }
+        expiresAt = Math.min(expiresAt, tokenExpiry);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(key, new Entry(user, expiresAt));
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * {@code exp} of the token in epoch millis, read without verification: it is only used after the
+     * token has been validated, to bound the cache entry.
+     */
+    private Long expiryMillis(String token) {
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first < 0 || second < 0) {
+            return null;
+        }
+        try {
+            JsonNode payload = objectMapper.readTree(Base64.getUrlDecoder().decode(token.substring(first + 1, second)));
+            JsonNode exp = payload.get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000 : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(UserDto user, long expiresAt) {
+    }
+}
@@ -2,23 +2,33 @@ package com.diagnocare.gateway.core.config.webConfig;
 
 import com.diagnocare.gateway.data.dto.UserDto;
 import com.diagnocare.gateway.core.config.exception.AuthServiceException;
+import com.diagnocare.gateway.core.config.security.JwtTokenVerifier;
+import com.diagnocare.gateway.core.config.security.RevokedUserRegistry;
+import com.diagnocare.gateway.core.config.security.ValidatedTokenCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHeaders;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @EqualsAndHashCode(callSuper = true)
@@ -26,7 +36,10 @@ import java.util.Map;
 @Component
 public class AuthFilter extends AbstractGatewayFilterFactory<AuthFilter.Config> {
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient authServiceWebClient;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final ValidatedTokenCache validatedTokenCache;
+    private final RevokedUserRegistry revokedUserRegistry;
 
     @Value("${auth.service.uri}")
     private String authServiceUri;
@@ -34,13 +47,26 @@ public class AuthFilter extends AbstractGatewayFilterFactory<AuthFilter.Config>
     @Value("${auth.service.validate.token.endpoint}")
     private String authServiceValidateTokenEndpoint;
 
-    public AuthFilter(WebClient.Builder webClientBuilder) {
+    /**
+     * Ask AuthService when the token cannot be verified locally: local verification disabled, or a
+     * signature made with another key (e.g. AuthService already on a new secret).
+     */
+    @Value("${auth.token.remote-fallback.enabled:true}")
+    private boolean remoteFallbackEnabled;
+
+    public AuthFilter(WebClient authServiceWebClient, JwtTokenVerifier jwtTokenVerifier,
+                      ValidatedTokenCache validatedTokenCache, RevokedUserRegistry revokedUserRegistry) {
         super(Config.class);
-        this.webClientBuilder = webClientBuilder;
+        this.authServiceWebClient = authServiceWebClient;
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.validatedTokenCache = validatedTokenCache;
+        this.revokedUserRegistry = revokedUserRegistry;
     }
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private final AtomicBoolean signatureFallbackLogged = new AtomicBoolean();
+
 
     @Override
     public GatewayFilter apply(Config config) {
@@ -65,59 +91,106 @@ public class AuthFilter extends AbstractGatewayFilterFactory<AuthFilter.Config>
 
             log.debug("Validating token for request to {}", exchange.getRequest().getURI());
 
-            return webClientBuilder.build()
-                    .post()
-                    .uri(authServiceUri + authServiceValidateTokenEndpoint )
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
-                    .retrieve()
-                    .onStatus(
-                            status -> status.equals(HttpStatus.UNAUTHORIZED),
-                            response -> response.bodyToMono(String.class)
-                                    .defaultIfEmpty("Invalid or expired token")
-                                    .flatMap(body -> Mono.error(new AuthServiceException(HttpStatus.UNAUTHORIZED, body)))
-                    )
-                    .onStatus(
-                            HttpStatusCode::is4xxClientError,
-                            response -> response.bodyToMono(String.class)
-                                    .defaultIfEmpty("Client error during token validation")
-                                    .flatMap(body -> {
-                                        HttpStatus status = toHttpStatus(response.statusCode());
-                                        return Mono.error(new AuthServiceException(status, body));
-                                    })
-                    )
-                    .onStatus(
-                            HttpStatusCode::is5xxServerError,
-                            response -> response.bodyToMono(String.class)
-                                    .defaultIfEmpty("Auth service error")
-                                    .flatMap(body -> {
-                                        HttpStatus status = toHttpStatus(response.statusCode());
-                                        return Mono.error(new AuthServiceException(status, body));
-                                    })
-                    )
-                    .bodyToMono(UserDto.class)
-                    .flatMap(userDto -> {
-                        log.debug("Token validation successful for user {} in request to {}",
-                                userDto.getEmail(), exchange.getRequest().getURI());
-
-                        var mutatedRequest = exchange.getRequest().mutate()
-                                .header("x-auth-user-id", String.valueOf(userDto.getId()))
-                                .header("x-auth-user-email", userDto.getEmail())
-                                .header("x-auth-user-role", userDto.getRole())
-                                .header("x-auth-user-lang", userDto.getLang() != null ? userDto.getLang() : "fr")
-                                .build();
-
-                        return chain.filter(exchange.mutate().request(mutatedRequest).build());
-                    })
-                    .onErrorResume(e -> {
-                        if (e instanceof AuthServiceException authEx) {
-                            return createErrorResponse(exchange, authEx.getStatus(), authEx.getMessage());
-                        }
-                        log.error("Unexpected error during token validation", e);
-                        return createErrorResponse(exchange, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error");
-                    });
+            // Checked on every request, cached or not: a verified signature says nothing about deletion
+            return validatedTokenCache.get(token, this::validateToken)
+                    .flatMap(userDto -> revokedUserRegistry.isRevoked(userDto.getId())
+                            ? createErrorResponse(exchange, HttpStatus.UNAUTHORIZED, "User no longer exists. Please login again.")
+                            : forwardAuthenticated(exchange, chain, userDto))
+                    .onErrorResume(AuthServiceException.class,
+                            authEx -> createErrorResponse(exchange, authEx.getStatus(), authEx.getMessage()));
         };
     }
 
+    /**
+     * Verifies the token locally (signature, expiry, claims), falling back to AuthService per
+     * {@code auth.token.remote-fallback.enabled}. Local verification does not see user deletions;
+     * those are refused through {@link RevokedUserRegistry}.
+     */
+    private Mono<UserDto> validateToken(String token) {
+        if (!jwtTokenVerifier.isEnabled()) {
+            return remoteFallbackEnabled
+                    ? validateRemotely(token)
+                    : Mono.error(new AuthServiceException(HttpStatus.UNAUTHORIZED, "Token validation is not available"));
+        }
+        try {
+            return Mono.just(jwtTokenVerifier.verify(token));
+        } catch (ExpiredJwtException e) {
+            return Mono.error(new AuthServiceException(HttpStatus.UNAUTHORIZED, "Token has expired. Please login again."));
+        } catch (SignatureException e) {
+            if (remoteFallbackEnabled) {
+                // Each such token costs a validate-token call (failures are not cached): usually a key mismatch
+                if (signatureFallbackLogged.compareAndSet(false, true)) {
+                    log.warn("Token signature not verifiable with security.jwt.token.secret-key, asking AuthService;"
+                            + " check that it matches AuthService's SECRET_KEY");
+                } else {
+                    log.debug("Token signature not verifiable locally, asking AuthService");
+                }
+                return validateRemotely(token);
+            }
+            return Mono.error(new AuthServiceException(HttpStatus.UNAUTHORIZED, "Invalid or expired token"));
+        } catch (JwtException e) {
+            return Mono.error(new AuthServiceException(HttpStatus.UNAUTHORIZED, "Invalid or expired token"));
+        }
+    }
+
+    private Mono<UserDto> validateRemotely(String token) {
+        return authServiceWebClient
+                .post()
+                .uri(authServiceUri + authServiceValidateTokenEndpoint )
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                .onStatus(
+                        status -> status.equals(HttpStatus.UNAUTHORIZED),
+                        response -> response.bodyToMono(String.class)
+                                .defaultIfEmpty("Invalid or expired token")
+                                .flatMap(body -> Mono.error(new AuthServiceException(HttpStatus.UNAUTHORIZED, body)))
+                )
+                .onStatus(
+                        HttpStatusCode::is4xxClientError,
+                        response -> response.bodyToMono(String.class)
+                                .defaultIfEmpty("Client error during token validation")
+                                .flatMap(body -> {
+                                    HttpStatus status = toHttpStatus(response.statusCode());
+                                    return Mono.error(new AuthServiceException(status, body));
+                                })
+                )
+                .onStatus(
+                        HttpStatusCode::is5xxServerError,
+                        response -> response.bodyToMono(String.class)
+                                .defaultIfEmpty("Auth service error")
+                                .flatMap(body -> {
+                                    HttpStatus status = toHttpStatus(response.statusCode());
+                                    return Mono.error(new AuthServiceException(status, body));
+                                })
+                )
+                .bodyToMono(UserDto.class)
+                .onErrorMap(WebClientRequestException.class, e -> {
+                    // Connect or response timeout, or no pooled connection available in time
+                    log.warn("AuthService unreachable during token validation: {}", e.getMessage());
+                    return new AuthServiceException(HttpStatus.SERVICE_UNAVAILABLE, "Auth service unavailable");
+                })
+                .onErrorMap(e -> !(e instanceof AuthServiceException), e -> {
+                    log.error("Unexpected error during token validation", e);
+                    return new AuthServiceException(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error");
+                });
+    }
+
+    private Mono<Void> forwardAuthenticated(ServerWebExchange exchange, GatewayFilterChain chain, UserDto userDto) {
+        log.debug("Token validation successful for user {} in request to {}",
+                userDto.getEmail(), exchange.getRequest().getURI());
+
+        String role = userDto.getRole() != null ? userDto.getRole()
+                : userDto.getRoles() != null ? String.join(",", userDto.getRoles()) : "";
+        var mutatedRequest = exchange.getRequest().mutate()
+                .header("x-auth-user-id", String.valueOf(userDto.getId()))
+                .header("x-auth-user-email", userDto.getEmail())
+                .header("x-auth-user-role", role)
+                .header("x-auth-user-lang", userDto.getLang() != null ? userDto.getLang() : "fr")
+                .build();
+
+        return chain.filter(exchange.mutate().request(mutatedRequest).build());
+    }
+
     private HttpStatus toHttpStatus(HttpStatusCode statusCode) {
         HttpStatus status = HttpStatus.resolve(statusCode.value());
         return (status != null) ? status : HttpStatus.INTERNAL_SERVER_ERROR;
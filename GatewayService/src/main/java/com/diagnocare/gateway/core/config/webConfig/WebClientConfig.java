@@ -1,9 +1,16 @@
 package com.diagnocare.gateway.core.config.webConfig;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
@@ -13,4 +20,45 @@ public class WebClientConfig {
         return WebClient.builder();
 
     }
+
+    /**
+     * Connection pool for the gateway's own calls to AuthService (token validation). Sized explicitly
+     * rather than Reactor Netty's defaults, with a bound on queued acquires so a slow AuthService
+     * fails requests fast instead of piling them up. Pool gauges are published to Micrometer as
+     * {@code reactor.netty.connection.provider.*} (total, active, idle and pending connections).
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider authServiceConnectionProvider(
+            @Value("${auth.service.http.max-connections:200}") int maxConnections,
+            @Value("${auth.service.http.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${auth.service.http.pending-acquire-timeout-ms:2000}") long pendingAcquireTimeoutMs,
+            @Value("${auth.service.http.max-idle-time-ms:30000}") long maxIdleTimeMs,
+            @Value("${auth.service.http.max-life-time-ms:300000}") long maxLifeTimeMs) {
+        return ConnectionProvider.builder("auth-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Shared, load-balanced client for AuthService, built once instead of per request.
+     */
+    @Bean
+    public WebClient authServiceWebClient(@LoadBalanced WebClient.Builder loadBalancedWebClientBuilder,
+                                          ConnectionProvider authServiceConnectionProvider,
+                                          @Value("${auth.service.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+                                          @Value("${auth.service.http.response-timeout-ms:3000}") long responseTimeoutMs) {
+        HttpClient httpClient = HttpClient.create(authServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        // clone() so the shared builder bean keeps its own connector
+        return loadBalancedWebClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
 }
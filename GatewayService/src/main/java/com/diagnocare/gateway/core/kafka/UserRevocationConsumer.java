@@ -0,0 +1,32 @@
+package com.diagnocare.gateway.core.kafka;
+
+import com.diagnocare.gateway.core.config.security.RevokedUserRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds USER_DELETED events (keyed by user id) into {@link RevokedUserRegistry}. Every gateway
+ * instance needs every event, so each one joins its own consumer group, and reads the topic from the
+ * start: deletions older than the registry TTL are dropped on arrival.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserRevocationConsumer {
+
+    private final RevokedUserRegistry revokedUserRegistry;
+
+    @KafkaListener(topics = "USER_DELETED", groupId = "gateway-revocation-${random.uuid}",
+            autoStartup = "${auth.token.revocation.enabled:true}",
+            properties = "auto.offset.reset=earliest")
+    public void onUserDeleted(ConsumerRecord<String, String> record) {
+        try {
+            revokedUserRegistry.revoke(Long.valueOf(record.key()), record.timestamp());
+        } catch (NumberFormatException e) {
+            log.warn("USER_DELETED event without a user id key: {}", record.key());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.diagnocare.gateway.data.dto;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class UserDto {
     private Long id;
@@ -10,6 +12,7 @@ public class UserDto {
     private String email;
     private String token;
     private String role;
+    private List<String> roles;
     private String lang;
 
     @Override
@@ -21,6 +24,7 @@ public class UserDto {
                 ", email='" + email + '\'' +
                 ", token='" + token + '\'' +
                 ", role='" + role + '\'' +
+                ", roles=" + roles +
                 ", lang='" + lang + '\'' +
                 '}';
     }
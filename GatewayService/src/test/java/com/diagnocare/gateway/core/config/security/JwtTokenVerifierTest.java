@@ -0,0 +1,68 @@
+package com.diagnocare.gateway.core.config.security;
+
+import com.diagnocare.gateway.data.dto.UserDto;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenVerifierTest {
+
+    private static final String SECRET = "a-gateway-test-secret-of-at-least-32-bytes";
+
+    private final JwtTokenVerifier verifier = new JwtTokenVerifier(SECRET, true, 0);
+
+    @Test
+    void verify_ShouldReadUserFromClaims() {
+        UserDto user = verifier.verify(token(SECRET, 60_000, null));
+
+        assertEquals(42L, user.getId());
+        assertEquals("jane@example.com", user.getEmail());
+        assertEquals(List.of("PATIENT"), user.getRoles());
+        assertEquals("en", user.getLang());
+    }
+
+    @Test
+    void verify_ShouldRejectExpiredForeignAndRefreshTokens() {
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token(SECRET, -60_000, null)));
+        assertThrows(SignatureException.class,
+                () -> verifier.verify(token("another-secret-that-is-also-32-bytes-long", 60_000, null)));
+        assertThrows(JwtException.class, () -> verifier.verify(token(SECRET, 60_000, "refresh")));
+        assertThrows(JwtException.class, () -> verifier.verify("not-a-jwt"));
+    }
+
+    @Test
+    void isEnabled_ShouldBeFalseForMissingOrWeakKeys() {
+        assertTrue(verifier.isEnabled());
+        assertFalse(new JwtTokenVerifier("", true, 0).isEnabled());
+        assertFalse(new JwtTokenVerifier("dev-secret-key", true, 0).isEnabled());
+        assertFalse(new JwtTokenVerifier(SECRET, false, 0).isEnabled());
+    }
+
+    /** Same claims as AuthService's JWTAuthProvider.createToken. */
+    private static String token(String secret, long validityMs, String tokenType) {
+        Date now = new Date();
+        var builder = Jwts.builder()
+                .setIssuer("jane@example.com")
+                .claim("id", 42L)
+                .claim("roles", List.of("PATIENT"))
+                .claim("lang", "en")
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + validityMs));
+        if (tokenType != null) {
+            builder.claim("tokenType", tokenType);
+        }
+        return builder
+                .signWith(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,37 @@
+package com.diagnocare.gateway.core.config.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevokedUserRegistryTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void isRevoked_ShouldHoldUntilTokensIssuedBeforeDeletionHaveExpired() {
+        RevokedUserRegistry registry = new RevokedUserRegistry(3_600_000, now::get);
+        registry.revoke(7L, now.get());
+
+        assertTrue(registry.isRevoked(7L));
+        assertFalse(registry.isRevoked(8L));
+
+        now.addAndGet(3_600_000);
+        assertFalse(registry.isRevoked(7L));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void revoke_ShouldIgnoreReplayedDeletionsOlderThanTtl() {
+        RevokedUserRegistry registry = new RevokedUserRegistry(3_600_000, now::get);
+
+        registry.revoke(7L, now.get() - 3_600_000);
+        registry.revoke(8L, now.get() - 3_000_000);
+
+        assertFalse(registry.isRevoked(7L));
+        assertTrue(registry.isRevoked(8L));
+        assertFalse(registry.isRevoked(null));
+    }
+}
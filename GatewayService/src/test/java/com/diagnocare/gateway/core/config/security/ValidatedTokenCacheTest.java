@@ -0,0 +1,77 @@
+package com.diagnocare.gateway.core.config.security;
+
+import com.diagnocare.gateway.data.dto.UserDto;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidatedTokenCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final AtomicInteger validations = new AtomicInteger();
+
+    @Test
+    void get_ShouldReuseValidationUntilTtl() {
+        ValidatedTokenCache cache = new ValidatedTokenCache(true, 30_000, 100, now::get);
+        String token = token(now.get() / 1000 + 3600);
+
+        assertEquals(7L, cache.get(token, this::validate).block().getId());
+        assertEquals(7L, cache.get(token, this::validate).block().getId());
+        assertEquals(1, validations.get());
+        assertEquals(0.5, cache.hitRatio());
+
+        now.addAndGet(30_000);
+        cache.get(token, this::validate).block();
+        assertEquals(2, validations.get());
+    }
+
+    @Test
+    void get_ShouldNotOutliveTokenExpiry() {
+        ValidatedTokenCache cache = new ValidatedTokenCache(true, 30_000, 100, now::get);
+        String token = token(now.get() / 1000 + 5);
+
+        cache.get(token, this::validate).block();
+        now.addAndGet(5_000);
+        cache.get(token, this::validate).block();
+        assertEquals(2, validations.get());
+    }
+
+    @Test
+    void get_ShouldCoalesceConcurrentValidationsAndSkipFailures() {
+        ValidatedTokenCache cache = new ValidatedTokenCache(true, 30_000, 100, now::get);
+        String token = token(now.get() / 1000 + 3600);
+        Sinks.One<UserDto> pending = Sinks.one();
+
+        Mono<UserDto> first = cache.get(token, t -> {
+            validations.incrementAndGet();
+            return pending.asMono();
+        });
+        Mono<UserDto> second = cache.get(token, this::validate);
+        first.subscribe();
+        pending.tryEmitError(new IllegalStateException("auth down"));
+
+        assertThrows(IllegalStateException.class, second::block);
+        assertEquals(1, validations.get());
+        assertEquals(0, cache.size());
+    }
+
+    private Mono<UserDto> validate(String token) {
+        validations.incrementAndGet();
+        UserDto user = new UserDto();
+        user.setId(7L);
+        return Mono.just(user);
+    }
+
+    private static String token(long expSeconds) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(("{\"exp\":" + expSeconds + "}").getBytes(StandardCharsets.UTF_8)) + ".sig";
+    }
+}
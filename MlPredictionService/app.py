@@ -21,6 +21,9 @@ from services.translation_service import TranslationService
 from services.nlp_service import NLPService
 from services.prediction_service import PredictionService
 
+# Helpers
+from helper.wire_format import cbor_supported, gzip_response
+
 # Controllers
 from controllers.health_controller import HealthController
 from controllers.metadata_controller import MetadataController
@@ -110,7 +113,7 @@ def create_app() -> Flask:
     )
     
     # Initialisation des controllers
-    health_controller = HealthController()
+    health_controller = HealthController(model_repository)
     metadata_controller = MetadataController(model_repository, translation_service)
     prediction_controller = PredictionController(
         prediction_service,
@@ -121,6 +124,10 @@ def create_app() -> Flask:
     
     # Enregistrement des routes
     _register_routes(app, health_controller, metadata_controller, prediction_controller)
+
+    # Compression gzip des grosses réponses (métadonnées) ; CBOR négocié si cbor2 est installé
+    app.after_request(gzip_response)
+    app.logger.info("Format CBOR %s.", "disponible" if cbor_supported() else "indisponible (cbor2 absent)")
     
     return app
 
@@ -307,6 +314,35 @@ def _register_routes(
         """
         return prediction_controller.predict()
 
+    # Route de prédiction groupée
+    @app.route('/predict/batch', methods=['POST'])
+    def predict_batch():
+        """
+        Predict diseases and specialists for several requests at once
+        ---
+        tags:
+          - Prediction
+        requestBody:
+          required: true
+          content:
+            application/json:
+              schema:
+                type: object
+                required:
+                  - requests
+                properties:
+                  requests:
+                    type: array
+                    items:
+                      type: object
+        responses:
+          200:
+            description: One result per request, each with either "response" or "error"
+          400:
+            description: Invalid input
+        """
+        return prediction_controller.predict_batch()
+
 
 # Point d'entrée de l'application
 if __name__ == '__main__':
@@ -316,4 +352,4 @@ if __name__ == '__main__':
         host=app_config.FLASK_HOST,
         port=app_config.FLASK_PORT,
         debug=app_config.FLASK_DEBUG
-    )
\ No newline at end of file
+    )
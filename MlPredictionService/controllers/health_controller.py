@@ -1,7 +1,9 @@
 """
 Contrôleur pour les endpoints de santé
 """
+from typing import Optional
 from flask import jsonify
+from repositories.model_repository import ModelRepository
 
 
 class HealthController:
@@ -9,8 +11,15 @@ class HealthController:
     Contrôleur pour les endpoints de santé de l'API
     """
     
-    @staticmethod
-    def health_check():
+    def __init__(self, model_repository: Optional[ModelRepository] = None):
+        """
+        Initialise le contrôleur de santé
+        Args:
+            model_repository: Repository des modèles (pour exposer la version chargée)
+        """
+        self.model_repository = model_repository
+    
+    def health_check(self):
         """
         Endpoint de vérification de santé
         Returns:
@@ -18,5 +27,6 @@ class HealthController:
         """
         return jsonify({
             "status": "healthy",
-            "service": "DiagnoCare ML API"
-        }), 200
\ No newline at end of file
+            "service": "DiagnoCare ML API",
+            "model_version": self.model_repository.model_version if self.model_repository else None
+        }), 200
@@ -1,7 +1,11 @@
 """
 Contrôleur pour les endpoints de métadonnées
 """
-from flask import jsonify
+import hashlib
+import json
+import threading
+
+from flask import jsonify, make_response, request
 from repositories.model_repository import ModelRepository
 from services.translation_service import TranslationService
 from utils.text_utils import TextUtils
@@ -26,13 +30,54 @@ class MetadataController:
         self.model_repository = model_repository
         self.translation_service = translation_service
         self.text_utils = TextUtils()
+        # kind -> (model_version, payload, etag) : recalculé seulement après un changement de modèle
+        self._payload_cache = {}
+        self._payload_lock = threading.Lock()
     
     def get_features_metadata(self):
         """
-        Retourne les métadonnées des symptômes et features
+        Retourne les métadonnées des symptômes et features (304 si If-None-Match correspond)
+        Returns:
+            Response: réponse JSON avec ETag
+        """
+        return self._conditional_response("features", self._build_features_metadata)
+
+    def get_diseases_metadata(self):
+        """
+        Retourne les métadonnées des maladies (304 si If-None-Match correspond)
         Returns:
-            tuple: (réponse JSON, code HTTP)
+            Response: réponse JSON avec ETag
+        """
+        return self._conditional_response("diseases", self._build_diseases_metadata)
+
+    def _conditional_response(self, kind: str, builder):
         """
+        Sert le payload mémorisé pour la version de modèle courante, avec un ETag fort
+        calculé sur son contenu; répond 304 sans corps si le client a déjà cette version.
+        La comparaison est faible (RFC 9110) : la réponse gzip porte le même ETag marqué W/.
+        """
+        payload, etag = self._get_payload(kind, builder)
+        if request.if_none_match.contains_weak(etag):
+            response = make_response("", 304)
+        else:
+            response = make_response(jsonify(payload), 200)
+        response.set_etag(etag)
+        return response
+
+    def _get_payload(self, kind: str, builder):
+        version = self.model_repository.model_version
+        with self._payload_lock:
+            cached = self._payload_cache.get(kind)
+            if cached is not None and cached[0] == version:
+                return cached[1], cached[2]
+        payload = builder()
+        body = json.dumps(payload, sort_keys=True, ensure_ascii=False).encode("utf-8")
+        etag = f"{kind}-{hashlib.sha256(body).hexdigest()[:32]}"
+        with self._payload_lock:
+            self._payload_cache[kind] = (version, payload, etag)
+        return payload, etag
+
+    def _build_features_metadata(self) -> dict:
         mlb = self.model_repository.mlb
         symptoms = sorted([str(s) for s in mlb.classes_])
         
@@ -72,7 +117,7 @@ class MetadataController:
              "values_en": ["No", "Yes"], "values_fr": ["Non", "Oui"]}
         ]
         
-        return jsonify({
+        return {
             "symptoms": {
                 "count": len(symptoms),
                 "en": symptoms_en,
@@ -83,14 +128,9 @@ class MetadataController:
                 "categorical": categorical_features
             },
             "languages": ["en", "fr"]
-        }), 200
+        }
 
-    def get_diseases_metadata(self):
-        """
-        Retourne les métadonnées des maladies
-        Returns:
-            tuple: (réponse JSON, code HTTP)
-        """
+    def _build_diseases_metadata(self) -> dict:
         diseases = sorted([str(d) for d in self.model_repository.le_disease.classes_])
         
         diseases_en = [
@@ -102,11 +142,11 @@ class MetadataController:
             for d in diseases
         ]
         
-        return jsonify({
+        return {
             "diseases": {
                 "count": len(diseases),
                 "en": diseases_en,
                 "fr": diseases_fr
             },
             "languages": ["en", "fr"]
-        }), 200
\ No newline at end of file
+        }
\ No newline at end of file
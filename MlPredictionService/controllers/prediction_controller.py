@@ -2,6 +2,7 @@
 Contrôleur pour les endpoints de prédiction, extraction et traduction
 """
 from flask import request, jsonify
+from helper.wire_format import UnsupportedMediaType, read_payload, payload_response, unsupported_media_type_response
 from services.prediction_service import PredictionService
 from services.nlp_service import NLPService
 from services.translation_service import TranslationService
@@ -38,17 +39,43 @@ class PredictionController:
     
     def predict(self):
         """
-        Endpoint pour effectuer une prédiction
+        Endpoint pour effectuer une prédiction (JSON ou CBOR, voir helper.wire_format)
         Returns:
-            tuple: (réponse JSON, code HTTP)
+            tuple: (réponse JSON ou CBOR, code HTTP)
         """
         try:
-            data = request.json
+            data = read_payload()
             pred_request = PredictionRequest.from_dict(data)
             
             response = self.prediction_service.predict(pred_request)
-            return jsonify(response.to_dict()), 200
+            return payload_response(response.to_dict())
             
+        except UnsupportedMediaType as e:
+            return unsupported_media_type_response(e)
+        except ValueError as e:
+            return jsonify({"error": str(e)}), 400
+        except Exception as e:
+            return jsonify({"error": str(e)}), 500
+    
+    def predict_batch(self):
+        """
+        Endpoint de prédiction groupée: {"requests": [...]} -> {"results": [...]}
+        Chaque résultat contient "response" ou "error", dans l'ordre des requêtes.
+        Returns:
+            tuple: (réponse JSON, code HTTP)
+        """
+        try:
+            data = read_payload() or {}
+            items = data.get('requests')
+            if not isinstance(items, list) or not items:
+                return jsonify({"error": "'requests' must be a non-empty list"}), 400
+
+            pred_requests = [PredictionRequest.from_dict(item or {}) for item in items]
+            results = self.prediction_service.predict_batch(pred_requests)
+            return payload_response({"results": results})
+
+        except UnsupportedMediaType as e:
+            return unsupported_media_type_response(e)
         except ValueError as e:
             return jsonify({"error": str(e)}), 400
         except Exception as e:
@@ -97,7 +124,7 @@ class PredictionController:
             tuple: (réponse JSON, code HTTP)
         """
         try:
-            data = request.json or {}
+            data = read_payload() or {}
             translate_request = TranslationRequest.from_dict(data)
             
             is_valid, error_msg = translate_request.validate()
@@ -125,12 +152,14 @@ class PredictionController:
                 for s in translate_request.specialists if s
             ]
             
-            return jsonify({
+            return payload_response({
                 "language": translate_request.language,
                 "symptoms": translated_symptoms,
                 "diseases": translated_diseases,
                 "specialists": translated_specialists
-            }), 200
+            })
             
+        except UnsupportedMediaType as e:
+            return unsupported_media_type_response(e)
         except Exception as e:
             return jsonify({"error": str(e)}), 500
\ No newline at end of file
@@ -0,0 +1,76 @@
+"""
+Format d'échange négocié avec DiagnoCareService : JSON par défaut, CBOR si le client l'envoie
+(Content-Type) ou le préfère (Accept) et que cbor2 est installé, et gzip des grosses réponses.
+"""
+import gzip
+
+from flask import Response, jsonify, request
+
+try:
+    import cbor2
+except ImportError:
+    cbor2 = None
+
+JSON = "application/json"
+CBOR = "application/cbor"
+
+# En dessous de ce seuil, le coût CPU du gzip dépasse le gain réseau
+GZIP_MIN_BYTES = 1024
+
+
+class UnsupportedMediaType(ValueError):
+    """Corps CBOR reçu alors que cbor2 n'est pas installé."""
+
+
+def cbor_supported() -> bool:
+    return cbor2 is not None
+
+
+def read_payload():
+    """
+    Décode le corps de la requête selon son Content-Type (CBOR ou JSON).
+    Raises:
+        UnsupportedMediaType: corps CBOR sans cbor2 installé
+    """
+    if request.mimetype == CBOR:
+        if cbor2 is None:
+            raise UnsupportedMediaType("application/cbor is not supported by this deployment")
+        return cbor2.loads(request.get_data())
+    return request.json
+
+
+def payload_response(payload, status: int = 200):
+    """
+    Sérialise le payload en CBOR si le client le préfère à JSON, en JSON sinon.
+    Returns:
+        tuple: (réponse, code HTTP)
+    """
+    if cbor2 is not None and request.accept_mimetypes.best_match([JSON, CBOR]) == CBOR:
+        return Response(cbor2.dumps(payload), mimetype=CBOR), status
+    return jsonify(payload), status
+
+
+def unsupported_media_type_response(error: UnsupportedMediaType):
+    return jsonify({"error": str(error)}), 415
+
+
+def gzip_response(response: Response) -> Response:
+    """
+    Hook after_request : compresse en gzip les réponses 200 assez grosses quand le client
+    l'accepte. L'ETag devient faible, la représentation encodée n'étant plus identique octet par octet.
+    """
+    if (response.status_code != 200
+            or response.direct_passthrough
+            or "Content-Encoding" in response.headers
+            or "gzip" not in request.headers.get("Accept-Encoding", "").lower()):
+        return response
+    body = response.get_data()
+    if len(body) < GZIP_MIN_BYTES:
+        return response
+    response.set_data(gzip.compress(body, compresslevel=6))
+    response.headers["Content-Encoding"] = "gzip"
+    response.vary.add("Accept-Encoding")
+    etag, weak = response.get_etag()
+    if etag and not weak:
+        response.set_etag(etag, weak=True)
+    return response
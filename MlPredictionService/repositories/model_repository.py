@@ -1,6 +1,7 @@
 """
 Repository pour le chargement des modèles ML
 """
+import hashlib
 import joblib
 import os
 import logging
@@ -25,6 +26,7 @@ class ModelRepository:
         self._models: Dict[str, Any] = {}
         self._loaded = False
         self._disease_specialist_map: Optional[Dict[str, str]] = None
+        self._model_version: Optional[str] = None
     
     def load_all(self) -> bool:
         """
@@ -36,23 +38,35 @@ class ModelRepository:
             self.logger.info("Chargement des modèles...")
             
             model_paths = self.config.get_all_model_paths()
+            fingerprint = hashlib.sha256()
             
-            for model_name, model_path in model_paths.items():
+            for model_name, model_path in sorted(model_paths.items()):
                 if not os.path.exists(model_path):
                     self.logger.error(f"Fichier modèle introuvable: {model_path}")
                     return False
                 
                 self._models[model_name] = joblib.load(model_path)
+                fingerprint.update(f"{model_name}:".encode())
+                self._hash_file(model_path, fingerprint)
                 self.logger.debug(f"Modèle chargé: {model_name}")
             
+            self._model_version = fingerprint.hexdigest()[:16]
             self._loaded = True
-            self.logger.info("Tous les modèles ont été chargés avec succès.")
+            self.logger.info(f"Tous les modèles ont été chargés avec succès (version {self._model_version}).")
             return True
             
         except Exception as e:
             self.logger.error(f"Erreur lors du chargement des modèles: {e}")
             return False
     
+    @staticmethod
+    def _hash_file(path: str, digest) -> None:
+        """Ajoute le contenu du fichier au digest, par blocs pour ne pas le charger deux fois en mémoire"""
+        with open(path, 'rb') as f:
+            for chunk in iter(lambda: f.read(1024 * 1024), b''):
+                digest.update(chunk)
+        digest.update(b';')
+
     def get_model(self, model_name: str) -> Optional[Any]:
         """
         Récupère un modèle par son nom
@@ -158,6 +172,15 @@ class ModelRepository:
             self.logger.error(f"Erreur chargement mapping maladie->spécialiste: {e}", exc_info=True)
             return {}
 
+    @property
+    def model_version(self) -> Optional[str]:
+        """
+        Empreinte du contenu des fichiers modèles chargés (SHA-256 des octets).
+        Identique sur toutes les répliques qui servent le même modèle, quelle que soit la date de
+        déploiement; change à chaque ré-entraînement et permet aux clients d'invalider leurs caches.
+        """
+        return self._model_version
+
     def is_loaded(self) -> bool:
         """
         Vérifie si les modèles sont chargés
@@ -38,15 +38,58 @@ class PredictionService:
         self.logger = logging.getLogger(__name__)
 
     def predict(self, request: PredictionRequest) -> PredictionResponse:
+        model = self._require_models()
+        cleaned_symptoms, profile_data, df_final = self._build_features(request)
+
+        # Prediction
+        probs = model.predict_proba(df_final)
+        return self._build_response(request, cleaned_symptoms, profile_data, probs[0][0], probs[1][0])
+
+    def predict_batch(self, requests: List[PredictionRequest]) -> List[Dict]:
+        """
+        Prédiction groupée: les features de toutes les requêtes valides sont scorées
+        en un seul appel predict_proba. Chaque élément du résultat contient soit
+        "response" soit "error", dans l'ordre des requêtes.
+        """
+        model = self._require_models()
+        outcomes: List[Optional[Dict]] = [None] * len(requests)
+        prepared = []
+
+        for position, pred_request in enumerate(requests):
+            try:
+                cleaned_symptoms, profile_data, df_final = self._build_features(pred_request)
+                prepared.append((position, pred_request, cleaned_symptoms, profile_data, df_final))
+            except ValueError as e:
+                outcomes[position] = {"error": str(e)}
+
+        if prepared:
+            df_batch = pd.concat([item[4] for item in prepared], axis=0, ignore_index=True)
+            probs = model.predict_proba(df_batch)
+            for row, (position, pred_request, cleaned_symptoms, profile_data, _) in enumerate(prepared):
+                try:
+                    response = self._build_response(
+                        pred_request, cleaned_symptoms, profile_data, probs[0][row], probs[1][row]
+                    )
+                    outcomes[position] = {"response": response.to_dict()}
+                except Exception as e:
+                    self.logger.error(f"Erreur de prédiction pour l'élément {position} du lot: {e}")
+                    outcomes[position] = {"error": str(e)}
+
+        return outcomes
+
+    def _require_models(self):
+        model = self.model_repository.model
+        if self.model_repository.mlb is None or model is None:
+            raise ValueError("ML models are not loaded. Please ensure models are trained and available.")
+        return model
+
+    def _build_features(self, request: PredictionRequest):
         is_valid, error_msg = request.validate()
         if not is_valid:
             raise ValueError(error_msg)
 
         mlb = self.model_repository.mlb
         tfidf = self.model_repository.tfidf
-        model = self.model_repository.model
-        if mlb is None or model is None:
-            raise ValueError("ML models are not loaded. Please ensure models are trained and available.")
 
         # Nettoyage et validation des symptomes
         cleaned_symptoms = [
@@ -82,12 +125,16 @@ class PredictionService:
 
         # Combinaison de toutes les features
         df_final = self._combine_features(df_symptoms, df_numerical, df_categorical, df_interactions)
+        return cleaned_symptoms, profile_data, df_final
 
-        # Prediction
-        probs = model.predict_proba(df_final)
-        disease_probs = probs[0][0]
-        specialist_probs = probs[1][0]
-
+    def _build_response(
+        self,
+        request: PredictionRequest,
+        cleaned_symptoms: List[str],
+        profile_data: Dict,
+        disease_probs,
+        specialist_probs,
+    ) -> PredictionResponse:
         # Top 5 maladies
         top_diseases_indices = disease_probs.argsort()[-5:][::-1]
         results = []
@@ -163,7 +210,8 @@ class PredictionService:
 
         metadata = {
             "symptoms_count": len(cleaned_symptoms),
-            "profile_used": profile_data
+            "profile_used": profile_data,
+            "model_version": self.model_repository.model_version
         }
 
         top_prob = disease_probs[top_diseases_indices[0]] * 100